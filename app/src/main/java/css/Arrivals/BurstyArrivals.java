@@ -0,0 +1,51 @@
+package css.Arrivals;
+
+import java.util.Random;
+
+import css.Interfaces.ArrivalProcess;
+
+/**
+ * On/off arrivals: during each on period orders arrive as a Poisson process
+ * at the burst rate, then no orders arrive for the off period, and the
+ * cycle repeats. The first on period starts at time 0.
+ */
+public class BurstyArrivals implements ArrivalProcess {
+
+    private final double meanGapMillis;
+    private final long onMillis;
+    private final long offMillis;
+    private final long seed;
+    private final Random random;
+    // Time spent in on periods so far; arrivals are placed in it and then
+    // spread out over the on/off cycles.
+    private double onTime;
+
+    public BurstyArrivals(double burstOrdersPerSecond, long onMillis, long offMillis, long seed) {
+        if (!(burstOrdersPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + burstOrdersPerSecond);
+        }
+        if (onMillis <= 0 || offMillis < 0) {
+            throw new IllegalArgumentException("On period must be positive and off period not negative: "
+                    + onMillis + "/" + offMillis);
+        }
+        this.meanGapMillis = 1000 / burstOrdersPerSecond;
+        this.onMillis = onMillis;
+        this.offMillis = offMillis;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void reset() {
+        random.setSeed(seed);
+        onTime = 0;
+    }
+
+    @Override
+    public long nextArrivalMillis() {
+        onTime += PoissonArrivals.exponential(random) * meanGapMillis;
+        long cycles = (long) (onTime / onMillis);
+        double intoOnPeriod = onTime - (double) cycles * onMillis;
+        return Math.round(cycles * (double) (onMillis + offMillis) + intoOnPeriod);
+    }
+}
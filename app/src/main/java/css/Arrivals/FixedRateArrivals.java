@@ -0,0 +1,48 @@
+package css.Arrivals;
+
+import css.Interfaces.ArrivalProcess;
+
+/**
+ * Orders arrive in batches of a fixed size at a fixed interval, the first
+ * batch at time 0. One order per batch gives evenly spaced arrivals.
+ */
+public class FixedRateArrivals implements ArrivalProcess {
+
+    private final int ordersPerBatch;
+    private final double batchIntervalMillis;
+    private long orders;
+
+    // Evenly spaced orders at the given rate.
+    public FixedRateArrivals(double ordersPerSecond) {
+        this(1, 1000 / checkRate(ordersPerSecond));
+    }
+
+    public FixedRateArrivals(int ordersPerBatch, double batchIntervalMillis) {
+        if (ordersPerBatch <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + ordersPerBatch);
+        }
+        if (batchIntervalMillis < 0) {
+            throw new IllegalArgumentException("Batch interval must not be negative: " + batchIntervalMillis);
+        }
+        this.ordersPerBatch = ordersPerBatch;
+        this.batchIntervalMillis = batchIntervalMillis;
+    }
+
+    private static double checkRate(double ordersPerSecond) {
+        if (!(ordersPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + ordersPerSecond);
+        }
+        return ordersPerSecond;
+    }
+
+    @Override
+    public long nextArrivalMillis() {
+        long batch = orders++ / ordersPerBatch;
+        return Math.round(batch * batchIntervalMillis);
+    }
+
+    @Override
+    public void reset() {
+        orders = 0;
+    }
+}
@@ -0,0 +1,79 @@
+package css.Arrivals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import css.Interfaces.ArrivalProcess;
+
+/**
+ * Poisson arrivals whose rate follows a profile, e.g. a quiet morning, a
+ * lunch rush and an evening peak. The profile is a list of periods, each
+ * with a length and a rate in orders per second, and it repeats once it
+ * reaches the end, so a 24 hour profile describes every day.
+ *
+ * Each gap is found by drawing an exponential amount of "work" and walking
+ * forward through the periods until the rate integrated over time covers
+ * it, which gives exact arrivals across rate changes.
+ */
+public class PiecewiseRateArrivals implements ArrivalProcess {
+
+    private final long[] periodMillis;
+    private final double[] ordersPerMilli;
+    private final long seed;
+    private final Random random;
+    private int period;
+    // Start of the current period and the current time within the simulation
+    private double periodStart;
+    private double now;
+
+    /**
+     * @param periodMillis The length of each period.
+     * @param ordersPerSecond The arrival rate in each period, 0 for none.
+     *        At least one must be positive.
+     */
+    public PiecewiseRateArrivals(long[] periodMillis, double[] ordersPerSecond, long seed) {
+        if (periodMillis.length == 0 || periodMillis.length != ordersPerSecond.length) {
+            throw new IllegalArgumentException("Need one rate for each period");
+        }
+        boolean anyArrivals = false;
+        this.ordersPerMilli = new double[ordersPerSecond.length];
+        for (int i = 0; i < periodMillis.length; i++) {
+            if (periodMillis[i] <= 0 || !(ordersPerSecond[i] >= 0)) {
+                throw new IllegalArgumentException("Periods must be positive and rates not negative");
+            }
+            ordersPerMilli[i] = ordersPerSecond[i] / 1000;
+            anyArrivals |= ordersPerSecond[i] > 0;
+        }
+        if (!anyArrivals) {
+            throw new IllegalArgumentException("At least one period must have arrivals");
+        }
+        this.periodMillis = Arrays.copyOf(periodMillis, periodMillis.length);
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void reset() {
+        random.setSeed(seed);
+        period = 0;
+        periodStart = 0;
+        now = 0;
+    }
+
+    @Override
+    public long nextArrivalMillis() {
+        double work = PoissonArrivals.exponential(random);
+        while (true) {
+            double periodEnd = periodStart + periodMillis[period];
+            double rate = ordersPerMilli[period];
+            if (rate > 0 && work <= (periodEnd - now) * rate) {
+                now += work / rate;
+                return Math.round(now);
+            }
+            work -= (periodEnd - now) * rate;
+            now = periodEnd;
+            periodStart = periodEnd;
+            period = (period + 1) % periodMillis.length;
+        }
+    }
+}
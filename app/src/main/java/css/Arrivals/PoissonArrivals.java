@@ -0,0 +1,45 @@
+package css.Arrivals;
+
+import java.util.Random;
+
+import css.Interfaces.ArrivalProcess;
+
+/**
+ * Orders arrive as a Poisson process: the gaps between orders are
+ * independent and exponentially distributed with a mean of 1/rate.
+ */
+public class PoissonArrivals implements ArrivalProcess {
+
+    private final double meanGapMillis;
+    private final long seed;
+    private final Random random;
+    // Kept unrounded so the rounding doesn't add up over many orders
+    private double now;
+
+    public PoissonArrivals(double ordersPerSecond, long seed) {
+        if (!(ordersPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + ordersPerSecond);
+        }
+        this.meanGapMillis = 1000 / ordersPerSecond;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public void reset() {
+        random.setSeed(seed);
+        now = 0;
+    }
+
+    @Override
+    public long nextArrivalMillis() {
+        now += exponential(random) * meanGapMillis;
+        return Math.round(now);
+    }
+
+    // An exponentially distributed value with mean 1.
+    static double exponential(Random random) {
+        // 1 - nextDouble() is in (0, 1], so the log is finite
+        return -Math.log(1 - random.nextDouble());
+    }
+}
@@ -0,0 +1,62 @@
+package css.Arrivals;
+
+import css.Interfaces.ArrivalProcess;
+import css.Model.Order;
+
+/**
+ * Replays the creation times recorded in the order file. The first order
+ * arrives at time 0 and every later one at its offset from the first,
+ * divided by the speed multiplier: 2 replays the trace twice as fast, i.e.
+ * at twice the order rate, 0.5 at half. This is unlike a ScaledClock, which
+ * speeds up the whole simulation, couriers and kitchen included.
+ *
+ * Arrivals never go backwards, so an order created before the one in
+ * front of it in the file arrives together with it. So does an order with
+ * no creation time.
+ */
+public class TraceReplayArrivals implements ArrivalProcess {
+
+    private final double speedMultiplier;
+    private long firstCreatedAtMillis = Order.NO_TIMESTAMP;
+    private long lastArrivalMillis;
+
+    public TraceReplayArrivals() {
+        this(1.0);
+    }
+
+    public TraceReplayArrivals(double speedMultiplier) {
+        if (!(speedMultiplier > 0) || Double.isInfinite(speedMultiplier)) {
+            throw new IllegalArgumentException("Speed multiplier must be positive: " + speedMultiplier);
+        }
+        this.speedMultiplier = speedMultiplier;
+    }
+
+    // Without the order's creation time there is nothing to replay.
+    @Override
+    public long nextArrivalMillis() {
+        return nextArrivalMillis(Order.NO_TIMESTAMP);
+    }
+
+    @Override
+    public long nextArrivalMillis(long createdAtMillis) {
+        if (createdAtMillis == Order.NO_TIMESTAMP) {
+            return lastArrivalMillis;
+        }
+        if (firstCreatedAtMillis == Order.NO_TIMESTAMP) {
+            firstCreatedAtMillis = createdAtMillis;
+        }
+        long arrival = Math.round((createdAtMillis - firstCreatedAtMillis) / speedMultiplier);
+        lastArrivalMillis = Math.max(lastArrivalMillis, arrival);
+        return lastArrivalMillis;
+    }
+
+    @Override
+    public void reset() {
+        firstCreatedAtMillis = Order.NO_TIMESTAMP;
+        lastArrivalMillis = 0;
+    }
+
+    public double getSpeedMultiplier() {
+        return speedMultiplier;
+    }
+}
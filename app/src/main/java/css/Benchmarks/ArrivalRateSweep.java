@@ -0,0 +1,75 @@
+package css.Benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import css.Arrivals.PoissonArrivals;
+import css.Model.DispatchStrategy;
+import css.Model.LatencyHistogram;
+import css.Model.Menu;
+import css.Model.OrderStore;
+import css.SimulationRunner.VirtualTimeSimulationRunner;
+
+/**
+ * Finds the order rate the kitchen and couriers can keep up with. Runs the
+ * virtual-time simulation with Poisson arrivals at rates from 0.25 orders
+ * per second, doubling up to the given maximum, and prints the average and
+ * p99 food and courier waits and the average time from an order being
+ * received to being picked up at each rate. An order isn't prepared until a courier
+ * is free to take it, so past the sustainable rate the backlog shows up in
+ * that last figure, which then grows with the number of orders instead of
+ * levelling off.
+ *
+ *   java css.Benchmarks.ArrivalRateSweep 20000 10 MATCHED 16
+ */
+public class ArrivalRateSweep {
+
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int couriers = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        DispatchStrategy strategy = args.length > 2 ? DispatchStrategy.valueOf(args[2]) : DispatchStrategy.MATCHED;
+        double maxRate = args.length > 3 ? Double.parseDouble(args[3]) : 16;
+
+        OrderStore orders = createOrders(count);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        console.printf("%d orders, %d couriers, %s%n", count, couriers, strategy);
+        console.printf("  %10s %16s %16s %18s %18s %22s%n", "orders/s", "avg food wait", "p99 food wait",
+                "avg courier wait", "p99 courier wait", "avg received->pickup");
+        for (double rate = 0.25; rate <= maxRate; rate *= 2) {
+            VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(orders, couriers, strategy, SEED);
+            runner.setArrivalProcess(new PoissonArrivals(rate, SEED));
+            runner.run();
+            LatencyHistogram foodWaits = runner.getStatistics().getFoodWaitHistogram();
+            LatencyHistogram courierWaits = runner.getStatistics().getCourierWaitHistogram();
+            console.printf("  %10.2f %13d ms %13d ms %15d ms %15d ms %19d ms%n", rate,
+                    foodWaits.getMean(), foodWaits.getValueAtPercentile(99),
+                    courierWaits.getMean(), courierWaits.getValueAtPercentile(99),
+                    averageTimeToPickupMillis(runner.getOrderStore()));
+        }
+        System.setOut(console);
+    }
+
+    private static long averageTimeToPickupMillis(OrderStore orders) {
+        long total = 0;
+        for (int order = 0; order < orders.size(); order++) {
+            total += orders.getPickedUpNanos(order) - orders.getReceivedNanos(order);
+        }
+        return total / Math.max(1, orders.size()) / 1_000_000;
+    }
+
+    // Prep times of 1 to 15 s like the sample orders.
+    private static OrderStore createOrders(int count) {
+        Random random = new Random(SEED);
+        int foodItemId = Menu.intern("Banana Split");
+        OrderStore orders = new OrderStore(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(random.nextLong(), random.nextLong(), foodItemId, 1 + random.nextInt(15));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,79 @@
+package css.Benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import css.Consumers.FIFOOrderConsumer;
+import css.Consumers.ParallelFIFODispatcher;
+import css.Consumers.ShardedBlockingQueue;
+import css.Interfaces.OrderProcessor;
+import css.Logging.EventLogger;
+import css.Logging.LogLevel;
+import css.Model.Courier;
+import css.Model.Order;
+
+/**
+ * Measures FIFO pairing throughput in pairs per second. The single-threaded
+ * FIFOOrderConsumer runs first, then the ParallelFIFODispatcher with 1, 2,
+ * 4, ... up to the given number of workers. Every order is already ready
+ * and every courier has already arrived, so only the pairing is timed.
+ * The per-pair events are off unless a log level is given, in which case
+ * they're written to /dev/null by the EventLogger's thread.
+ *
+ *   java css.Benchmarks.FIFODispatchBenchmark 200000 8 INFO
+ */
+public class FIFODispatchBenchmark {
+
+    public static void main(String[] args) {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int maxWorkers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        LogLevel level = LogLevel.parse(args.length > 2 ? args[2] : null, LogLevel.OFF);
+        EventLogger.shared().setLevel(level);
+
+        // Whatever is logged would otherwise go to the terminal.
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        console.printf("%d pairs, %d cores, logging %s%n", pairs, Runtime.getRuntime().availableProcessors(), level);
+        // First pass warms up the JIT
+        measure(pairs, 0);
+        console.printf("  FIFOOrderConsumer:              %,10.0f pairs/s%n", measure(pairs, 0));
+        for (int workers = 1; workers <= maxWorkers; workers *= 2) {
+            measure(pairs, workers);
+            console.printf("  ParallelFIFODispatcher x%-2d:     %,10.0f pairs/s%n", workers, measure(pairs, workers));
+        }
+        System.exit(0);
+    }
+
+    // Pairs per second for one run. Zero workers means the single FIFOOrderConsumer.
+    private static double measure(int pairs, int workers) {
+        BlockingQueue<Order> readyOrdersQueue = workers > 0 ? new ShardedBlockingQueue<>(workers) : new LinkedBlockingQueue<>();
+        BlockingQueue<Courier> courierReadyQueue = workers > 0 ? new ShardedBlockingQueue<>(workers) : new LinkedBlockingQueue<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < pairs; i++) {
+            Order order = new Order(String.valueOf(i), "Pizza", 1);
+            order.setFinishedTime(now);
+            order.setReady(true);
+            readyOrdersQueue.add(order);
+            Courier courier = new Courier(String.valueOf(i));
+            courier.setArrivalTime(now);
+            courierReadyQueue.add(courier);
+        }
+
+        OrderProcessor consumer = workers > 0
+                ? new ParallelFIFODispatcher(readyOrdersQueue, courierReadyQueue, new LinkedBlockingQueue<>(),
+                        pairs, new AtomicBoolean(false), workers)
+                : new FIFOOrderConsumer(readyOrdersQueue, courierReadyQueue, new LinkedBlockingQueue<>(),
+                        pairs, new AtomicBoolean(false), new AtomicBoolean(false));
+        long start = System.nanoTime();
+        consumer.consume();
+        EventLogger.shared().flush();
+        long elapsed = System.nanoTime() - start;
+        return pairs / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,86 @@
+package css.Benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import css.Model.Order;
+
+/**
+ * Measures the heap used per Order and the cost of Order.isReady(), both
+ * from one thread and from several threads polling the same orders. Orders
+ * are built the way LoadOrders builds them, from a UUID id string and a
+ * freshly parsed food item name, so the heap figure includes whatever the
+ * Order keeps of those.
+ *
+ *   java css.Benchmarks.OrderFootprintBenchmark 1000000 4
+ */
+public class OrderFootprintBenchmark {
+
+    private static final int READS_PER_ORDER = 100;
+    private static final String[] MENU = {"Banana Split", "McFlury", "Acai Bowl", "Yogurt", "Kebab"};
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        long heapBefore = usedHeap();
+        Order[] orders = new Order[count];
+        for (int i = 0; i < count; i++) {
+            String foodItem = new String(MENU[i % MENU.length]);
+            orders[i] = new Order(UUID.randomUUID().toString(), foodItem, i % 15);
+        }
+        long heapAfter = usedHeap();
+        System.out.printf("%d orders: %.1f bytes per Order%n", count, (heapAfter - heapBefore) / (double) count);
+
+        for (int i = 0; i < count; i += 2) {
+            orders[i].setReady(true);
+        }
+        // First passes warm up the JIT
+        readReady(orders, 1);
+        readReady(orders, threads);
+        System.out.printf("isReady(), 1 thread:  %.2f ns/call%n", readReady(orders, 1));
+        System.out.printf("isReady(), %d threads: %.2f ns/call%n", threads, readReady(orders, threads));
+    }
+
+    // Wall time per isReady() call on each thread, with every thread reading all the orders.
+    private static double readReady(Order[] orders, int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        // Keeps the reads from being optimized away
+        LongAdder readyCount = new LongAdder();
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long ready = 0;
+                for (int round = 0; round < READS_PER_ORDER; round++) {
+                    for (Order order : orders) {
+                        if (order.isReady()) {
+                            ready++;
+                        }
+                    }
+                }
+                readyCount.add(ready);
+                done.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        return elapsed / ((double) orders.length * READS_PER_ORDER);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
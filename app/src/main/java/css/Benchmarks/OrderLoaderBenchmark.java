@@ -0,0 +1,128 @@
+package css.Benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+import css.Model.OrderStore;
+import css.Producers.BinaryOrderConverter;
+import css.Producers.BinaryOrderReader;
+import css.Producers.LoadOrders;
+import css.Producers.NdjsonOrderLoader;
+import css.Producers.OrderStreamReader;
+
+/**
+ * Measures order loading throughput in records and megabytes per second.
+ * It writes the same orders as a json array and as newline-delimited json
+ * to temporary files, and converts them to the binary format. It then
+ * times LoadOrders (Gson JsonArray), the streaming OrderStreamReader,
+ * NdjsonOrderLoader with 1, 2, 4, ... up to the given number of workers,
+ * and BinaryOrderReader both as an iterator and loading into an
+ * OrderStore. Each figure is the best of 3 runs after a warm-up run.
+ *
+ *   java css.Benchmarks.OrderLoaderBenchmark 1000000 8
+ */
+public class OrderLoaderBenchmark {
+
+    private static final String[] MENU = {"Banana Split", "McFlury", "Acai Bowl", "Yogurt", "Kebab"};
+    private static final int RUNS = 3;
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxWorkers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Path jsonFile = Files.createTempFile("orders", ".json");
+        Path ndjsonFile = Files.createTempFile("orders", NdjsonOrderLoader.FILE_EXTENSION);
+        Path binaryFile = Files.createTempFile("orders", BinaryOrderReader.FILE_EXTENSION);
+        try {
+            writeOrders(jsonFile, ndjsonFile, count);
+            long start = System.nanoTime();
+            BinaryOrderConverter.convert(jsonFile.toString(), binaryFile.toString());
+            System.out.printf("%d orders, %d cores, json %.1f MB, ndjson %.1f MB, binary %.1f MB (converted in %d ms)%n",
+                    count, Runtime.getRuntime().availableProcessors(), megabytes(jsonFile), megabytes(ndjsonFile),
+                    megabytes(binaryFile), (System.nanoTime() - start) / 1_000_000);
+
+            report("LoadOrders (JsonArray)", jsonFile, () -> new LoadOrders(jsonFile.toString()).getOrders().size());
+            report("OrderStreamReader", jsonFile, () -> streamOrders(jsonFile));
+            for (int workers = 1; workers <= maxWorkers; workers *= 2) {
+                int parallelism = workers;
+                report("NdjsonOrderLoader, " + workers + " workers", ndjsonFile,
+                        () -> new NdjsonOrderLoader(ndjsonFile.toString(), parallelism).getOrders().size());
+            }
+            report("BinaryOrderReader", binaryFile, () -> readBinary(binaryFile));
+            report("BinaryOrderReader into store", binaryFile, () -> loadBinary(binaryFile));
+        } finally {
+            Files.deleteIfExists(binaryFile);
+            Files.deleteIfExists(jsonFile);
+            Files.deleteIfExists(ndjsonFile);
+        }
+    }
+
+    private static void report(String name, Path file, IntSupplier load) throws IOException {
+        // First run warms up the JIT
+        int records = load.getAsInt();
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            load.getAsInt();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double seconds = best / 1e9;
+        System.out.printf("  %-32s %,12.0f records/s %8.1f MB/s%n", name + ":", records / seconds, megabytes(file) / seconds);
+    }
+
+    private static int streamOrders(Path file) {
+        int records = 0;
+        try (OrderStreamReader reader = new OrderStreamReader(file.toString())) {
+            while (reader.hasNext()) {
+                reader.next();
+                records++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return records;
+    }
+
+    private static int readBinary(Path file) {
+        int records = 0;
+        try (BinaryOrderReader reader = new BinaryOrderReader(file.toString())) {
+            while (reader.hasNext()) {
+                reader.next();
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static int loadBinary(Path file) {
+        try (BinaryOrderReader reader = new BinaryOrderReader(file.toString())) {
+            OrderStore store = new OrderStore(reader.size());
+            reader.loadInto(store);
+            return store.size();
+        }
+    }
+
+    private static void writeOrders(Path jsonFile, Path ndjsonFile, int count) throws IOException {
+        try (BufferedWriter json = Files.newBufferedWriter(jsonFile);
+                BufferedWriter ndjson = Files.newBufferedWriter(ndjsonFile)) {
+            json.write("[\n");
+            for (int i = 0; i < count; i++) {
+                String order = "{\"id\": \"" + UUID.randomUUID() + "\", \"name\": \"" + MENU[i % MENU.length]
+                        + "\", \"prepTime\": " + (i % 15) + "}";
+                json.write(order);
+                json.write(i < count - 1 ? ",\n" : "\n");
+                ndjson.write(order);
+                ndjson.write('\n');
+            }
+            json.write("]\n");
+        }
+    }
+
+    private static double megabytes(Path file) throws IOException {
+        return Files.size(file) / (1024.0 * 1024.0);
+    }
+}
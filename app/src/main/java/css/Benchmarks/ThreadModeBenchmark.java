@@ -0,0 +1,90 @@
+package css.Benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import css.Logging.EventLogger;
+import css.Logging.LogLevel;
+import css.Model.Courier;
+import css.Model.Order;
+import css.Producers.KitchenService;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
+
+/**
+ * Compares the thread count and resident memory of the PLATFORM and VIRTUAL
+ * execution modes. The kitchen dispatches the given number of couriers and
+ * orders at once, and the numbers are sampled while they are all still
+ * travelling or being prepared.
+ *
+ * Run each mode in its own JVM so the RSS readings don't affect each other:
+ *   java css.Benchmarks.ThreadModeBenchmark VIRTUAL 100000
+ */
+public class ThreadModeBenchmark {
+
+    // Couriers start arriving after 3 seconds, so sample before then.
+    private static final long MAX_SAMPLE_DELAY_MILLIS = 2900;
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        ExecutionMode mode = args.length > 0 ? ExecutionMode.valueOf(args[0]) : ExecutionMode.VIRTUAL;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        BlockingQueue<Order> ordersReceivedQueue = new LinkedBlockingQueue<>();
+        BlockingQueue<Courier> waitingCourierQueue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < count; i++) {
+            ordersReceivedQueue.add(new Order(String.valueOf(i), "Pizza", 5 + (i % 10)));
+            waitingCourierQueue.add(new Courier(String.valueOf(i)));
+        }
+
+        long rssBefore = residentSetKb();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // The per-order logging would dominate the measurement.
+        EventLogger.shared().setLevel(LogLevel.OFF);
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        KitchenService kitchenService = new KitchenService(ordersReceivedQueue, waitingCourierQueue,
+                new LinkedBlockingQueue<>(), new LinkedBlockingQueue<>(), new AtomicBoolean(false),
+                new AtomicBoolean(false), new AtomicBoolean(false), new SystemClock(), mode);
+        Thread kitchenThread = new Thread(kitchenService);
+        kitchenThread.setDaemon(true);
+        long start = System.nanoTime();
+        kitchenThread.start();
+        while (!ordersReceivedQueue.isEmpty() && System.nanoTime() - start < MAX_SAMPLE_DELAY_MILLIS * 1_000_000) {
+            Thread.sleep(10);
+        }
+
+        int dispatched = count - ordersReceivedQueue.size();
+        int threadsDuring = ManagementFactory.getThreadMXBean().getThreadCount();
+        int peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+        long rssDuring = residentSetKb();
+
+        console.printf("%s mode, %d couriers and %d orders%n", mode, count, count);
+        console.printf("  dispatched after %d ms: %d%n", (System.nanoTime() - start) / 1_000_000, dispatched);
+        console.printf("  platform threads: %d before, %d in flight, %d peak%n", threadsBefore, threadsDuring, peakThreads);
+        console.printf("  RSS: %d MB before, %d MB in flight%n", rssBefore / 1024, rssDuring / 1024);
+        System.exit(0);
+    }
+
+    // Resident set size of this process from /proc, or -1 where it isn't available.
+    private static long residentSetKb() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,58 @@
+package css.Benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import css.Arrivals.TraceReplayArrivals;
+import css.Model.DispatchStrategy;
+import css.Model.LatencyHistogram;
+import css.Model.Order;
+import css.Model.OrderStore;
+import css.SimulationRunner.VirtualTimeSimulationRunner;
+
+/**
+ * Replays an order file with recorded creation times, e.g. an export of
+ * a busy evening, through both dispatch strategies on the virtual-time
+ * runner. Both strategies see exactly the same arrivals and courier travel
+ * times. The optional speed multiplier compresses the trace to see how the
+ * strategies cope with a heavier version of the same evening.
+ *
+ *   java css.Benchmarks.TraceReplayComparison friday_orders.ndjson 10 1.5
+ */
+public class TraceReplayComparison {
+
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: TraceReplayComparison <orders file> [couriers] [speed multiplier]");
+            return;
+        }
+        int couriers = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+
+        OrderStore orders = VirtualTimeSimulationRunner.loadOrderStore(args[0]);
+        if (orders.size() > 0 && orders.getCreatedAtMillis(0) == Order.NO_TIMESTAMP) {
+            System.out.println("The first order has no createdAt time, so there is no trace to replay.");
+            return;
+        }
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        console.printf("%d orders, %d couriers, replayed at %.2fx%n", orders.size(), couriers, speed);
+        console.printf("  %-8s %16s %16s %18s %18s %16s%n", "strategy", "avg food wait", "p99 food wait",
+                "avg courier wait", "p99 courier wait", "simulated time");
+        for (DispatchStrategy strategy : DispatchStrategy.values()) {
+            VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(orders, couriers, strategy, SEED);
+            runner.setArrivalProcess(new TraceReplayArrivals(speed));
+            runner.run();
+            LatencyHistogram foodWaits = runner.getStatistics().getFoodWaitHistogram();
+            LatencyHistogram courierWaits = runner.getStatistics().getCourierWaitHistogram();
+            console.printf("  %-8s %13d ms %13d ms %15d ms %15d ms %13d ms%n", strategy,
+                    foodWaits.getMean(), foodWaits.getValueAtPercentile(99),
+                    courierWaits.getMean(), courierWaits.getValueAtPercentile(99),
+                    runner.getSimulatedTime());
+        }
+        System.setOut(console);
+    }
+}
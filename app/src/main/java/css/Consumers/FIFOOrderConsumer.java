@@ -1,27 +1,43 @@
 package css.Consumers;
 
-import java.time.Instant;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 
+import css.Interfaces.Clock;
 import css.Interfaces.OrderProcessor;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
 import css.Model.Courier;
+import css.Model.LifecycleTracer;
 import css.Model.Order;
 import css.Model.Statistics;
+import css.Monitoring.SimulationMetrics;
+import css.Producers.Waiter;
+import css.Timing.SystemClock;
 
 /**
  * Represents the logic for the fifo dispatch strategy.
  */
 public class FIFOOrderConsumer implements OrderProcessor {
 
+    private static final EventLogger LOG = EventLogger.shared();
+    // How often, in real time, to look at the total again while it isn't known.
+    private static final long TOTAL_RECHECK_MILLIS = 100;
+
     private final BlockingQueue<Order> readyOrdersQueue;
     private final BlockingQueue<Courier> courierReadyQueue;
     private final BlockingQueue<Courier> waitingCourierQueue;
     private final AtomicBoolean allOrdersPrepared;
     private final AtomicBoolean notifyKitchenAllOrdersProcessed;
-    private final Statistics stats;
-    private final int totalOrders;
+    private Statistics stats;
+    private LifecycleTracer lifecycleTracer;
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
+    private final Clock clock;
+    private final IntSupplier totalOrders;
     private int processedOrders;
     private static final int MAX_REQUEUE_ATTEMPTS = 3;
 
@@ -31,6 +47,30 @@ public class FIFOOrderConsumer implements OrderProcessor {
             int totalOrders,
             AtomicBoolean allOrdersPrepared,
             AtomicBoolean notifyKitchenAllOrdersProcessed) {
+        this(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders,
+                allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock());
+    }
+
+    public FIFOOrderConsumer(BlockingQueue<Order> readyOrdersQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            int totalOrders,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock) {
+        this(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, () -> totalOrders,
+                allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock);
+    }
+
+    // The total is read each time it's needed, so it can be supplied by a
+    // Waiter that is still streaming orders in.
+    public FIFOOrderConsumer(BlockingQueue<Order> readyOrdersQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            IntSupplier totalOrders,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock) {
 
         this.readyOrdersQueue = readyOrdersQueue;
         this.courierReadyQueue = courierReadyQueue;
@@ -39,7 +79,9 @@ public class FIFOOrderConsumer implements OrderProcessor {
         this.notifyKitchenAllOrdersProcessed = notifyKitchenAllOrdersProcessed;
         this.totalOrders = totalOrders;
         this.processedOrders = 0;
-        this.stats = new Statistics();
+        // Only the histograms unless asked for, so memory doesn't grow with the run
+        this.stats = new Statistics(false);
+        this.clock = clock;
     }
 
     @Override
@@ -88,18 +130,22 @@ public class FIFOOrderConsumer implements OrderProcessor {
      * Checks if all orders have been processed.
      */
     private boolean areAllOrdersProcessed() {
-        return processedOrders >= totalOrders;
+        return processedOrders >= totalOrders.getAsInt();
     }
 
 
+    // While the total isn't known it only waits a little, since the waiter
+    // can finish without another order coming, e.g. on an empty file.
     private Order getNextOrder() throws InterruptedException {
+        if (totalOrders.getAsInt() == Waiter.UNKNOWN_TOTAL) {
+            return readyOrdersQueue.poll(TOTAL_RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+        }
         return readyOrdersQueue.take();
     }
 
     private boolean isOrderReady(Order order) {
-        synchronized (order) {
-            return order.isReady() && order.getFinishedTime() != null;
-        }
+        // The finished time is set before the order is marked ready
+        return order.isReady() && order.isFinished();
     }
 
     /**
@@ -110,14 +156,14 @@ public class FIFOOrderConsumer implements OrderProcessor {
      */
     private void processOrder(Order order) throws InterruptedException {
         while (true) {
-            System.out.println("Order " + order.getId() + " is ready and waiting for a courier...");
+            LOG.log(LogEvent.ORDER_WAITING_FOR_COURIER, order);
 
-            Courier courier = courierReadyQueue.poll(5, TimeUnit.SECONDS); // Wait up to 5 seconds for a courier
+            Courier courier = courierReadyQueue.poll(clock.toRealMillis(5000), TimeUnit.MILLISECONDS); // Wait up to 5 seconds for a courier
             if (courier == null) {
                 return;
             }
 
-            long endWaitingTime = Instant.now().toEpochMilli();
+            long endWaitingTime = clock.now().toEpochMilli();
             handleOrderDelivery(order, courier, endWaitingTime);
             // Exit the loop once the order is processed
             break; 
@@ -127,6 +173,15 @@ public class FIFOOrderConsumer implements OrderProcessor {
     private void handleOrderDelivery(Order order, Courier courier, long endWaitingTime) {
         processedOrders++;
         logOrderProcessingStats(order, courier);
+        if (lifecycleTracer != null) {
+            lifecycleTracer.orderPickedUp(order, courier);
+        }
+        if (traceExporter != null) {
+            traceExporter.orderPickedUp(order, courier);
+        }
+        if (metrics != null) {
+            metrics.orderPickedUp(order, courier, endWaitingTime);
+        }
 
         // Courier has delievered order so it's avaliable for another order
         waitingCourierQueue.add(courier);
@@ -134,7 +189,7 @@ public class FIFOOrderConsumer implements OrderProcessor {
     }
 
     private void logOrderProcessingStats(Order order, Courier courier) {
-        System.out.println("Courier " + courier.getId() + " picked up Order " + order.getId());
+        LOG.log(LogEvent.ORDER_PICKED_UP, order, courier);
     }
 
 
@@ -142,9 +197,30 @@ public class FIFOOrderConsumer implements OrderProcessor {
         notifyKitchenAllOrdersProcessed.set(true);
     }
 
+    // Completes the lifecycle trace of every order picked up.
+    public void setLifecycleTracer(LifecycleTracer lifecycleTracer) {
+        this.lifecycleTracer = lifecycleTracer;
+    }
+
+    // Writes every pickup to the trace.
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    // Keeps every wait time in the statistics' lists as well as the
+    // histograms, e.g. for tests that look at each one. Call before consume().
+    public void setRetainWaitTimes(boolean retainWaitTimes) {
+        stats = new Statistics(retainWaitTimes);
+    }
+
+    // Counts every pickup and its wait times.
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public void shutdown() {
-        System.out.println("No more orders and production is complete. Shutting down.");
+        LOG.info("No more orders and production is complete. Shutting down.");
     }
 
     /**
@@ -153,7 +229,11 @@ public class FIFOOrderConsumer implements OrderProcessor {
     @Override
     public void finalizeProcessing() {
         stats.printStatistics();
-        System.out.println("FIFOConsumer shutting down...");
+        LOG.info("FIFOConsumer shutting down...");
+    }
+
+    public Statistics getStatistics() {
+        return stats;
     }
 
     @Override
@@ -1,29 +1,63 @@
 package css.Consumers;
 
-import java.time.Instant;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 
+import css.Interfaces.Clock;
 import css.Interfaces.OrderProcessor;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
 import css.Model.Courier;
+import css.Model.LifecycleTracer;
 import css.Model.Order;
+import css.Model.ReadyOrderIndex;
 import css.Model.Statistics;
+import css.Monitoring.SimulationMetrics;
+import css.Producers.Waiter;
+import css.Timing.SystemClock;
 
 /**
  * Represents the logic for the matched dispatch strategy.
+ * Ready orders are looked up by id in a ReadyOrderIndex. The consumer
+ * doesn't wait for a courier's order itself: it attaches the pickup to the
+ * index's future for the order and moves on to the next courier. Any number
+ * of couriers can be waiting at once, and each pickup runs as soon as its
+ * order is added, on the consumer's own pickup thread, so the kitchen's
+ * scheduler or timing wheel thread that added the order isn't held up by it.
+ * Without an index of its own the consumer indexes the orders that arrive
+ * through the readyOrdersQueue on a separate thread.
  */
 public class MatchedOrderConsumer implements OrderProcessor {
 
+    private static final EventLogger LOG = EventLogger.shared();
+    // How often, in real time, to look at the total again while it isn't known.
+    private static final long TOTAL_RECHECK_MILLIS = 100;
+
     private BlockingQueue<Order> readyOrdersQueue;
+    private ReadyOrderIndex readyOrderIndex;
     private BlockingQueue<Courier> courierReadyQueue;
     private BlockingQueue<Courier> waitingCourierQueue;
     private AtomicBoolean allOrdersPrepared;
     private AtomicBoolean notifyKitchenAllOrdersProcessed;
     private Statistics stats;
-    private int processedOrders;
-    private int totalOrders;
-    private final long pollInterval = 500;
+    private LifecycleTracer lifecycleTracer;
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
+    private Clock clock;
+    // One permit per finished pickup
+    private final Semaphore ordersPickedUp;
+    private int assignedCouriers;
+    private IntSupplier totalOrders;
+    private boolean indexQueuedOrders;
+    private Thread queueIndexerThread;
+    private final ExecutorService pickupExecutor;
 
     public MatchedOrderConsumer(BlockingQueue<Order> readyOrdersQueue,
             BlockingQueue<Courier> courierReadyQueue,
@@ -31,19 +65,68 @@ public class MatchedOrderConsumer implements OrderProcessor {
             int totalOrders,
             AtomicBoolean allOrdersPrepared,
             AtomicBoolean notifyKitchenAllOrdersProcessed) {
+        this(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders,
+                allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock());
+    }
+
+    public MatchedOrderConsumer(BlockingQueue<Order> readyOrdersQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            int totalOrders,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock) {
+        this(readyOrdersQueue, new ReadyOrderIndex(), courierReadyQueue, waitingCourierQueue, totalOrders,
+                allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock);
+        this.indexQueuedOrders = true;
+    }
+
+    public MatchedOrderConsumer(BlockingQueue<Order> readyOrdersQueue,
+            ReadyOrderIndex readyOrderIndex,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            int totalOrders,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock) {
+        this(readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue, () -> totalOrders,
+                allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock);
+    }
+
+    // The total is read each time it's needed, so it can be supplied by a
+    // Waiter that is still streaming orders in.
+    public MatchedOrderConsumer(BlockingQueue<Order> readyOrdersQueue,
+            ReadyOrderIndex readyOrderIndex,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            IntSupplier totalOrders,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock) {
 
         this.readyOrdersQueue = readyOrdersQueue;
+        this.readyOrderIndex = readyOrderIndex;
         this.courierReadyQueue = courierReadyQueue;
         this.waitingCourierQueue = waitingCourierQueue;
         this.allOrdersPrepared = allOrdersPrepared;
         this.notifyKitchenAllOrdersProcessed = notifyKitchenAllOrdersProcessed;
         this.totalOrders = totalOrders;
-        this.processedOrders = 0;
-        stats = new Statistics();
+        this.ordersPickedUp = new Semaphore(0);
+        // Only the histograms unless asked for, so memory doesn't grow with the run
+        stats = new Statistics(false);
+        this.clock = clock;
+        this.pickupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-pickup");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void consume() {
+        if (indexQueuedOrders) {
+            startQueueIndexer();
+        }
         try {
             while (true) {
                 if (shouldShutdown()) {
@@ -51,18 +134,19 @@ public class MatchedOrderConsumer implements OrderProcessor {
                     return;
                 }
 
-                if (areAllOrdersProcessed()) {
+                if (areAllOrdersAssigned()) {
+                    ordersPickedUp.acquire(totalOrders.getAsInt());
                     notifyCompletion();
                     break;
                 }
 
                 Courier courier = getNextCourier();
-                Order matchedOrder = findOrderById(courier.getOrderId());
-
-                processOrder(courier, matchedOrder);
+                if (courier != null) {
+                    processOrder(courier);
+                }
             }
         } catch (InterruptedException e) {
-            System.out.println("Thread was interrupted: " + e.getMessage());
+            LOG.warn("Thread was interrupted: " + e.getMessage());
             Thread.currentThread().interrupt();
         } finally {
             finalizeProcessing();
@@ -75,54 +159,77 @@ public class MatchedOrderConsumer implements OrderProcessor {
      * @return True if the consumer should shut down, false otherwise.
      */
     private boolean shouldShutdown() {
-        return allOrdersPrepared.get() && readyOrdersQueue.isEmpty(); // should shut down when all orders are
+        return allOrdersPrepared.get() && readyOrdersQueue.isEmpty() && readyOrderIndex.isEmpty(); // should shut down when all orders are
     }
 
     /**
-     * Checks if all orders have been processed.
+     * Checks if every order has a courier waiting for it, after which the
+     * consumer only has to wait for the remaining pickups.
      *
-     * @return True if all orders have been processed, false otherwise.
+     * @return True if all orders have a courier, false otherwise.
      */
-    private boolean areAllOrdersProcessed() {
-        return processedOrders >= totalOrders;
+    private boolean areAllOrdersAssigned() {
+        return assignedCouriers >= totalOrders.getAsInt();
     }
 
     /**
-     * Retrieves the next available courier from the queue.
+     * Retrieves the next available courier from the queue. While the total
+     * isn't known it only waits a little, since the waiter can finish
+     * without another courier coming, e.g. on an empty file.
      *
-     * @return The next available courier.
+     * @return The next available courier, or null to look at the total again.
      * @throws InterruptedException If the thread is interrupted while waiting.
      */
     private Courier getNextCourier() throws InterruptedException {
+        if (totalOrders.getAsInt() == Waiter.UNKNOWN_TOTAL) {
+            return courierReadyQueue.poll(TOTAL_RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+        }
         return courierReadyQueue.take();
     }
 
     /**
-     * Processes the given order with the provided courier. Continues checking
-     * the order status until it's ready for processing.
+     * Processes the courier's order. If the order is ready it's picked up
+     * right away, otherwise the pickup runs once the kitchen adds it to
+     * the index.
      *
      * @param courier The courier assigned to deliver the order.
-     * @param matchedOrder The order to be processed.
-     * @throws InterruptedException If the thread is interrupted while waiting.
      */
-    private void processOrder(Courier courier, Order matchedOrder) throws InterruptedException {
-        boolean orderReady = false;
-        while (!orderReady) {
-            // If order is ready, process it
-            if (matchedOrder != null && matchedOrder.isReady()) {
-                orderReady = true;
-                long endWaitingTime = Instant.now().toEpochMilli();
-                processMatchedOrder(courier, matchedOrder, endWaitingTime);
-            } else {
-                System.out.println("Order is not ready yet. Courier " + courier.getId() + " is waiting.");
-                TimeUnit.MILLISECONDS.sleep(pollInterval);
-                // check if order is ready after sleeping
-                matchedOrder = findOrderById(courier.getOrderId());
-            }
+    private void processOrder(Courier courier) {
+        if (courier.getOrderKey() == null) {
+            LOG.log(LogEvent.COURIER_HAS_NO_ORDER, courier);
+            return;
         }
+        assignedCouriers++;
+        CompletableFuture<Order> readyOrder = readyOrderIndex.whenReady(courier.getOrderKey());
+        if (!readyOrder.isDone()) {
+            LOG.log(LogEvent.COURIER_WAITING_FOR_ORDER, courier);
+        }
+        readyOrder.thenAcceptAsync(matchedOrder -> pickUp(courier, matchedOrder), pickupExecutor)
+                .whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+                        LOG.warn("Pickup of order " + courier.getOrderId() + " by courier " + courier.getId()
+                                + " failed: " + cause);
+                    }
+                });
     }
 
-    
+    // The order leaves the index and the courier goes back to the kitchen
+    // even if recording the pickup fails.
+    private void pickUp(Courier courier, Order matchedOrder) {
+        try {
+            LOG.log(LogEvent.ORDER_FOUND, matchedOrder);
+            long endWaitingTime = clock.now().toEpochMilli();
+            processMatchedOrder(courier, matchedOrder, endWaitingTime);
+        } finally {
+            // Order has been processed so remove
+            readyOrderIndex.remove(matchedOrder.getKey());
+            // Courier has delievered order so it's avaliable for another order
+            LOG.log(LogEvent.COURIER_RETURNED, courier);
+            waitingCourierQueue.add(courier);
+            ordersPickedUp.release();
+        }
+    }
 
     /**
      * Processes the matched order and logs relevant information.
@@ -131,18 +238,21 @@ public class MatchedOrderConsumer implements OrderProcessor {
      * @param matchedOrder The order to be processed.
      */
     private void processMatchedOrder(Courier courier, Order matchedOrder, long endWaitingTime) {
-        processedOrders++;
         logOrderProcessingStats(matchedOrder, courier);
-        // Order has been processed so remove
-        readyOrdersQueue.remove(matchedOrder);
-        // Courier has delievered order so it's avaliable for another order
-        System.out.println("Adding courier back");
-        waitingCourierQueue.add(courier); 
+        if (lifecycleTracer != null) {
+            lifecycleTracer.orderPickedUp(matchedOrder, courier);
+        }
+        if (traceExporter != null) {
+            traceExporter.orderPickedUp(matchedOrder, courier);
+        }
+        if (metrics != null) {
+            metrics.orderPickedUp(matchedOrder, courier, endWaitingTime);
+        }
         stats.printFulFillmentStats(courier, matchedOrder, endWaitingTime);
     }
 
     private void logOrderProcessingStats(Order order, Courier courier) {
-        System.out.println("Courier " + courier.getId() + " picked up Order " + order.getId());
+        LOG.log(LogEvent.ORDER_PICKED_UP, order, courier);
     }
 
     /**
@@ -152,9 +262,30 @@ public class MatchedOrderConsumer implements OrderProcessor {
         notifyKitchenAllOrdersProcessed.set(true);
     }
 
+    // Completes the lifecycle trace of every order picked up.
+    public void setLifecycleTracer(LifecycleTracer lifecycleTracer) {
+        this.lifecycleTracer = lifecycleTracer;
+    }
+
+    // Writes every pickup to the trace.
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    // Counts every pickup and its wait times.
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Keeps every wait time in the statistics' lists as well as the
+    // histograms, e.g. for tests that look at each one. Call before consume().
+    public void setRetainWaitTimes(boolean retainWaitTimes) {
+        stats = new Statistics(retainWaitTimes);
+    }
+
     @Override
     public void shutdown() {
-        System.out.println("No more orders and production is complete. Shutting down.");
+        LOG.info("No more orders and production is complete. Shutting down.");
     }
 
     /**
@@ -162,20 +293,33 @@ public class MatchedOrderConsumer implements OrderProcessor {
      */
     @Override
     public void finalizeProcessing() {
+        if (queueIndexerThread != null) {
+            queueIndexerThread.interrupt();
+        }
+        // Every pickup has run by now, unless the consumer was interrupted
+        pickupExecutor.shutdown();
         stats.printStatistics();
-        System.out.println("MatchedConsumer shutting down.");
+        LOG.info("MatchedConsumer shutting down.");
     }
 
-    // If order is in the readyOrderQueue it retrieves
-    // it using the order's id.
-    private Order findOrderById(String orderId) {
-        for (Order order : readyOrdersQueue) {
-            if (order.getId().equals(orderId)) {
-                System.out.println("Order found. Order id " + order.getId());
-                return order;
+    // Moves orders from the readyOrdersQueue into the index as they arrive,
+    // which completes any courier already waiting on them.
+    private void startQueueIndexer() {
+        queueIndexerThread = new Thread(() -> {
+            try {
+                while (true) {
+                    readyOrderIndex.add(readyOrdersQueue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        }
-        return null; 
+        }, "ready-order-indexer");
+        queueIndexerThread.setDaemon(true);
+        queueIndexerThread.start();
+    }
+
+    public Statistics getStatistics() {
+        return stats;
     }
 
     @Override
@@ -0,0 +1,245 @@
+package css.Consumers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+import css.Interfaces.Clock;
+import css.Interfaces.OrderProcessor;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
+import css.Model.Courier;
+import css.Model.LifecycleTracer;
+import css.Model.Order;
+import css.Model.Statistics;
+import css.Monitoring.SimulationMetrics;
+import css.Producers.Waiter;
+import css.Timing.SystemClock;
+
+/**
+ * FIFO dispatch strategy with several consumer workers. Each worker takes
+ * the next ready order and pairs it with the next arrived courier, the same
+ * as FIFOOrderConsumer, so pairing throughput scales with the worker count.
+ *
+ * Give it ShardedBlockingQueues for the ready orders and couriers so the
+ * workers don't all contend on one queue lock. Orders and couriers are then
+ * paired in FIFO order within the queues' tolerance.
+ *
+ * Each worker records its wait times in its own Statistics, so recording
+ * doesn't contend on one lock either. They are merged into
+ * getStatistics() when the workers stop.
+ */
+public class ParallelFIFODispatcher implements OrderProcessor {
+
+    private static final EventLogger LOG = EventLogger.shared();
+    // How often, in real time, to look at the total again while it isn't known.
+    private static final long TOTAL_RECHECK_MILLIS = 100;
+
+    private final BlockingQueue<Order> readyOrdersQueue;
+    private final BlockingQueue<Courier> courierReadyQueue;
+    private final BlockingQueue<Courier> waitingCourierQueue;
+    private final AtomicBoolean notifyKitchenAllOrdersProcessed;
+    private Statistics stats;
+    private final Clock clock;
+    private final int workers;
+    private final IntSupplier totalOrders;
+    // One permit per finished pickup
+    private final Semaphore ordersPickedUp;
+    private final List<Thread> workerThreads;
+    private final List<Statistics> workerStatistics = new CopyOnWriteArrayList<>();
+    private LifecycleTracer lifecycleTracer;
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
+
+    public ParallelFIFODispatcher(BlockingQueue<Order> readyOrdersQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            int totalOrders,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            int workers) {
+        this(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders,
+                notifyKitchenAllOrdersProcessed, new SystemClock(), workers);
+    }
+
+    public ParallelFIFODispatcher(BlockingQueue<Order> readyOrdersQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            int totalOrders,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock,
+            int workers) {
+        this(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, () -> totalOrders,
+                notifyKitchenAllOrdersProcessed, clock, workers);
+    }
+
+    // The total is read each time it's needed, so it can be supplied by a
+    // Waiter that is still streaming orders in.
+    public ParallelFIFODispatcher(BlockingQueue<Order> readyOrdersQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            IntSupplier totalOrders,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock,
+            int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        this.readyOrdersQueue = readyOrdersQueue;
+        this.courierReadyQueue = courierReadyQueue;
+        this.waitingCourierQueue = waitingCourierQueue;
+        this.notifyKitchenAllOrdersProcessed = notifyKitchenAllOrdersProcessed;
+        // Only the histograms unless asked for, so memory doesn't grow with the run
+        this.stats = new Statistics(false);
+        this.clock = clock;
+        this.workers = workers;
+        this.totalOrders = totalOrders;
+        this.ordersPickedUp = new Semaphore(0);
+        this.workerThreads = new ArrayList<>(workers);
+    }
+
+    @Override
+    public void consume() {
+        for (int i = 0; i < workers; i++) {
+            Statistics workerStats = new Statistics(stats.isRetainingWaitTimes());
+            workerStatistics.add(workerStats);
+            Thread workerThread = new Thread(() -> pairOrders(workerStats), "fifo-dispatcher-" + i);
+            workerThread.setDaemon(true);
+            workerThreads.add(workerThread);
+            workerThread.start();
+        }
+        try {
+            int pickedUp = 0;
+            while (pickedUp < totalOrders.getAsInt()) {
+                if (awaitPickup()) {
+                    pickedUp++;
+                }
+            }
+            notifyCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopWorkers();
+            finalizeProcessing();
+        }
+    }
+
+    // While the total isn't known it only waits a little, since the waiter
+    // can finish without another pickup coming, e.g. on an empty file.
+    private boolean awaitPickup() throws InterruptedException {
+        if (totalOrders.getAsInt() == Waiter.UNKNOWN_TOTAL) {
+            return ordersPickedUp.tryAcquire(TOTAL_RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        ordersPickedUp.acquire();
+        return true;
+    }
+
+    // Worker loop: pairs the next ready order with the next arrived courier
+    // until the dispatcher stops it.
+    private void pairOrders(Statistics workerStats) {
+        try {
+            while (true) {
+                Order order = readyOrdersQueue.take();
+                LOG.log(LogEvent.ORDER_WAITING_FOR_COURIER, order);
+                Courier courier = courierReadyQueue.take();
+                long endWaitingTime = clock.now().toEpochMilli();
+                handleOrderDelivery(order, courier, endWaitingTime, workerStats);
+                ordersPickedUp.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workerStats.publishSnapshot();
+            stats.merge(workerStats);
+        }
+    }
+
+    private void handleOrderDelivery(Order order, Courier courier, long endWaitingTime, Statistics workerStats) {
+        LOG.log(LogEvent.ORDER_PICKED_UP, order, courier);
+        if (lifecycleTracer != null) {
+            lifecycleTracer.orderPickedUp(order, courier);
+        }
+        if (traceExporter != null) {
+            traceExporter.orderPickedUp(order, courier);
+        }
+        if (metrics != null) {
+            metrics.orderPickedUp(order, courier, endWaitingTime);
+        }
+        // Courier has delievered order so it's avaliable for another order
+        waitingCourierQueue.add(courier);
+        workerStats.printFulFillmentStats(courier, order, endWaitingTime);
+    }
+
+    private void stopWorkers() {
+        for (Thread workerThread : workerThreads) {
+            workerThread.interrupt();
+        }
+        for (Thread workerThread : workerThreads) {
+            try {
+                workerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void notifyCompletion() {
+        notifyKitchenAllOrdersProcessed.set(true);
+    }
+
+    // Completes the lifecycle trace of every order picked up.
+    public void setLifecycleTracer(LifecycleTracer lifecycleTracer) {
+        this.lifecycleTracer = lifecycleTracer;
+    }
+
+    // Writes every pickup to the trace.
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    // Counts every pickup and its wait times.
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Keeps every wait time in the statistics' lists as well as the
+    // histograms, for the workers too. Call before consume().
+    public void setRetainWaitTimes(boolean retainWaitTimes) {
+        stats = new Statistics(retainWaitTimes);
+    }
+
+    @Override
+    public void shutdown() {
+        LOG.info("No more orders and production is complete. Shutting down.");
+    }
+
+    /**
+     * Finalizes processing, prints final statistics, and logs shutdown.
+     */
+    @Override
+    public void finalizeProcessing() {
+        stats.printStatistics();
+        LOG.info("ParallelFIFODispatcher shutting down...");
+    }
+
+    public Statistics getStatistics() {
+        return stats;
+    }
+
+    // Each worker's own Statistics, which hold its wait times until the workers stop.
+    public List<Statistics> getWorkerStatistics() {
+        return Collections.unmodifiableList(workerStatistics);
+    }
+
+    @Override
+    public void run() {
+        consume();
+    }
+}
@@ -0,0 +1,273 @@
+package css.Consumers;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unbounded blocking queue split into lock-free shards so several consumer
+ * threads can take from it without contending on one lock.
+ *
+ * Every element gets a sequence number and elements are spread over the
+ * shards round-robin. A consumer takes from its own home shard while the
+ * head there is at most fifoTolerance positions behind the oldest element
+ * in the queue. Otherwise it steals the oldest element from whichever shard
+ * holds it. Elements therefore come out in FIFO order give or take
+ * fifoTolerance positions, plus a few more when several takers race for
+ * the same head.
+ *
+ * size() is the number of elements not yet claimed by a taker. The
+ * iterator is a snapshot in FIFO order. Its remove(), like remove(Object),
+ * takes the element out of the queue unless a taker has already claimed it.
+ */
+public class ShardedBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final int DEFAULT_FIFO_TOLERANCE = 16;
+
+    private final List<Queue<Entry<E>>> shards;
+    private final AtomicLong nextSequence;
+    // One permit per element, so a taker that got a permit is guaranteed an element.
+    private final Semaphore available;
+    private final long fifoTolerance;
+
+    public ShardedBlockingQueue(int shardCount) {
+        this(shardCount, DEFAULT_FIFO_TOLERANCE);
+    }
+
+    public ShardedBlockingQueue(int shardCount, long fifoTolerance) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        if (fifoTolerance < 0) {
+            throw new IllegalArgumentException("FIFO tolerance can't be negative: " + fifoTolerance);
+        }
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ConcurrentLinkedQueue<>());
+        }
+        this.nextSequence = new AtomicLong();
+        this.available = new Semaphore(0);
+        this.fifoTolerance = fifoTolerance;
+    }
+
+    @Override
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long sequence = nextSequence.getAndIncrement();
+        shards.get((int) (sequence % shards.size())).add(new Entry<>(sequence, element));
+        available.release();
+        return true;
+    }
+
+    @Override
+    public boolean offer(E element, long timeout, TimeUnit unit) {
+        return offer(element);
+    }
+
+    @Override
+    public void put(E element) {
+        offer(element);
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        available.acquire();
+        return claim();
+    }
+
+    @Override
+    public E poll() {
+        if (!available.tryAcquire()) {
+            return null;
+        }
+        return claim();
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!available.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return claim();
+    }
+
+    @Override
+    public E peek() {
+        Queue<Entry<E>> oldest = oldestShard();
+        Entry<E> head = oldest == null ? null : oldest.peek();
+        return head == null ? null : head.element;
+    }
+
+    @Override
+    public int size() {
+        return available.availablePermits();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        int drained = 0;
+        E element;
+        while (drained < maxElements && (element = poll()) != null) {
+            collection.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    // Removes the oldest element equal to the object.
+    @Override
+    public boolean remove(Object object) {
+        if (object == null) {
+            return false;
+        }
+        while (true) {
+            Entry<E> oldest = null;
+            for (Queue<Entry<E>> shard : shards) {
+                for (Entry<E> entry : shard) {
+                    if ((oldest == null || entry.sequence < oldest.sequence) && object.equals(entry.element)) {
+                        oldest = entry;
+                    }
+                }
+            }
+            if (oldest == null) {
+                return false;
+            }
+            if (removeEntry(oldest)) {
+                return true;
+            }
+            // A taker claimed it first, look again
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        List<Entry<E>> entries = new ArrayList<>();
+        for (Queue<Entry<E>> shard : shards) {
+            entries.addAll(shard);
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.sequence));
+        return new SnapshotIterator(entries.iterator());
+    }
+
+    // Takes a permit along with the entry, so every permit left still has
+    // an element behind it. Without a permit to take every element left has
+    // been claimed, this one included, and it's left to its taker.
+    private boolean removeEntry(Entry<E> entry) {
+        if (!available.tryAcquire()) {
+            return false;
+        }
+        // Entries are spread over the shards by their sequence number
+        if (shards.get((int) (entry.sequence % shards.size())).remove(entry)) {
+            return true;
+        }
+        available.release();
+        return false;
+    }
+
+    // Removes an element for a taker that already holds a permit. Another
+    // taker can win the race for a head, but the permit guarantees there is
+    // still an element left for this one, so the loop always ends.
+    private E claim() {
+        Queue<Entry<E>> home = shards.get(homeShardIndex());
+        while (true) {
+            Queue<Entry<E>> oldest = oldestShard();
+            if (oldest == null) {
+                // The scan isn't atomic, so it can miss the element left for our permit.
+                Thread.onSpinWait();
+                continue;
+            }
+            Entry<E> oldestHead = oldest.peek();
+            Entry<E> homeHead = home.peek();
+            Queue<Entry<E>> shard = oldest;
+            if (homeHead != null && oldestHead != null && homeHead.sequence - oldestHead.sequence <= fifoTolerance) {
+                shard = home;
+            }
+            Entry<E> entry = shard.poll();
+            if (entry != null) {
+                return entry.element;
+            }
+        }
+    }
+
+    // The shard whose head has the lowest sequence number, or null if every shard is empty.
+    private Queue<Entry<E>> oldestShard() {
+        Queue<Entry<E>> oldest = null;
+        long oldestSequence = Long.MAX_VALUE;
+        for (Queue<Entry<E>> shard : shards) {
+            Entry<E> head = shard.peek();
+            if (head != null && head.sequence < oldestSequence) {
+                oldest = shard;
+                oldestSequence = head.sequence;
+            }
+        }
+        return oldest;
+    }
+
+    private int homeShardIndex() {
+        return (int) (Thread.currentThread().threadId() % shards.size());
+    }
+
+    private final class SnapshotIterator implements Iterator<E> {
+
+        private final Iterator<Entry<E>> entries;
+        private Entry<E> lastReturned;
+
+        private SnapshotIterator(Iterator<Entry<E>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        @Override
+        public E next() {
+            lastReturned = entries.next();
+            return lastReturned.element;
+        }
+
+        // Does nothing if a taker has claimed the element since.
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            removeEntry(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+    // Compared by identity, so removing an entry removes exactly that one.
+    private static final class Entry<E> {
+
+        private final long sequence;
+        private final E element;
+
+        private Entry(long sequence, E element) {
+            this.sequence = sequence;
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package css.Distributions;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+import css.Interfaces.Distribution;
+
+/**
+ * A distribution taken from a histogram of observed values, e.g. courier
+ * travel times measured in production. A bin is picked in proportion to
+ * its count and the value is spread evenly within the bin.
+ *
+ * The histogram file has one bin per line, "lower,upper,count", with the
+ * bin covering lower up to but not including upper. Blank lines and lines
+ * starting with # are skipped:
+ *
+ *   # travel time ms, lower,upper,count
+ *   3000,5000,120
+ *   5000,8000,410
+ *   8000,15000,95
+ */
+public class EmpiricalDistribution implements Distribution {
+
+    private final double[] lowerBounds;
+    private final double[] upperBounds;
+    private final double[] cumulativeCounts;
+
+    public EmpiricalDistribution(double[] lowerBounds, double[] upperBounds, double[] counts) {
+        if (lowerBounds.length != upperBounds.length || lowerBounds.length != counts.length) {
+            throw new IllegalArgumentException("Every bin needs a lower bound, an upper bound and a count");
+        }
+        this.lowerBounds = lowerBounds.clone();
+        this.upperBounds = upperBounds.clone();
+        this.cumulativeCounts = new double[counts.length];
+        double total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (!(lowerBounds[i] <= upperBounds[i])) {
+                throw new IllegalArgumentException("Bin " + i + " has lower bound " + lowerBounds[i]
+                        + " above its upper bound " + upperBounds[i]);
+            }
+            if (!(counts[i] >= 0) || Double.isInfinite(counts[i])) {
+                throw new IllegalArgumentException("Bin " + i + " has an invalid count: " + counts[i]);
+            }
+            total += counts[i];
+            cumulativeCounts[i] = total;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("The histogram has no observations");
+        }
+    }
+
+    /**
+     * Reads a histogram file in the format above.
+     *
+     * @throws IllegalArgumentException If a line isn't a valid bin.
+     */
+    public static EmpiricalDistribution load(String filePath) throws IOException {
+        double[] lower = new double[16];
+        double[] upper = new double[16];
+        double[] counts = new double[16];
+        int bins = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " of " + filePath + " is not lower,upper,count: " + line);
+                }
+                if (bins == lower.length) {
+                    lower = Arrays.copyOf(lower, bins * 2);
+                    upper = Arrays.copyOf(upper, bins * 2);
+                    counts = Arrays.copyOf(counts, bins * 2);
+                }
+                try {
+                    lower[bins] = Double.parseDouble(fields[0].strip());
+                    upper[bins] = Double.parseDouble(fields[1].strip());
+                    counts[bins] = Double.parseDouble(fields[2].strip());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " of " + filePath + " is not lower,upper,count: " + line, e);
+                }
+                bins++;
+            }
+        }
+        return new EmpiricalDistribution(Arrays.copyOf(lower, bins), Arrays.copyOf(upper, bins), Arrays.copyOf(counts, bins));
+    }
+
+    @Override
+    public double sample(RandomGenerator random) {
+        double point = random.nextDouble(cumulativeCounts[cumulativeCounts.length - 1]);
+        // The first bin whose cumulative count is above the point, which
+        // is never an empty one
+        int bin = 0;
+        int last = cumulativeCounts.length - 1;
+        while (bin < last) {
+            int middle = (bin + last) >>> 1;
+            if (cumulativeCounts[middle] > point) {
+                last = middle;
+            } else {
+                bin = middle + 1;
+            }
+        }
+        double lower = lowerBounds[bin];
+        double upper = upperBounds[bin];
+        return lower == upper ? lower : random.nextDouble(lower, upper);
+    }
+
+    public int getBinCount() {
+        return lowerBounds.length;
+    }
+}
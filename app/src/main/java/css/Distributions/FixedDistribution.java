@@ -0,0 +1,22 @@
+package css.Distributions;
+
+import java.util.random.RandomGenerator;
+
+import css.Interfaces.Distribution;
+
+/**
+ * Always the same value, e.g. to take prep time out of a comparison.
+ */
+public class FixedDistribution implements Distribution {
+
+    private final double value;
+
+    public FixedDistribution(double value) {
+        this.value = value;
+    }
+
+    @Override
+    public double sample(RandomGenerator random) {
+        return value;
+    }
+}
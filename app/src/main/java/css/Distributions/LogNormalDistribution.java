@@ -0,0 +1,51 @@
+package css.Distributions;
+
+import java.util.random.RandomGenerator;
+
+import css.Interfaces.Distribution;
+
+/**
+ * A lognormal distribution: the log of each value is normally distributed
+ * with mean mu and standard deviation sigma. It fits travel times, which
+ * are never negative and have a long tail of slow trips.
+ */
+public class LogNormalDistribution implements Distribution {
+
+    private final double mu;
+    private final double sigma;
+
+    public LogNormalDistribution(double mu, double sigma) {
+        if (!(sigma >= 0) || Double.isInfinite(sigma) || Double.isNaN(mu) || Double.isInfinite(mu)) {
+            throw new IllegalArgumentException("Invalid lognormal parameters: mu " + mu + ", sigma " + sigma);
+        }
+        this.mu = mu;
+        this.sigma = sigma;
+    }
+
+    /**
+     * The lognormal distribution whose values have the given mean and
+     * standard deviation, e.g. withMeanAndStdDev(9000, 4000) for trips of
+     * 9 seconds on average.
+     */
+    public static LogNormalDistribution withMeanAndStdDev(double mean, double standardDeviation) {
+        if (!(mean > 0) || !(standardDeviation >= 0)) {
+            throw new IllegalArgumentException("Mean must be positive and standard deviation not negative: "
+                    + mean + ", " + standardDeviation);
+        }
+        double variance = Math.log1p(standardDeviation * standardDeviation / (mean * mean));
+        return new LogNormalDistribution(Math.log(mean) - variance / 2, Math.sqrt(variance));
+    }
+
+    @Override
+    public double sample(RandomGenerator random) {
+        return Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    public double getMu() {
+        return mu;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+}
@@ -0,0 +1,35 @@
+package css.Distributions;
+
+import java.util.random.RandomGenerator;
+
+import css.Interfaces.Distribution;
+
+/**
+ * Values spread evenly from min up to, but not including, max.
+ */
+public class UniformDistribution implements Distribution {
+
+    private final double min;
+    private final double max;
+
+    public UniformDistribution(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("Min must not be greater than max: " + min + " > " + max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Whole numbers from min to max inclusive, each as likely as the
+     * others once the samples are rounded.
+     */
+    public static UniformDistribution ofIntegers(int min, int max) {
+        return new UniformDistribution(min - 0.5, max + 0.5);
+    }
+
+    @Override
+    public double sample(RandomGenerator random) {
+        return min == max ? min : random.nextDouble(min, max);
+    }
+}
@@ -0,0 +1,72 @@
+package css.Engine;
+
+import java.time.Instant;
+import java.util.PriorityQueue;
+
+/**
+ * Discrete-event engine that runs a simulation on a virtual clock.
+ * Events are kept in a time-ordered list and executed one at a time
+ * on the calling thread. Instead of sleeping, the clock jumps straight
+ * to the time of the next event, so a run costs only the work done in
+ * the event handlers.
+ */
+public class DiscreteEventEngine {
+
+    private final PriorityQueue<SimulationEvent> events;
+    private long now;
+    private long nextSequence;
+    private long processedEvents;
+
+    public DiscreteEventEngine() {
+        this.events = new PriorityQueue<>();
+        this.now = 0;
+        this.nextSequence = 0;
+        this.processedEvents = 0;
+    }
+
+    /**
+     * Current virtual time in milliseconds since the start of the run.
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Current virtual time as an Instant, so it can be stored on the
+     * model objects the same way the threaded simulation does.
+     */
+    public Instant nowInstant() {
+        return Instant.ofEpochMilli(now);
+    }
+
+    // Schedules the action to fire delayMillis after the current virtual time.
+    public void schedule(long delayMillis, Runnable action) {
+        scheduleAt(now + Math.max(0, delayMillis), action);
+    }
+
+    // Schedules the action at an absolute virtual time. Times in the past
+    // are clamped to now so the clock never runs backwards.
+    public void scheduleAt(long timeMillis, Runnable action) {
+        events.add(new SimulationEvent(Math.max(now, timeMillis), nextSequence++, action));
+    }
+
+    /**
+     * Runs events in time order until the event list is empty.
+     */
+    public void run() {
+        SimulationEvent event;
+        while ((event = events.poll()) != null) {
+            now = event.getTime();
+            event.getAction().run();
+            processedEvents++;
+        }
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public int getPendingEvents() {
+        return events.size();
+    }
+}
@@ -0,0 +1,37 @@
+package css.Engine;
+
+/**
+ * A single entry in the engine's event list: an action that
+ * fires at a point in virtual time. Events scheduled for the
+ * same time run in the order they were scheduled.
+ */
+public class SimulationEvent implements Comparable<SimulationEvent> {
+
+    private final long time;
+    private final long sequence;
+    private final Runnable action;
+
+    public SimulationEvent(long time, long sequence, Runnable action) {
+        this.time = time;
+        this.sequence = sequence;
+        this.action = action;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Runnable getAction() {
+        return action;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        int byTime = Long.compare(time, other.time);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+}
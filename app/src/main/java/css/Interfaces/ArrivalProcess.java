@@ -0,0 +1,38 @@
+package css.Interfaces;
+
+/**
+ * Decides when each order arrives at the waiter. Times are simulated
+ * milliseconds since the start of the simulation, so the same process
+ * drives the real-time and accelerated runners through their Clock and the
+ * virtual-time runner through its event engine.
+ *
+ * Processes are stateful: each call moves on to the next order. Random
+ * processes take a seed so a run can be repeated exactly, and reset()
+ * starts the process over for the next run.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * @return The simulated time at which the next order arrives, never
+     *         earlier than the previous order's.
+     */
+    long nextArrivalMillis();
+
+    /**
+     * Same as nextArrivalMillis() for processes that make up their own
+     * times. Trace replay overrides it to place the order by when it was
+     * really created.
+     *
+     * @param createdAtMillis The next order's creation time from the order
+     *        file, or Order.NO_TIMESTAMP.
+     */
+    default long nextArrivalMillis(long createdAtMillis) {
+        return nextArrivalMillis();
+    }
+
+    /**
+     * Starts over from the first order, so the next run gets the same
+     * arrival times as a freshly created process.
+     */
+    void reset();
+}
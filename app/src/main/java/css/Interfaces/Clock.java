@@ -0,0 +1,37 @@
+package css.Interfaces;
+
+import java.time.Instant;
+
+/**
+ * The Clock interface is the single source of time for the producers and
+ * consumers of the simulation. Every timestamp and every simulated delay
+ * goes through it, so a simulation can run in real time or faster than
+ * real time without changing the simulation logic.
+ *
+ * All values passed to and returned from a Clock are in simulated time.
+ */
+public interface Clock {
+
+    /**
+     * Returns the current simulated time.
+     */
+    Instant now();
+
+    /**
+     * Blocks the calling thread for the given number of simulated
+     * milliseconds.
+     *
+     * @param millis The simulated time to sleep for.
+     * @throws InterruptedException If the thread is interrupted while sleeping.
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Converts a simulated duration into the real duration it takes on
+     * this clock. Used for blocking calls that take a timeout.
+     *
+     * @param millis The simulated duration in milliseconds.
+     * @return The real duration in milliseconds, at least 1 for positive input.
+     */
+    long toRealMillis(long millis);
+}
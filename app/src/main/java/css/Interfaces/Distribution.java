@@ -0,0 +1,13 @@
+package css.Interfaces;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A distribution that simulation inputs such as prep times are drawn from.
+ * The caller passes in the random generator, so it owns the seed and one
+ * generator can drive several distributions.
+ */
+public interface Distribution {
+
+    double sample(RandomGenerator random);
+}
@@ -0,0 +1,22 @@
+package css.Interfaces;
+
+import java.util.Iterator;
+
+import css.Model.Order;
+
+/**
+ * Orders for the Waiter that are produced as they are asked for, from a
+ * file or a generator, instead of being held in a list. A source that knows
+ * how many orders it has left says so, and the Waiter can then publish the
+ * total up front as it does for a list.
+ */
+public interface OrderSource extends Iterator<Order> {
+
+    int UNKNOWN_SIZE = -1;
+
+    /**
+     * @return The number of orders not yet returned by next(), or
+     *         UNKNOWN_SIZE if it isn't known until the end.
+     */
+    int remainingOrders();
+}
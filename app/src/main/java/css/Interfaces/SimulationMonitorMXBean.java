@@ -0,0 +1,49 @@
+package css.Interfaces;
+
+/**
+ * What a running simulation shows over JMX, e.g. in JConsole or VisualVM
+ * under css:type=Simulation. Every reading is taken without a lock, so
+ * watching a run doesn't slow it down. The wait times are in simulated
+ * milliseconds and can be up to a second behind.
+ */
+public interface SimulationMonitorMXBean {
+
+    int getOrdersReceivedQueueDepth();
+
+    int getWaitingCourierQueueDepth();
+
+    int getCourierReadyQueueDepth();
+
+    /**
+     * @return The ready orders not yet picked up. With the Matched
+     *         strategy these are in the ready order index, not the queue.
+     */
+    int getReadyOrdersQueueDepth();
+
+    // Taken by the kitchen and not ready yet.
+    long getOrdersInPrep();
+
+    // Dispatched and not arrived yet.
+    long getCouriersInTransit();
+
+    long getOrdersPickedUp();
+
+    // Exponentially weighted over the last 10 seconds of real time.
+    double getPickupsPerSecond();
+
+    long getFoodWaitP50Millis();
+
+    long getFoodWaitP90Millis();
+
+    long getFoodWaitP99Millis();
+
+    long getFoodWaitP999Millis();
+
+    long getCourierWaitP50Millis();
+
+    long getCourierWaitP90Millis();
+
+    long getCourierWaitP99Millis();
+
+    long getCourierWaitP999Millis();
+}
@@ -0,0 +1,267 @@
+package css.Logging;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import css.Model.Courier;
+import css.Model.Order;
+
+/**
+ * Writes a simulation run as Chrome trace event JSON, which opens in
+ * chrome://tracing and ui.perfetto.dev.
+ *
+ * There are three processes in the timeline:
+ *   Couriers   one track per courier, with its trips and its waits for
+ *              an order
+ *   Kitchen    one track per prep slot. Each prep goes on the lowest slot
+ *              that was free for all of it, so there are as many slots as
+ *              orders were ever being prepared at once
+ *   Consumers  one track per thread that picked orders up, with an
+ *              instant event per pickup
+ *
+ * Every span is written as a complete ("X") event once it ends, straight
+ * to a BufferedWriter, so only the open spans are ever held in memory.
+ * The file is a JSON array. Chrome accepts it without the closing bracket,
+ * so a trace of a run that was killed still opens. Times are real
+ * System.nanoTime() microseconds since the exporter was created.
+ *
+ * Calls are synchronized on the exporter, since they come from every
+ * simulation thread. After a write fails, the rest of the trace is
+ * dropped.
+ */
+public class ChromeTraceExporter implements Closeable {
+
+    public static final int COURIERS_PID = 1;
+    public static final int KITCHEN_PID = 2;
+    public static final int CONSUMERS_PID = 3;
+
+    private final Writer out;
+    private final long startNanos;
+    private final StringBuilder event = new StringBuilder();
+    private boolean firstEvent = true;
+    private boolean failed;
+    private boolean closed;
+
+    private final Map<String, Integer> courierTracks = new HashMap<>();
+    private final Set<Long> consumerTracks = new HashSet<>();
+    // When each prep slot's latest prep ended
+    private long[] slotEndNanos = new long[0];
+
+    public ChromeTraceExporter(String filePath) throws IOException {
+        this(Files.newBufferedWriter(Path.of(filePath)));
+    }
+
+    public ChromeTraceExporter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+        this.startNanos = System.nanoTime();
+        write("[\n");
+        metadata("process_name", COURIERS_PID, -1, "Couriers");
+        metadata("process_name", KITCHEN_PID, -1, "Kitchen");
+        metadata("process_name", CONSUMERS_PID, -1, "Consumers");
+    }
+
+    /**
+     * The courier's trip, from its dispatch to now. Couriers that were
+     * never dispatched have no trip.
+     */
+    public synchronized void courierArrived(Courier courier) {
+        if (courier.getDispatchedNanos() == Order.STAGE_NOT_REACHED) {
+            return;
+        }
+        int track = courierTrack(courier);
+        begin("Travel", "courier", COURIERS_PID, track, courier.getDispatchedNanos(), courier.getArrivedNanos());
+        event.append(",\"args\":{\"order\":");
+        appendString(courier.getOrderId());
+        end();
+    }
+
+    // The order's prep from startNanos to now.
+    public synchronized void prepFinished(Order order, long startNanos) {
+        long endNanos = System.nanoTime();
+        int slot = freeSlot(startNanos, endNanos);
+        begin(order.getFoodItem() == null ? "Prep" : order.getFoodItem(), "prep", KITCHEN_PID, slot, startNanos, endNanos);
+        event.append(",\"args\":{\"order\":");
+        appendString(order.getId());
+        event.append(",\"prepTime\":").append(order.getPrepTime());
+        end();
+    }
+
+    /**
+     * The courier's wait for the order, and the pickup itself on the
+     * calling thread's track.
+     */
+    public synchronized void orderPickedUp(Order order, Courier courier) {
+        long now = System.nanoTime();
+        if (courier.getArrivedNanos() != Order.STAGE_NOT_REACHED) {
+            begin("Waiting", "courier", COURIERS_PID, courierTrack(courier), courier.getArrivedNanos(), now);
+            event.append(",\"args\":{\"order\":");
+            appendString(order.getId());
+            end();
+        }
+
+        Thread thread = Thread.currentThread();
+        long track = thread.threadId();
+        if (consumerTracks.add(track)) {
+            metadata("thread_name", CONSUMERS_PID, track, thread.getName());
+        }
+        event.setLength(0);
+        event.append("{\"name\":\"Pickup\",\"cat\":\"consumer\",\"ph\":\"i\",\"s\":\"t\",\"ts\":");
+        appendMicros(now);
+        event.append(",\"pid\":").append(CONSUMERS_PID).append(",\"tid\":").append(track);
+        event.append(",\"args\":{\"order\":");
+        appendString(order.getId());
+        event.append(",\"courier\":");
+        appendString(courier.getId());
+        end();
+    }
+
+    public synchronized void flush() {
+        if (failed) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Ends the JSON array and closes the file. Later events are dropped.
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        write("\n]\n");
+        closed = true;
+        failed = true;
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private int courierTrack(Courier courier) {
+        Integer track = courierTracks.get(courier.getId());
+        if (track == null) {
+            track = courierTracks.size() + 1;
+            courierTracks.put(courier.getId(), track);
+            metadata("thread_name", COURIERS_PID, track, "Courier " + courier.getId());
+        }
+        return track;
+    }
+
+    // The lowest slot whose last prep ended before this one started.
+    private int freeSlot(long startNanos, long endNanos) {
+        for (int slot = 0; slot < slotEndNanos.length; slot++) {
+            if (startNanos - slotEndNanos[slot] >= 0) {
+                slotEndNanos[slot] = endNanos;
+                return slot + 1;
+            }
+        }
+        slotEndNanos = Arrays.copyOf(slotEndNanos, slotEndNanos.length + 1);
+        slotEndNanos[slotEndNanos.length - 1] = endNanos;
+        metadata("thread_name", KITCHEN_PID, slotEndNanos.length, "Prep slot " + slotEndNanos.length);
+        return slotEndNanos.length;
+    }
+
+    private void metadata(String name, int pid, long tid, String value) {
+        event.setLength(0);
+        event.append("{\"name\":\"").append(name).append("\",\"ph\":\"M\",\"pid\":").append(pid);
+        if (tid >= 0) {
+            event.append(",\"tid\":").append(tid);
+        }
+        event.append(",\"args\":{\"name\":");
+        appendString(value);
+        end();
+    }
+
+    // Starts a complete event in the builder, to be finished with its args and end().
+    private void begin(String name, String category, int pid, long tid, long fromNanos, long toNanos) {
+        event.setLength(0);
+        event.append("{\"name\":");
+        appendString(name);
+        event.append(",\"cat\":\"").append(category).append("\",\"ph\":\"X\",\"ts\":");
+        appendMicros(fromNanos);
+        event.append(",\"dur\":");
+        appendDuration(Math.max(0, toNanos - fromNanos));
+        event.append(",\"pid\":").append(pid).append(",\"tid\":").append(tid);
+    }
+
+    // Closes the args and the event, and writes it.
+    private void end() {
+        event.append("}}");
+        if (!firstEvent) {
+            write(",\n");
+        }
+        firstEvent = false;
+        write(event);
+    }
+
+    private void appendMicros(long nanos) {
+        appendDuration(nanos - startNanos);
+    }
+
+    // Microseconds with the nanoseconds as 3 decimals.
+    private void appendDuration(long nanos) {
+        if (nanos < 0) {
+            event.append('-');
+            nanos = -nanos;
+        }
+        long fraction = nanos % 1000;
+        event.append(nanos / 1000).append('.');
+        if (fraction < 100) {
+            event.append('0');
+        }
+        if (fraction < 10) {
+            event.append('0');
+        }
+        event.append(fraction);
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            event.append("null");
+            return;
+        }
+        event.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                event.append('\\').append(c);
+            } else if (c < 0x20) {
+                event.append(String.format("\\u%04x", (int) c));
+            } else {
+                event.append(c);
+            }
+        }
+        event.append('"');
+    }
+
+    private void write(CharSequence text) {
+        if (failed) {
+            return;
+        }
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        System.out.println("Could not write the trace.");
+        e.printStackTrace();
+    }
+}
@@ -0,0 +1,280 @@
+package css.Logging;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import css.Model.Courier;
+import css.Model.Order;
+
+/**
+ * Asynchronous logger for the simulation's lifecycle events, so the
+ * threads being measured never format text or wait on the console.
+ *
+ * Events go into a ring of slots that are all allocated up front. A
+ * logging thread claims the next slot with one atomic increment, copies
+ * the event, the order and courier references and two numbers into it,
+ * and publishes it. A single daemon writer thread turns the published
+ * slots into text and prints them in batches to whatever System.out is at
+ * the time. When the ring is full, logging threads wait for the writer
+ * rather than dropping events. Events logged by one thread are written in
+ * the order they were logged.
+ *
+ * Events below the level are skipped before claiming a slot, so with
+ * LogLevel.OFF logging costs one field read. The shared logger's level
+ * comes from the css.log.level system property, INFO by default.
+ */
+public class EventLogger implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+    public static final String LEVEL_PROPERTY = "css.log.level";
+
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long FLUSH_PARK_NANOS = 50_000;
+
+    private static final EventLogger SHARED =
+            new EventLogger(DEFAULT_CAPACITY, LogLevel.parse(System.getProperty(LEVEL_PROPERTY), LogLevel.INFO));
+
+    private final Slot[] slots;
+    private final int mask;
+    // A slot with sequence s is free for the claim s and published once it's s + 1
+    private final AtomicLongArray sequences;
+    private final AtomicLong claimed = new AtomicLong();
+    // Only the writer thread moves these on
+    private volatile long written;
+    private long next;
+    private final StringBuilder batch = new StringBuilder();
+
+    private volatile LogLevel level;
+    private volatile boolean closed;
+    private volatile Thread writer;
+
+    public EventLogger() {
+        this(DEFAULT_CAPACITY, LogLevel.INFO);
+    }
+
+    /**
+     * @param capacity The number of slots, rounded up to a power of two.
+     */
+    public EventLogger(int capacity, LogLevel level) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Slot[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.level = level;
+    }
+
+    // The logger the simulation classes write to.
+    public static EventLogger shared() {
+        return SHARED;
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    // LogLevel.OFF makes every log call return straight away, e.g. for benchmarks.
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
+    public boolean isEnabled(LogLevel eventLevel) {
+        return eventLevel != LogLevel.OFF && eventLevel.ordinal() >= level.ordinal();
+    }
+
+    // The message should be a constant, or it's built even when nothing is written.
+    public void info(String message) {
+        if (isEnabled(LogLevel.INFO)) {
+            publish(LogEvent.MESSAGE, message, null, null, 0, 0);
+        }
+    }
+
+    public void warn(String message) {
+        if (isEnabled(LogLevel.WARN)) {
+            publish(LogEvent.WARNING, message, null, null, 0, 0);
+        }
+    }
+
+    public void log(LogEvent event, long value) {
+        log(event, null, null, value, 0);
+    }
+
+    public void log(LogEvent event, Order order) {
+        log(event, order, null, 0, 0);
+    }
+
+    public void log(LogEvent event, Order order, long value) {
+        log(event, order, null, value, 0);
+    }
+
+    public void log(LogEvent event, Courier courier) {
+        log(event, null, courier, 0, 0);
+    }
+
+    public void log(LogEvent event, Courier courier, long value) {
+        log(event, null, courier, value, 0);
+    }
+
+    public void log(LogEvent event, Order order, Courier courier) {
+        log(event, order, courier, 0, 0);
+    }
+
+    public void log(LogEvent event, Order order, Courier courier, long first, long second) {
+        if (isEnabled(event.getLevel())) {
+            publish(event, null, order, courier, first, second);
+        }
+    }
+
+    private void publish(LogEvent event, String message, Order order, Courier courier, long first, long second) {
+        if (closed) {
+            return;
+        }
+        ensureWriter();
+        long sequence = claimed.getAndIncrement();
+        int index = (int) sequence & mask;
+        // The ring is full until the writer has taken the event a lap ago
+        while (sequences.get(index) != sequence) {
+            if (writerStopped()) {
+                // Closed while this event was on its way in, nothing will take it
+                return;
+            }
+            LockSupport.unpark(writer);
+            Thread.yield();
+        }
+        Slot slot = slots[index];
+        slot.event = event;
+        slot.text = message;
+        slot.order = order;
+        slot.courier = courier;
+        slot.first = first;
+        slot.second = second;
+        sequences.set(index, sequence + 1);
+    }
+
+    private void ensureWriter() {
+        if (writer == null) {
+            synchronized (this) {
+                if (writer == null && !closed) {
+                    Thread thread = new Thread(this::write, "event-logger");
+                    thread.setDaemon(true);
+                    thread.start();
+                    writer = thread;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until every event logged before this call has been printed.
+     * Call it before printing to System.out directly, so the output stays
+     * in order, and before the program exits. Once the logger is closed it
+     * returns straight away.
+     */
+    public void flush() {
+        long target = claimed.get();
+        while (written < target && !writerStopped()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FLUSH_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Flushes and stops the writer, then prints whatever was published
+     * while it stopped. Events logged after that are ignored: a thread
+     * that got past the closed check as close() ran may still claim a
+     * slot, and flush() won't wait for it.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        Thread current = writer;
+        if (current != null) {
+            current.interrupt();
+            try {
+                current.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // The writer is gone, so this thread is the only one draining
+            while (drain() > 0) {
+                // keep going
+            }
+        }
+    }
+
+    // True once close() has run, or is running, and there's no writer left to print events.
+    private boolean writerStopped() {
+        Thread current = writer;
+        return closed && (current == null || !current.isAlive());
+    }
+
+    private void write() {
+        while (!Thread.currentThread().isInterrupted()) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // Prints up to MAX_BATCH published events and frees their slots.
+    private int drain() {
+        batch.setLength(0);
+        int count = 0;
+        while (count < MAX_BATCH) {
+            int index = (int) next & mask;
+            if (sequences.get(index) != next + 1) {
+                break;
+            }
+            Slot slot = slots[index];
+            try {
+                slot.event.append(batch, slot.text, slot.order, slot.courier, slot.first, slot.second);
+            } catch (RuntimeException e) {
+                batch.append(slot.event).append(" could not be logged: ").append(e);
+            }
+            batch.append(System.lineSeparator());
+            // Let go of the order and courier so the slot doesn't keep them alive
+            slot.text = null;
+            slot.order = null;
+            slot.courier = null;
+            sequences.set(index, next + slots.length);
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            PrintStream out = System.out;
+            out.print(batch);
+            out.flush();
+            written = next;
+        }
+        return count;
+    }
+
+    private static final class Slot {
+        LogEvent event;
+        String text;
+        Order order;
+        Courier courier;
+        long first;
+        long second;
+    }
+}
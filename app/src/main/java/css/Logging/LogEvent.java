@@ -0,0 +1,133 @@
+package css.Logging;
+
+import java.time.Instant;
+
+import css.Model.Courier;
+import css.Model.Order;
+
+/**
+ * The things that happen to an order or a courier during a simulation,
+ * each with its level and the line it's written as. The EventLogger's
+ * writer thread calls append(), so turning an order into text never
+ * happens on the thread that logged it.
+ */
+public enum LogEvent {
+    MESSAGE(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append(text);
+        }
+    },
+    WARNING(LogLevel.WARN) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append(text);
+        }
+    },
+    ORDER_RECEIVED(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Order ").append(order.getId()).append(" has been added to ordersReceivedQueue.");
+        }
+    },
+    // first is the prep time in seconds
+    ORDER_PREPARING(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Order ").append(order.getId()).append(" is getting prepared. It will take ")
+                    .append(first).append(" seconds");
+        }
+    },
+    // first is the finished time in epoch millis
+    ORDER_READY(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            String id = order.getId();
+            out.append("Order ").append(id).append(" finished at ").append(Instant.ofEpochMilli(first)).append('\n');
+            out.append("Order ").append(id).append(" is ready for pickup.");
+        }
+    },
+    ORDER_WAITING_FOR_COURIER(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Order ").append(order.getId()).append(" is ready and waiting for a courier...");
+        }
+    },
+    // first is the travel time in milliseconds
+    COURIER_DISPATCHED(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Courier ").append(courier.getId()).append(" has been dispatched. It will arrive in ")
+                    .append(first / 1000).append(" seconds.");
+        }
+    },
+    COURIER_ARRIVED(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Courier ").append(courier.getId()).append(" is ready to pickup an order.");
+        }
+    },
+    // first is the number of couriers left waiting for an order
+    COURIERS_WAITING(LogLevel.DEBUG) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append(first).append(" couriers waiting for an order.");
+        }
+    },
+    COURIER_HAS_NO_ORDER(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Courier ").append(courier.getId()).append(" has no order to pick up.");
+        }
+    },
+    COURIER_WAITING_FOR_ORDER(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Order is not ready yet. Courier ").append(courier.getId()).append(" is waiting.");
+        }
+    },
+    ORDER_FOUND(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Order found. Order id ").append(order.getId());
+        }
+    },
+    ORDER_PICKED_UP(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Courier ").append(courier.getId()).append(" picked up Order ").append(order.getId());
+        }
+    },
+    COURIER_RETURNED(LogLevel.DEBUG) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            out.append("Adding courier ").append(courier.getId()).append(" back");
+        }
+    },
+    // first is the food wait and second the courier wait, in milliseconds
+    ORDER_FULFILLED(LogLevel.INFO) {
+        @Override
+        void append(StringBuilder out, String text, Order order, Courier courier, long first, long second) {
+            String orderId = order.getId();
+            String courierId = courier.getId();
+            out.append('\n');
+            out.append("Matched: Order ").append(orderId).append(" picked up by Courier ").append(courierId).append('\n');
+            out.append("Order ").append(orderId).append(" delivered by Courier ").append(courierId).append('\n');
+            out.append("Food Wait Time: ").append(first).append(" ms\n");
+            out.append("Courier Wait Time: ").append(second).append(" ms");
+        }
+    };
+
+    private final LogLevel level;
+
+    LogEvent(LogLevel level) {
+        this.level = level;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    // Writes the event as one or more lines, without the final line break.
+    abstract void append(StringBuilder out, String text, Order order, Courier courier, long first, long second);
+}
@@ -0,0 +1,28 @@
+package css.Logging;
+
+/**
+ * How much the EventLogger writes. Each level includes the ones above it,
+ * and OFF writes nothing at all, for benchmarks.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    OFF;
+
+    /**
+     * Reads a level name such as "debug" or "OFF", or the fallback if the
+     * name is null or unknown.
+     */
+    public static LogLevel parse(String name, LogLevel fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(name.trim())) {
+                return level;
+            }
+        }
+        return fallback;
+    }
+}
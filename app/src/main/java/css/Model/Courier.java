@@ -7,7 +7,11 @@ public class Courier {
     private String id;
     private Instant timeDispatched;
     private Instant arrivalTime;
-    private String orderId;
+    // The order the courier was dispatched for
+    private OrderKey orderKey;
+    // System.nanoTime() of the latest dispatch and arrival, for lifecycle traces
+    private long dispatchedNanos = Order.STAGE_NOT_REACHED;
+    private long arrivedNanos = Order.STAGE_NOT_REACHED;
 
     public Courier(String id){
         this.id = id;
@@ -22,6 +26,16 @@ public class Courier {
         return timeDispatched;
     }
 
+    // Marks the courier as dispatched at the given simulated time.
+    public void dispatch(Instant timeDispatched) {
+        this.timeDispatched = timeDispatched;
+        this.dispatchedNanos = System.nanoTime();
+    }
+
+    public long getDispatchedNanos() {
+        return dispatchedNanos;
+    }
+
     public Instant getArrivalTime() {
         return arrivalTime;
     }
@@ -30,12 +44,30 @@ public class Courier {
         this.arrivalTime = arrivalTime;
     }
 
+    // Marks the courier as arrived at the given simulated time.
+    public void arrive(Instant arrivalTime) {
+        this.arrivalTime = arrivalTime;
+        this.arrivedNanos = System.nanoTime();
+    }
+
+    public long getArrivedNanos() {
+        return arrivedNanos;
+    }
+
     public String getOrderId() {
-        return orderId;
+        return orderKey == null ? null : orderKey.getId();
     }
 
     public void setOrderId(String orderId) {
-        this.orderId = orderId;
+        this.orderKey = orderId == null ? null : OrderKey.of(orderId);
+    }
+
+    public OrderKey getOrderKey() {
+        return orderKey;
+    }
+
+    public void setOrderKey(OrderKey orderKey) {
+        this.orderKey = orderKey;
     }
     
 }
@@ -0,0 +1,11 @@
+package css.Model;
+
+/**
+ * The strategies used to pair a ready order with an arrived courier.
+ * FIFO gives the next ready order to the next arrived courier, Matched
+ * only lets a courier pick up the order it was dispatched for.
+ */
+public enum DispatchStrategy {
+    FIFO,
+    MATCHED
+}
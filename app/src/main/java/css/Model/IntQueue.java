@@ -0,0 +1,69 @@
+package css.Model;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO queue of ints backed by a growable ring buffer, for passing order
+ * and courier handles around without boxing them. Not thread-safe.
+ */
+public class IntQueue {
+
+    private int[] elements;
+    private int head;
+    private int size;
+
+    public IntQueue() {
+        this(16);
+    }
+
+    public IntQueue(int initialCapacity) {
+        elements = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) % elements.length] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the oldest value.
+     *
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int value = elements[head];
+        head = (head + 1) % elements.length;
+        size--;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] grown = Arrays.copyOf(elements, elements.length * 2);
+        // Move the wrapped-around front of the queue so it follows the tail again.
+        if (head > 0) {
+            System.arraycopy(elements, head, grown, elements.length + head, elements.length - head);
+            head += elements.length;
+        }
+        elements = grown;
+    }
+}
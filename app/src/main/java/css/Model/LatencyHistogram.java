@@ -0,0 +1,139 @@
+package css.Model;
+
+import java.util.Arrays;
+
+/**
+ * Counts latencies in log-linear buckets, like HdrHistogram, so any number
+ * of values takes a bounded amount of memory and percentiles come out
+ * within 1% of the real value.
+ *
+ * Values below SUB_BUCKETS each have a bucket of their own. Above that,
+ * every power of two is split into SUB_BUCKETS / 2 equal buckets, so a
+ * bucket is never wider than 1/128 of the values in it. The bucket array
+ * only grows as far as the largest value seen, at most about 58 KB.
+ *
+ * Negative values are counted in the 0 bucket, but the exact sum, min and
+ * max are kept, so getMean() and getMax() are exact. Not thread-safe: each
+ * thread can record into its own histogram and merge() them at the end.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    // Enough buckets for Long.MAX_VALUE
+    private static final int MAX_BUCKETS = SUB_BUCKETS + (Long.SIZE - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS;
+
+    private long[] counts = new long[SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    public void record(long value) {
+        int index = bucketOf(Math.max(0, value));
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.min(MAX_BUCKETS, Math.max(index + 1, counts.length * 2)));
+        }
+        counts[index]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value recorded in the other histogram to this one.
+     */
+    public void merge(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    // A histogram of its own with the same values.
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.merge(this);
+        return copy;
+    }
+
+    public void reset() {
+        counts = new long[SUB_BUCKETS];
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    // The mean rounded down like Statistics.calculateAverage, 0 when empty.
+    public long getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @param percentile From 0 to 100, e.g. 99.9.
+     * @return The largest value in the bucket holding that percentile, or
+     *         the max if that is lower. 0 when nothing has been recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        // Nearest rank. The small slack keeps e.g. 99.9% of 1000 from rounding up to 1000
+        long rank = Math.max(1, (long) Math.ceil(percentile * count / 100 - 1e-9));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(getMin(), Math.min(highestValueOf(i), max));
+            }
+        }
+        return max;
+    }
+
+    // Every value in the bucket rounds down to the same top SUB_BUCKET_BITS bits.
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (subBucket - HALF_SUB_BUCKETS);
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        long subBucket = (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
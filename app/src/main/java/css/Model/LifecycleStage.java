@@ -0,0 +1,15 @@
+package css.Model;
+
+/**
+ * The steps an order goes through, in the order they usually happen. The
+ * courier steps are those of the courier that picked the order up, which
+ * with FIFO isn't always the one dispatched for it.
+ */
+public enum LifecycleStage {
+    RECEIVED,
+    TAKEN_BY_KITCHEN,
+    COURIER_DISPATCHED,
+    PREP_DONE,
+    COURIER_ARRIVED,
+    PICKED_UP
+}
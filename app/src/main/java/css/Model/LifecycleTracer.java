@@ -0,0 +1,152 @@
+package css.Model;
+
+import css.Logging.EventLogger;
+
+/**
+ * Traces orders through their LifecycleStages with System.nanoTime() and
+ * breaks down where the time went once they're picked up.
+ *
+ * The Waiter starts each order's trace, the KitchenService and
+ * PreparingOrderHelper mark the stages they reach, and the consumer hands
+ * the order and its courier over at pickup. The trace then goes into one
+ * LatencyHistogram per Segment, in microseconds, so the breakdown takes
+ * the same memory however many orders there are.
+ *
+ * The times are real, not simulated: with a ScaledClock the prep and
+ * travel segments shrink by its speed-up factor, while the queueing and
+ * pickup overheads don't. Prep and courier travel happen at the same
+ * time, so the shares of the total add up to more than 100%.
+ */
+public class LifecycleTracer {
+
+    /**
+     * A span of an order's lifecycle. PICKUP_WAIT starts when both the
+     * order and the courier are there, whichever came last.
+     */
+    public enum Segment {
+        QUEUEING("Queueing", LifecycleStage.RECEIVED, LifecycleStage.TAKEN_BY_KITCHEN),
+        PREP("Prep", LifecycleStage.TAKEN_BY_KITCHEN, LifecycleStage.PREP_DONE),
+        COURIER_TRAVEL("Courier travel", LifecycleStage.COURIER_DISPATCHED, LifecycleStage.COURIER_ARRIVED),
+        PICKUP_WAIT("Pickup wait", null, LifecycleStage.PICKED_UP),
+        TOTAL("Total", LifecycleStage.RECEIVED, LifecycleStage.PICKED_UP);
+
+        private final String label;
+        private final LifecycleStage from;
+        private final LifecycleStage to;
+
+        Segment(String label, LifecycleStage from, LifecycleStage to) {
+            this.label = label;
+            this.from = from;
+            this.to = to;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        // Order.STAGE_NOT_REACHED if the order skipped either end.
+        long startNanos(Order order) {
+            if (from != null) {
+                return order.getStageNanos(from);
+            }
+            long prepDone = order.getStageNanos(LifecycleStage.PREP_DONE);
+            long courierArrived = order.getStageNanos(LifecycleStage.COURIER_ARRIVED);
+            if (prepDone == Order.STAGE_NOT_REACHED || courierArrived == Order.STAGE_NOT_REACHED) {
+                return Order.STAGE_NOT_REACHED;
+            }
+            // nanoTime values are only comparable by their difference
+            return prepDone - courierArrived > 0 ? prepDone : courierArrived;
+        }
+
+        long endNanos(Order order) {
+            return order.getStageNanos(to);
+        }
+    }
+
+    private static final Segment[] SEGMENTS = Segment.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[SEGMENTS.length];
+    private long incompleteTraces;
+
+    public LifecycleTracer() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    // Called by the Waiter as it hands the order out.
+    public void orderReceived(Order order) {
+        order.startTrace();
+    }
+
+    /**
+     * Completes the order's trace with the pickup and the courier's
+     * dispatch and arrival, and adds it to the breakdown. Orders that
+     * weren't traced are ignored.
+     */
+    public void orderPickedUp(Order order, Courier courier) {
+        if (!order.isTraced()) {
+            return;
+        }
+        order.markStage(LifecycleStage.PICKED_UP);
+        order.setStageNanos(LifecycleStage.COURIER_DISPATCHED, courier.getDispatchedNanos());
+        order.setStageNanos(LifecycleStage.COURIER_ARRIVED, courier.getArrivedNanos());
+        record(order);
+    }
+
+    // Pickups can happen on several threads at once.
+    private synchronized void record(Order order) {
+        boolean complete = true;
+        for (Segment segment : SEGMENTS) {
+            long start = segment.startNanos(order);
+            long end = segment.endNanos(order);
+            if (start == Order.STAGE_NOT_REACHED || end == Order.STAGE_NOT_REACHED) {
+                complete = false;
+                continue;
+            }
+            histograms[segment.ordinal()].record((end - start) / 1000);
+        }
+        if (!complete) {
+            incompleteTraces++;
+        }
+    }
+
+    // In microseconds.
+    public synchronized LatencyHistogram getHistogram(Segment segment) {
+        return histograms[segment.ordinal()];
+    }
+
+    public synchronized long getTracedOrders() {
+        return histograms[Segment.TOTAL.ordinal()].getCount();
+    }
+
+    // Orders picked up without every stage, e.g. a courier that was never dispatched.
+    public synchronized long getIncompleteTraces() {
+        return incompleteTraces;
+    }
+
+    // Print how the time from receiving to pickup was spent.
+    public synchronized void printBreakdown() {
+        EventLogger.shared().flush();
+        System.out.println("\nLifecycle breakdown over " + getTracedOrders() + " orders, in real time:");
+        long totalMicros = histograms[Segment.TOTAL.ordinal()].getSum();
+        for (Segment segment : SEGMENTS) {
+            System.out.println(formatSegment(segment, histograms[segment.ordinal()], totalMicros));
+        }
+        if (incompleteTraces > 0) {
+            System.out.println("  " + incompleteTraces + " orders were missing a stage");
+        }
+        System.out.println("");
+    }
+
+    // e.g. "  Prep            mean 4012.3 ms, p50 ..., max ... ms, 61.0% of total"
+    private static String formatSegment(Segment segment, LatencyHistogram histogram, long totalMicros) {
+        StringBuilder line = new StringBuilder(String.format("  %-15s mean %.1f ms, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+                segment.getLabel(), histogram.getMean() / 1000.0, histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getMax() / 1000.0));
+        if (segment != Segment.TOTAL && totalMicros > 0) {
+            line.append(String.format(", %.1f%% of total", 100.0 * histogram.getSum() / totalMicros));
+        }
+        return line.toString();
+    }
+}
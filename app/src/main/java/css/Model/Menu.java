@@ -0,0 +1,65 @@
+package css.Model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Global table of the food items on the menu. Each distinct name is stored
+ * once and given a dense int id, so an Order only has to keep the id. The
+ * menu is tiny compared to the number of orders, so ids are never removed.
+ */
+public final class Menu {
+
+    public static final int NO_FOOD_ITEM = -1;
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[16];
+    private static int size;
+
+    private Menu() {
+    }
+
+    /**
+     * Returns the id of the food item, adding it to the menu the first time
+     * it's seen.
+     *
+     * @param name The food item's name, or null.
+     * @return The food item's id, or NO_FOOD_ITEM for null.
+     */
+    public static int intern(String name) {
+        if (name == null) {
+            return NO_FOOD_ITEM;
+        }
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (Menu.class) {
+            id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            names[size] = name;
+            // Publishing the id after the name is stored makes the name
+            // visible to any thread that gets the id.
+            ids.put(name, size);
+            return size++;
+        }
+    }
+
+    /**
+     * @param id A food item id from intern().
+     * @return The food item's name, or null for NO_FOOD_ITEM.
+     */
+    public static String nameOf(int id) {
+        return id == NO_FOOD_ITEM ? null : names[id];
+    }
+
+    public static int size() {
+        return ids.size();
+    }
+}
@@ -1,45 +1,139 @@
 package css.Model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Instant;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-
-import com.google.common.base.Objects;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * An order and its readiness.
+ *
+ * Orders are kept compact so tens of millions fit in one JVM. A UUID id is
+ * stored as two longs and only turned back into a String when asked for;
+ * any other id is kept as given. The food item is an id into the Menu, and
+ * the finished time is kept as primitive seconds and nanos. The creation
+ * time is optional, NO_TIMESTAMP unless the order file has one. Orders
+ * only get a lifecycle trace, one System.nanoTime() per LifecycleStage,
+ * when a LifecycleTracer starts one.
+ *
+ * Readiness is one volatile field instead of a lock per order: null while
+ * the order isn't ready, READY once it is, and in between the stack of
+ * threads blocked in awaitReady(). isReady() is a single volatile read, and
+ * setReady(true) only has to unpark anyone when there are waiters. Fields
+ * set before setReady(true), like the finished time, are visible to every
+ * thread that sees the order as ready.
+ */
 public class Order {
 
-    private String id;
-    private String foodItem;
+    private static final Object READY = new Object();
+    private static final VarHandle READY_STATE;
+
+    static {
+        try {
+            READY_STATE = MethodHandles.lookup().findVarHandle(Order.class, "readyState", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final long NOT_FINISHED = Long.MIN_VALUE;
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    public static final long STAGE_NOT_REACHED = Long.MIN_VALUE;
+    private static final LifecycleStage[] STAGES = LifecycleStage.values();
+
+    private long idMostSigBits;
+    private long idLeastSigBits;
+    // Only set when the id isn't a canonical lowercase UUID
+    private String idText;
+    private int foodItemId;
     private int prepTime;
-    private Instant finishedTime;
-    private boolean ready;
-    private final Lock lock = new ReentrantLock();
-    private final Condition orderReadyCondition = lock.newCondition();
+    private long finishedTimeSeconds = NOT_FINISHED;
+    private int finishedTimeNanos;
+    // Epoch millis when the order was placed, from the order file
+    private long createdAtMillis = NO_TIMESTAMP;
+    // System.nanoTime() per LifecycleStage, null unless the order is traced
+    private long[] stageNanos;
+    // null, READY, or the head of the Waiter stack
+    private volatile Object readyState;
     private int requeueAttempts;
 
     public Order(String id){
-        this.id = id;
+        this(id, null, 0);
     }
     
     public Order(String id, String foodItem, int prepTime) {
-        this.id = id;
-        this.foodItem = foodItem;
+        assignId(id);
+        this.foodItemId = Menu.intern(foodItem);
+        this.prepTime = prepTime;
+        this.requeueAttempts = 0;
+    }
+
+    // Builds an order straight from its compact fields, e.g. when loading a binary file.
+    public Order(long idMostSigBits, long idLeastSigBits, int foodItemId, int prepTime) {
+        this.idMostSigBits = idMostSigBits;
+        this.idLeastSigBits = idLeastSigBits;
+        this.foodItemId = foodItemId;
         this.prepTime = prepTime;
-        this.ready = false;
         this.requeueAttempts = 0;
     }
 
     public String getId() {
-        return id;
+        if (idText != null || !hasUuidId()) {
+            return idText;
+        }
+        return new UUID(idMostSigBits, idLeastSigBits).toString();
+    }
+
+    // The id for lookups, without building its String.
+    public OrderKey getKey() {
+        return new OrderKey(idMostSigBits, idLeastSigBits, idText);
     }
 
     public void setId(String id) {
-        this.id = id;
+        assignId(id);
+    }
+
+    private void assignId(String id) {
+        long mostSigBits = 0;
+        long leastSigBits = 0;
+        if (id != null && isCanonicalUuid(id)) {
+            mostSigBits = parseUuidMostSigBits(id);
+            leastSigBits = parseUuidLeastSigBits(id);
+        }
+        // The nil UUID is kept as text since two zero longs mean "no UUID"
+        if (mostSigBits != 0 || leastSigBits != 0) {
+            this.idMostSigBits = mostSigBits;
+            this.idLeastSigBits = leastSigBits;
+            this.idText = null;
+        } else {
+            this.idMostSigBits = 0;
+            this.idLeastSigBits = 0;
+            this.idText = id;
+        }
+    }
+
+    // True when the id is held as two longs rather than as text.
+    public boolean hasUuidId() {
+        return idText == null && (idMostSigBits != 0 || idLeastSigBits != 0);
+    }
+
+    public long getIdMostSigBits() {
+        return idMostSigBits;
+    }
+
+    public long getIdLeastSigBits() {
+        return idLeastSigBits;
     }
 
     public String getFoodItem() {
-        return foodItem;
+        return Menu.nameOf(foodItemId);
+    }
+
+    public int getFoodItemId() {
+        return foodItemId;
     }
 
     public int getPrepTime() {
@@ -51,11 +145,68 @@ public class Order {
     }
 
     public Instant getFinishedTime() {
-        return finishedTime;
+        return isFinished() ? Instant.ofEpochSecond(finishedTimeSeconds, finishedTimeNanos) : null;
     }
 
     public void setFinishedTime(Instant finishedTime) {
-        this.finishedTime = finishedTime;
+        if (finishedTime == null) {
+            this.finishedTimeSeconds = NOT_FINISHED;
+            this.finishedTimeNanos = 0;
+        } else {
+            this.finishedTimeSeconds = finishedTime.getEpochSecond();
+            this.finishedTimeNanos = finishedTime.getNano();
+        }
+    }
+
+    // Same as getFinishedTime().toEpochMilli() without creating an Instant.
+    public long getFinishedTimeMillis() {
+        return finishedTimeSeconds * 1000 + finishedTimeNanos / 1_000_000;
+    }
+
+    public boolean isFinished() {
+        return finishedTimeSeconds != NOT_FINISHED;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public void setCreatedAtMillis(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public boolean hasCreatedAt() {
+        return createdAtMillis != NO_TIMESTAMP;
+    }
+
+    // Starts the lifecycle trace with the order received now.
+    public void startTrace() {
+        long[] stages = new long[STAGES.length];
+        Arrays.fill(stages, STAGE_NOT_REACHED);
+        stages[LifecycleStage.RECEIVED.ordinal()] = System.nanoTime();
+        this.stageNanos = stages;
+    }
+
+    public boolean isTraced() {
+        return stageNanos != null;
+    }
+
+    // Records that the order reached the stage now. Does nothing if the order isn't traced.
+    public void markStage(LifecycleStage stage) {
+        if (stageNanos != null) {
+            stageNanos[stage.ordinal()] = System.nanoTime();
+        }
+    }
+
+    public void setStageNanos(LifecycleStage stage, long nanos) {
+        if (stageNanos != null) {
+            stageNanos[stage.ordinal()] = nanos;
+        }
+    }
+
+    // STAGE_NOT_REACHED if the order isn't traced or hasn't got that far.
+    public long getStageNanos(LifecycleStage stage) {
+        return stageNanos == null ? STAGE_NOT_REACHED : stageNanos[stage.ordinal()];
     }
 
     public int getRequeueAttempts() {
@@ -67,32 +218,39 @@ public class Order {
     }
 
     public boolean isReady() {
-        lock.lock();
-        try {
-            return ready;
-        } finally {
-            lock.unlock();
-        }
+        return readyState == READY;
     }
 
     public void setReady(boolean ready) {
-        lock.lock();
-        try {
-            this.ready = ready;
-            orderReadyCondition.signalAll(); // Signal that the order is ready
-        } finally {
-            lock.unlock();
+        if (!ready) {
+            READY_STATE.compareAndSet(this, READY, null);
+            return;
+        }
+        Object previous = READY_STATE.getAndSet(this, READY);
+        // Wake up every thread that was waiting for the order
+        for (Waiter waiter = previous instanceof Waiter ? (Waiter) previous : null; waiter != null; waiter = waiter.next) {
+            LockSupport.unpark(waiter.thread);
         }
     }
 
     public void awaitReady() throws InterruptedException {
-        lock.lock();
-        try {
-            while (!ready) {
-                orderReadyCondition.await(); // Wait until the order is ready
+        Object state;
+        Waiter waiter = null;
+        while ((state = readyState) != READY) {
+            // Push a waiter unless ours is still the head. After a spurious wakeup
+            // with others pushed on top this adds a duplicate, which only costs an
+            // extra unpark.
+            if (waiter == null || state != waiter) {
+                waiter = new Waiter(Thread.currentThread(), state instanceof Waiter ? (Waiter) state : null);
+                if (!READY_STATE.compareAndSet(this, state, waiter)) {
+                    continue;
+                }
+            }
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                // The waiter stays on the stack and is unparked harmlessly once the order is ready
+                throw new InterruptedException();
             }
-        } finally {
-            lock.unlock();
         }
     }
 
@@ -102,12 +260,64 @@ public class Order {
         if (o == null || getClass() != o.getClass()) return false;
         Order order = (Order) o;
         return prepTime == order.prepTime &&
-                id.equals(order.id) &&
-                foodItem.equals(order.foodItem);
+                foodItemId == order.foodItemId &&
+                idMostSigBits == order.idMostSigBits &&
+                idLeastSigBits == order.idLeastSigBits &&
+                Objects.equals(idText, order.idText);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(id, foodItem, prepTime);
+        int result = Long.hashCode(idMostSigBits);
+        result = 31 * result + Long.hashCode(idLeastSigBits);
+        result = 31 * result + Objects.hashCode(idText);
+        result = 31 * result + foodItemId;
+        return 31 * result + prepTime;
+    }
+
+    // Only the canonical lowercase form is stored as longs, so getId() gives back exactly what was set.
+    static boolean isCanonicalUuid(String id) {
+        if (id.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long parseUuidMostSigBits(String uuid) {
+        return parseHex(uuid, 0, 8) << 32 | parseHex(uuid, 9, 13) << 16 | parseHex(uuid, 14, 18);
+    }
+
+    static long parseUuidLeastSigBits(String uuid) {
+        return parseHex(uuid, 19, 23) << 48 | parseHex(uuid, 24, 36);
+    }
+
+    private static long parseHex(String text, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value << 4 | Character.digit(text.charAt(i), 16);
+        }
+        return value;
+    }
+
+    // A thread blocked in awaitReady(), linked to the ones that were already waiting.
+    private static final class Waiter {
+
+        private final Thread thread;
+        private final Waiter next;
+
+        private Waiter(Thread thread, Waiter next) {
+            this.thread = thread;
+            this.next = next;
+        }
     }
 }
@@ -0,0 +1,68 @@
+package css.Model;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An order's id as Order keeps it: a UUID as two longs, anything else as
+ * the text given. Used to look orders up by id, e.g. in the
+ * ReadyOrderIndex, without turning a UUID back into a String every time.
+ * Two keys are equal when the ids they were made from are.
+ */
+public final class OrderKey {
+
+    private final long mostSigBits;
+    private final long leastSigBits;
+    private final String text;
+
+    OrderKey(long mostSigBits, long leastSigBits, String text) {
+        this.mostSigBits = mostSigBits;
+        this.leastSigBits = leastSigBits;
+        this.text = text;
+    }
+
+    // Parses the id the same way an Order does.
+    public static OrderKey of(String id) {
+        if (id != null && Order.isCanonicalUuid(id)) {
+            long mostSigBits = Order.parseUuidMostSigBits(id);
+            long leastSigBits = Order.parseUuidLeastSigBits(id);
+            if (mostSigBits != 0 || leastSigBits != 0) {
+                return new OrderKey(mostSigBits, leastSigBits, null);
+            }
+        }
+        return new OrderKey(0, 0, id);
+    }
+
+    /**
+     * @return The id as Order.getId() would give it. Builds a new String
+     *         for a UUID.
+     */
+    public String getId() {
+        if (text != null || (mostSigBits == 0 && leastSigBits == 0)) {
+            return text;
+        }
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderKey)) return false;
+        OrderKey key = (OrderKey) o;
+        return mostSigBits == key.mostSigBits &&
+                leastSigBits == key.leastSigBits &&
+                Objects.equals(text, key.text);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(mostSigBits);
+        result = 31 * result + Long.hashCode(leastSigBits);
+        return 31 * result + Objects.hashCode(text);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(getId());
+    }
+}
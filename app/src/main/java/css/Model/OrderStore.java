@@ -0,0 +1,243 @@
+package css.Model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Column store for orders. Every field is a primitive array and an order is
+ * just its int index into them, its handle. Millions of orders take a
+ * handful of arrays instead of millions of objects, and going over one
+ * field of every order reads memory in sequence.
+ *
+ * Ids that aren't UUIDs are kept in a String column that is only created
+ * when the first such id is added, and the same goes for creation times,
+ * which most order files don't have. Times are in nanoseconds on whatever
+ * clock the simulation uses, NOT_SET until they are recorded. The store is
+ * not thread-safe.
+ */
+public class OrderStore {
+
+    public static final long NOT_SET = -1;
+    public static final int NO_COURIER = -1;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private long[] idMostSigBits;
+    private long[] idLeastSigBits;
+    private String[] idTexts;
+    private long[] createdAtMillis;
+    private int[] foodItemIds;
+    private int[] prepTimes;
+    private long[] receivedNanos;
+    private long[] readyNanos;
+    private long[] pickedUpNanos;
+    private int[] courierIds;
+    private int size;
+
+    public OrderStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OrderStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        idMostSigBits = new long[capacity];
+        idLeastSigBits = new long[capacity];
+        foodItemIds = new int[capacity];
+        prepTimes = new int[capacity];
+        receivedNanos = new long[capacity];
+        readyNanos = new long[capacity];
+        pickedUpNanos = new long[capacity];
+        courierIds = new int[capacity];
+    }
+
+    /**
+     * Copies the orders into a new store. The handle of each order is its
+     * index in the list.
+     */
+    public static OrderStore of(List<Order> orders) {
+        OrderStore store = new OrderStore(orders.size());
+        for (Order order : orders) {
+            store.add(order);
+        }
+        return store;
+    }
+
+    // Same as of(List) for orders that are streamed, e.g. from a file or generator.
+    public static OrderStore of(Iterator<Order> orders) {
+        OrderStore store = new OrderStore();
+        while (orders.hasNext()) {
+            store.add(orders.next());
+        }
+        return store;
+    }
+
+    public int add(Order order) {
+        int handle = add(order.getIdMostSigBits(), order.getIdLeastSigBits(), order.getFoodItemId(), order.getPrepTime());
+        if (!order.hasUuidId() && order.getId() != null) {
+            setIdText(handle, order.getId());
+        }
+        if (order.hasCreatedAt()) {
+            setCreatedAtMillis(handle, order.getCreatedAtMillis());
+        }
+        return handle;
+    }
+
+    /**
+     * Adds an order from its compact fields.
+     *
+     * @return The new order's handle.
+     */
+    public int add(long idMostSigBits, long idLeastSigBits, int foodItemId, int prepTime) {
+        if (size == prepTimes.length) {
+            grow();
+        }
+        int handle = size++;
+        this.idMostSigBits[handle] = idMostSigBits;
+        this.idLeastSigBits[handle] = idLeastSigBits;
+        this.foodItemIds[handle] = foodItemId;
+        this.prepTimes[handle] = prepTime;
+        this.receivedNanos[handle] = NOT_SET;
+        this.readyNanos[handle] = NOT_SET;
+        this.pickedUpNanos[handle] = NOT_SET;
+        this.courierIds[handle] = NO_COURIER;
+        return handle;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getId(int handle) {
+        if (idTexts != null && idTexts[handle] != null) {
+            return idTexts[handle];
+        }
+        return new UUID(idMostSigBits[handle], idLeastSigBits[handle]).toString();
+    }
+
+    // Order.NO_TIMESTAMP if the order has no creation time.
+    public long getCreatedAtMillis(int handle) {
+        return createdAtMillis != null ? createdAtMillis[handle] : Order.NO_TIMESTAMP;
+    }
+
+    public void setCreatedAtMillis(int handle, long millis) {
+        if (createdAtMillis == null) {
+            if (millis == Order.NO_TIMESTAMP) {
+                return;
+            }
+            createdAtMillis = new long[prepTimes.length];
+            Arrays.fill(createdAtMillis, Order.NO_TIMESTAMP);
+        }
+        createdAtMillis[handle] = millis;
+    }
+
+    public long getIdMostSigBits(int handle) {
+        return idMostSigBits[handle];
+    }
+
+    public long getIdLeastSigBits(int handle) {
+        return idLeastSigBits[handle];
+    }
+
+    public int getFoodItemId(int handle) {
+        return foodItemIds[handle];
+    }
+
+    public String getFoodItem(int handle) {
+        return Menu.nameOf(foodItemIds[handle]);
+    }
+
+    public int getPrepTime(int handle) {
+        return prepTimes[handle];
+    }
+
+    public long getReceivedNanos(int handle) {
+        return receivedNanos[handle];
+    }
+
+    public void setReceivedNanos(int handle, long nanos) {
+        receivedNanos[handle] = nanos;
+    }
+
+    public long getReadyNanos(int handle) {
+        return readyNanos[handle];
+    }
+
+    public void setReadyNanos(int handle, long nanos) {
+        readyNanos[handle] = nanos;
+    }
+
+    public boolean isReady(int handle) {
+        return readyNanos[handle] != NOT_SET;
+    }
+
+    public long getPickedUpNanos(int handle) {
+        return pickedUpNanos[handle];
+    }
+
+    public void setPickedUpNanos(int handle, long nanos) {
+        pickedUpNanos[handle] = nanos;
+    }
+
+    public boolean isPickedUp(int handle) {
+        return pickedUpNanos[handle] != NOT_SET;
+    }
+
+    public int getCourierId(int handle) {
+        return courierIds[handle];
+    }
+
+    public void setCourierId(int handle, int courierId) {
+        courierIds[handle] = courierId;
+    }
+
+    /**
+     * Clears the recorded times and couriers of every order so the same
+     * orders can be simulated again.
+     */
+    public void resetProgress() {
+        Arrays.fill(receivedNanos, 0, size, NOT_SET);
+        Arrays.fill(readyNanos, 0, size, NOT_SET);
+        Arrays.fill(pickedUpNanos, 0, size, NOT_SET);
+        Arrays.fill(courierIds, 0, size, NO_COURIER);
+    }
+
+    /**
+     * Creates an Order object for code that still works with objects.
+     */
+    public Order toOrder(int handle) {
+        Order order = idTexts != null && idTexts[handle] != null
+                ? new Order(idTexts[handle], getFoodItem(handle), prepTimes[handle])
+                : new Order(idMostSigBits[handle], idLeastSigBits[handle], foodItemIds[handle], prepTimes[handle]);
+        order.setCreatedAtMillis(getCreatedAtMillis(handle));
+        return order;
+    }
+
+    private void setIdText(int handle, String id) {
+        if (idTexts == null) {
+            idTexts = new String[prepTimes.length];
+        }
+        idTexts[handle] = id;
+    }
+
+    private void grow() {
+        int capacity = prepTimes.length + (prepTimes.length >> 1) + 1;
+        idMostSigBits = Arrays.copyOf(idMostSigBits, capacity);
+        idLeastSigBits = Arrays.copyOf(idLeastSigBits, capacity);
+        if (idTexts != null) {
+            idTexts = Arrays.copyOf(idTexts, capacity);
+        }
+        if (createdAtMillis != null) {
+            int oldCapacity = createdAtMillis.length;
+            createdAtMillis = Arrays.copyOf(createdAtMillis, capacity);
+            Arrays.fill(createdAtMillis, oldCapacity, capacity, Order.NO_TIMESTAMP);
+        }
+        foodItemIds = Arrays.copyOf(foodItemIds, capacity);
+        prepTimes = Arrays.copyOf(prepTimes, capacity);
+        receivedNanos = Arrays.copyOf(receivedNanos, capacity);
+        readyNanos = Arrays.copyOf(readyNanos, capacity);
+        pickedUpNanos = Arrays.copyOf(pickedUpNanos, capacity);
+        courierIds = Arrays.copyOf(courierIds, capacity);
+    }
+}
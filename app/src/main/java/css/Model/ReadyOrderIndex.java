@@ -0,0 +1,100 @@
+package css.Model;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ready orders keyed by their OrderKey. Used by the Matched strategy so a
+ * courier can find and remove its order in O(1) instead of scanning the
+ * readyOrdersQueue. Safe to use from the preparing and consuming threads
+ * at the same time.
+ *
+ * A courier that arrives before its order can wait on whenReady(), which
+ * completes as soon as the order is added.
+ *
+ * Lookups by OrderKey never build the id's String. The String overloads
+ * parse the id into a key first.
+ */
+public class ReadyOrderIndex {
+
+    private final Map<OrderKey, Order> readyOrders;
+    private final Map<OrderKey, CompletableFuture<Order>> waiters;
+
+    public ReadyOrderIndex() {
+        readyOrders = new ConcurrentHashMap<>();
+        waiters = new ConcurrentHashMap<>();
+    }
+
+    public void add(Order order) {
+        OrderKey key = order.getKey();
+        readyOrders.put(key, order);
+        CompletableFuture<Order> waiter = waiters.remove(key);
+        if (waiter != null) {
+            waiter.complete(order);
+        }
+    }
+
+    /**
+     * Returns a future that completes with the order once it's ready. The
+     * future is already complete if the order is in the index.
+     *
+     * @param orderKey The key of the order.
+     * @return A future for the ready order.
+     */
+    public CompletableFuture<Order> whenReady(OrderKey orderKey) {
+        Order order = readyOrders.get(orderKey);
+        if (order != null) {
+            return CompletableFuture.completedFuture(order);
+        }
+        CompletableFuture<Order> waiter = waiters.computeIfAbsent(orderKey, key -> new CompletableFuture<>());
+        // The order may have been added between the lookup and registering the
+        // waiter, in which case add() didn't see the waiter.
+        order = readyOrders.get(orderKey);
+        if (order != null) {
+            waiters.remove(orderKey, waiter);
+            waiter.complete(order);
+        }
+        return waiter;
+    }
+
+    public CompletableFuture<Order> whenReady(String orderId) {
+        return whenReady(OrderKey.of(orderId));
+    }
+
+    /**
+     * Looks up a ready order without removing it.
+     *
+     * @param orderKey The key of the order.
+     * @return The order, or null if it isn't ready yet.
+     */
+    public Order get(OrderKey orderKey) {
+        return readyOrders.get(orderKey);
+    }
+
+    public Order get(String orderId) {
+        return get(OrderKey.of(orderId));
+    }
+
+    /**
+     * Removes a ready order once it's been picked up.
+     *
+     * @param orderKey The key of the order.
+     * @return The removed order, or null if it wasn't in the index.
+     */
+    public Order remove(OrderKey orderKey) {
+        return readyOrders.remove(orderKey);
+    }
+
+    public Order remove(String orderId) {
+        return remove(OrderKey.of(orderId));
+    }
+
+    public int size() {
+        return readyOrders.size();
+    }
+
+    public boolean isEmpty() {
+        return readyOrders.isEmpty();
+    }
+}
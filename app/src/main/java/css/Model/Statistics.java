@@ -3,17 +3,66 @@ package css.Model;
 import java.util.ArrayList;
 import java.util.List;
 
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
+
 /**
  * Represents the statistics for each simulation. 
  * Keeps track and calculates the statisitcs for
  * the food and courier wait times.
+ * Every wait time goes into a LatencyHistogram, which gives the mean and
+ * percentiles in fixed memory. Each wait time is also kept in a list
+ * unless the statistics are created with retainWaitTimes false. The
+ * runners and consumers do that unless told otherwise, so a long
+ * simulation's memory doesn't grow with its orders.
+ *
+ * Readers that mustn't take the lock, e.g. a JMX client during a run, use
+ * getSnapshot(). It holds copies of the histograms, refreshed at most once
+ * a second while wait times are recorded and whenever they're merged or
+ * printed.
  */
 public class Statistics {
     
+    private static final EventLogger LOG = EventLogger.shared();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final long SNAPSHOT_INTERVAL_NANOS = 1_000_000_000L;
+
+    /**
+     * Copies of the wait time histograms at one point in time. Treat them
+     * as read-only, they are shared by every reader of the snapshot.
+     */
+    public static final class Snapshot {
+        private final LatencyHistogram foodWaitHistogram;
+        private final LatencyHistogram courierWaitHistogram;
+
+        private Snapshot(LatencyHistogram foodWaitHistogram, LatencyHistogram courierWaitHistogram) {
+            this.foodWaitHistogram = foodWaitHistogram;
+            this.courierWaitHistogram = courierWaitHistogram;
+        }
+
+        public LatencyHistogram getFoodWaitHistogram() {
+            return foodWaitHistogram;
+        }
+
+        public LatencyHistogram getCourierWaitHistogram() {
+            return courierWaitHistogram;
+        }
+    }
+
     private List<Long> foodWaitTimes;
     private List<Long> courierWaitTimes;
+    private final boolean retainWaitTimes;
+    private final LatencyHistogram foodWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram courierWaitHistogram = new LatencyHistogram();
+    private volatile Snapshot snapshot = new Snapshot(new LatencyHistogram(), new LatencyHistogram());
+    private long snapshotNanos = System.nanoTime();
 
     public Statistics(){
+        this(true);
+    }
+
+    public Statistics(boolean retainWaitTimes) {
+        this.retainWaitTimes = retainWaitTimes;
         foodWaitTimes = new ArrayList<>();
         courierWaitTimes = new ArrayList<>();
     }
@@ -26,6 +75,29 @@ public class Statistics {
         return courierWaitTimes;
     }
 
+    public LatencyHistogram getFoodWaitHistogram() {
+        return foodWaitHistogram;
+    }
+
+    public LatencyHistogram getCourierWaitHistogram() {
+        return courierWaitHistogram;
+    }
+
+    // Never blocks. See the class comment for how fresh it is.
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Copies the histograms into a new snapshot straight away.
+    public synchronized void publishSnapshot() {
+        snapshot = new Snapshot(foodWaitHistogram.copy(), courierWaitHistogram.copy());
+        snapshotNanos = System.nanoTime();
+    }
+
+    public boolean isRetainingWaitTimes() {
+        return retainWaitTimes;
+    }
+
     public long calculateAverage(List<Long> waitTimes) {
         if (waitTimes == null || waitTimes.isEmpty()) {
             System.out.println("List is not valid.");
@@ -38,33 +110,80 @@ public class Statistics {
         return sum / waitTimes.size();
     }
 
+    // Record the wait times for one order being fulfilled without logging it.
+    // Matched pickups can record from several threads at once.
+    public synchronized void recordWaitTimes(long foodWaitTime, long courierWaitTime) {
+        foodWaitHistogram.record(foodWaitTime);
+        courierWaitHistogram.record(courierWaitTime);
+        if (retainWaitTimes) {
+            foodWaitTimes.add(foodWaitTime);
+            courierWaitTimes.add(courierWaitTime);
+        }
+        if (System.nanoTime() - snapshotNanos >= SNAPSHOT_INTERVAL_NANOS) {
+            publishSnapshot();
+        }
+    }
+
+    // Adds the other statistics' wait times, e.g. from a worker thread that kept its own.
+    public void merge(Statistics other) {
+        synchronized (other) {
+            synchronized (this) {
+                foodWaitHistogram.merge(other.foodWaitHistogram);
+                courierWaitHistogram.merge(other.courierWaitHistogram);
+                if (retainWaitTimes) {
+                    foodWaitTimes.addAll(other.foodWaitTimes);
+                    courierWaitTimes.addAll(other.courierWaitTimes);
+                }
+                publishSnapshot();
+            }
+        }
+    }
+
+    // How long the ready order waited for its pickup at endWaitingTime.
+    public static long foodWaitTime(Order order, long endWaitingTime) {
+        return endWaitingTime - order.getFinishedTimeMillis();
+    }
+
+    // How long the arrived courier waited for its order at endWaitingTime.
+    public static long courierWaitTime(Courier courier, long endWaitingTime) {
+        return endWaitingTime - courier.getArrivalTime().toEpochMilli();
+    }
+
     // Print statistics for one order being fulfilled.
     public void printFulFillmentStats(Courier courier, Order order, long endWaitingTime) {
-        long foodWaitTime = endWaitingTime - order.getFinishedTime().toEpochMilli();
-        long courierWaitTime = endWaitingTime - courier.getArrivalTime().toEpochMilli();
+        long foodWaitTime = foodWaitTime(order, endWaitingTime);
+        long courierWaitTime = courierWaitTime(courier, endWaitingTime);
 
-        foodWaitTimes.add(foodWaitTime);
-        courierWaitTimes.add(courierWaitTime);
+        recordWaitTimes(foodWaitTime, courierWaitTime);
 
-        // Batch logging to minimize I/O overhead
-        String logMessage = String.format("Matched: Order %s picked up by Courier %s%n" +
-                                          "Order %s delivered by Courier %s%n" +
-                                          "Food Wait Time: %d ms%n" +
-                                          "Courier Wait Time: %d ms%n",
-                                          order.getId(), courier.getId(),
-                                          order.getId(), courier.getId(),
-                                          foodWaitTime, courierWaitTime);
-        System.out.println();
-        System.out.print(logMessage);
-        System.out.flush();
+        // Formatted and printed later by the logger's own thread
+        LOG.log(LogEvent.ORDER_FULFILLED, order, courier, foodWaitTime, courierWaitTime);
     }
 
     // Print statisitcs for the whole simulation
-    public void printStatistics() {
-        long avgFoodWaitTimeInMilliseconds = calculateAverage(foodWaitTimes);
-        long avgCourierWaitTimeInMilliseconds = calculateAverage(courierWaitTimes);
+    public synchronized void printStatistics() {
+        // The summary comes after every order's own lines
+        LOG.flush();
+        publishSnapshot();
+        long avgFoodWaitTimeInMilliseconds = foodWaitHistogram.getMean();
+        long avgCourierWaitTimeInMilliseconds = courierWaitHistogram.getMean();
         System.out.println("\nThe Average Food Wait time is " + avgFoodWaitTimeInMilliseconds
                 + " ms Average Courier Wait time is " + avgCourierWaitTimeInMilliseconds + " ms");
+        if (foodWaitHistogram.getCount() > 0) {
+            System.out.println(formatPercentiles("Food Wait time", foodWaitHistogram));
+            System.out.println(formatPercentiles("Courier Wait time", courierWaitHistogram));
+        }
         System.out.println("");
     }
+
+    // e.g. "Food Wait time p50 1203 ms, p90 ..., max 9120 ms over 132 orders"
+    private static String formatPercentiles(String name, LatencyHistogram histogram) {
+        StringBuilder line = new StringBuilder(name);
+        for (double percentile : PERCENTILES) {
+            String label = percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+            line.append(" p").append(label).append(' ').append(histogram.getValueAtPercentile(percentile)).append(" ms,");
+        }
+        return line.append(" max ").append(histogram.getMax()).append(" ms over ")
+                .append(histogram.getCount()).append(" orders").toString();
+    }
 }
@@ -0,0 +1,76 @@
+package css.Monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * An exponentially weighted moving average of how many events happen per
+ * second, like the Unix load average.
+ *
+ * mark() only adds to a LongAdder, so threads marking at once don't
+ * contend. Once a tick has passed, the next thread to mark or read folds
+ * the tick's count into the average, and ticks with no calls at all decay
+ * it. Neither takes a lock.
+ */
+public class EwmaRate {
+
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    public static final long DEFAULT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final LongAdder uncounted = new LongAdder();
+    private final long tickNanos;
+    // How much of each tick's rate goes into the average
+    private final double alpha;
+    private final LongSupplier nanoTime;
+    private final AtomicLong lastTickNanos;
+    private volatile double rate;
+    private volatile boolean started;
+
+    public EwmaRate() {
+        this(DEFAULT_TICK_NANOS, DEFAULT_WINDOW_NANOS);
+    }
+
+    public EwmaRate(long tickNanos, long windowNanos) {
+        this(tickNanos, windowNanos, System::nanoTime);
+    }
+
+    // The time source is for tests that step time by hand.
+    public EwmaRate(long tickNanos, long windowNanos, LongSupplier nanoTime) {
+        if (tickNanos <= 0 || windowNanos <= 0) {
+            throw new IllegalArgumentException("Tick and window must be positive: " + tickNanos + ", " + windowNanos);
+        }
+        this.tickNanos = tickNanos;
+        this.alpha = 1 - Math.exp(-(double) tickNanos / windowNanos);
+        this.nanoTime = nanoTime;
+        this.lastTickNanos = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    public void mark() {
+        tickIfDue();
+        uncounted.increment();
+    }
+
+    /**
+     * @return Events per second, 0 until the first tick has passed.
+     */
+    public double getRate() {
+        tickIfDue();
+        return rate;
+    }
+
+    private void tickIfDue() {
+        long last = lastTickNanos.get();
+        long ticks = (nanoTime.getAsLong() - last) / tickNanos;
+        // Only the thread that moves the tick on updates the average
+        if (ticks <= 0 || !lastTickNanos.compareAndSet(last, last + ticks * tickNanos)) {
+            return;
+        }
+        double tickRate = uncounted.sumThenReset() * (double) TimeUnit.SECONDS.toNanos(1) / tickNanos;
+        double average = started ? rate + alpha * (tickRate - rate) : tickRate;
+        // The ticks after the first had nothing counted in them
+        rate = average * Math.pow(1 - alpha, ticks - 1);
+        started = true;
+    }
+}
@@ -0,0 +1,268 @@
+package css.Monitoring;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import css.Logging.EventLogger;
+import css.Monitoring.SimulationMetrics.ItemMetrics;
+
+/**
+ * Serves the SimulationMetrics of every registered simulation at /metrics
+ * in the Prometheus text format, using the JDK's own HTTP server.
+ *
+ * Order metrics are labelled with the strategy and food item, courier
+ * metrics with the strategy only. Simulations with the same strategy are
+ * added together, so many runs side by side show up as one series per
+ * strategy. A simulation stays registered once it's done, so its counts
+ * never go backwards between scrapes. Times are in simulated seconds.
+ *
+ * Scrapes read the LongAdders without locking, on the server's own thread.
+ */
+public final class PrometheusEndpoint implements Closeable {
+
+    private static final EventLogger LOG = EventLogger.shared();
+
+    public static final String PORT_PROPERTY = "css.metrics.port";
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final List<SimulationMetrics> simulations = new CopyOnWriteArrayList<>();
+    private final HttpServer server;
+
+    // Listens on the loopback address, for a local Prometheus. Port 0 picks a free one.
+    public PrometheusEndpoint(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public PrometheusEndpoint(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/metrics", this::serve);
+        server.start();
+    }
+
+    /**
+     * Starts an endpoint on the port in the css.metrics.port system
+     * property.
+     *
+     * @return The endpoint, or null if the property isn't set or the
+     *         server couldn't start.
+     */
+    public static PrometheusEndpoint fromSystemProperty() {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null || port.isBlank()) {
+            return null;
+        }
+        try {
+            return new PrometheusEndpoint(Integer.parseInt(port.trim()));
+        } catch (NumberFormatException | IOException e) {
+            LOG.warn("Could not start the metrics endpoint on port " + port + ": " + e);
+            return null;
+        }
+    }
+
+    public void register(SimulationMetrics metrics) {
+        if (!simulations.contains(metrics)) {
+            simulations.add(metrics);
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // The page a scrape gets.
+    public String scrape() {
+        Map<String, List<SimulationMetrics>> byStrategy = new LinkedHashMap<>();
+        for (SimulationMetrics metrics : simulations) {
+            byStrategy.computeIfAbsent(metrics.getStrategy(), strategy -> new ArrayList<>()).add(metrics);
+        }
+        Map<String, Map<String, List<ItemMetrics>>> items = itemsByStrategy(byStrategy);
+
+        StringBuilder page = new StringBuilder();
+        itemCounter(page, items, "css_orders_received_total", "counter",
+                "Orders handed out by the waiter.", ItemMetrics::getOrdersReceived);
+        itemCounter(page, items, "css_orders_dispatched_total", "counter",
+                "Orders taken by the kitchen, each with a courier dispatched.", ItemMetrics::getOrdersTaken);
+        itemCounter(page, items, "css_orders_prepared_total", "counter",
+                "Orders the kitchen finished preparing.", ItemMetrics::getOrdersPrepared);
+        itemCounter(page, items, "css_orders_in_prep", "gauge",
+                "Orders being prepared.", ItemMetrics::getOrdersInPrep);
+        itemCounter(page, items, "css_pickups_total", "counter",
+                "Orders picked up by a courier.", ItemMetrics::getOrdersPickedUp);
+        itemHistogram(page, items, "css_food_wait_seconds",
+                "How long ready orders waited for their courier.", ItemMetrics::getFoodWaitHistogram);
+        itemHistogram(page, items, "css_courier_wait_seconds",
+                "How long arrived couriers waited for their order.", ItemMetrics::getCourierWaitHistogram);
+        courierCounter(page, byStrategy, "css_couriers_dispatched_total", "counter",
+                "Couriers dispatched by the kitchen.", SimulationMetrics::getCouriersDispatched);
+        courierCounter(page, byStrategy, "css_courier_arrivals_total", "counter",
+                "Couriers that arrived at the kitchen.", SimulationMetrics::getCouriersArrived);
+        courierCounter(page, byStrategy, "css_couriers_in_transit", "gauge",
+                "Couriers on their way to the kitchen.", SimulationMetrics::getCouriersInTransit);
+
+        header(page, "css_courier_travel_seconds", "histogram", "How long couriers took to reach the kitchen.");
+        for (Map.Entry<String, List<SimulationMetrics>> strategy : byStrategy.entrySet()) {
+            List<StripedHistogram> histograms = new ArrayList<>();
+            for (SimulationMetrics metrics : strategy.getValue()) {
+                histograms.add(metrics.getCourierTravelHistogram());
+            }
+            histogram(page, "css_courier_travel_seconds", strategy.getKey(), null, histograms);
+        }
+        return page.toString();
+    }
+
+    // One sample per strategy and food item, added up over the simulations.
+    private static void itemCounter(StringBuilder page, Map<String, Map<String, List<ItemMetrics>>> items,
+            String name, String type, String help, ToLongFunction<ItemMetrics> value) {
+        header(page, name, type, help);
+        for (Map.Entry<String, Map<String, List<ItemMetrics>>> strategy : items.entrySet()) {
+            for (Map.Entry<String, List<ItemMetrics>> item : strategy.getValue().entrySet()) {
+                long total = 0;
+                for (ItemMetrics metrics : item.getValue()) {
+                    total += value.applyAsLong(metrics);
+                }
+                sample(page, name, strategy.getKey(), item.getKey(), null, total);
+            }
+        }
+    }
+
+    private static void itemHistogram(StringBuilder page, Map<String, Map<String, List<ItemMetrics>>> items,
+            String name, String help, Function<ItemMetrics, StripedHistogram> histogram) {
+        header(page, name, "histogram", help);
+        for (Map.Entry<String, Map<String, List<ItemMetrics>>> strategy : items.entrySet()) {
+            for (Map.Entry<String, List<ItemMetrics>> item : strategy.getValue().entrySet()) {
+                List<StripedHistogram> histograms = new ArrayList<>();
+                for (ItemMetrics metrics : item.getValue()) {
+                    histograms.add(histogram.apply(metrics));
+                }
+                histogram(page, name, strategy.getKey(), item.getKey(), histograms);
+            }
+        }
+    }
+
+    // One sample per strategy.
+    private static void courierCounter(StringBuilder page, Map<String, List<SimulationMetrics>> byStrategy,
+            String name, String type, String help, ToLongFunction<SimulationMetrics> value) {
+        header(page, name, type, help);
+        for (Map.Entry<String, List<SimulationMetrics>> strategy : byStrategy.entrySet()) {
+            long total = 0;
+            for (SimulationMetrics metrics : strategy.getValue()) {
+                total += value.applyAsLong(metrics);
+            }
+            sample(page, name, strategy.getKey(), null, null, total);
+        }
+    }
+
+    // Strategy, then food item, to the item metrics of every simulation with them.
+    private static Map<String, Map<String, List<ItemMetrics>>> itemsByStrategy(Map<String, List<SimulationMetrics>> byStrategy) {
+        Map<String, Map<String, List<ItemMetrics>>> items = new LinkedHashMap<>();
+        for (Map.Entry<String, List<SimulationMetrics>> strategy : byStrategy.entrySet()) {
+            Map<String, List<ItemMetrics>> byItem = new LinkedHashMap<>();
+            for (SimulationMetrics metrics : strategy.getValue()) {
+                for (ItemMetrics item : metrics.getItems()) {
+                    byItem.computeIfAbsent(item.getFoodItem(), foodItem -> new ArrayList<>()).add(item);
+                }
+            }
+            items.put(strategy.getKey(), byItem);
+        }
+        return items;
+    }
+
+    private static void header(StringBuilder page, String name, String type, String help) {
+        page.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        page.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    // The buckets of the histograms added together, in seconds.
+    private static void histogram(StringBuilder page, String name, String strategy, String foodItem, List<StripedHistogram> histograms) {
+        long[] bounds = StripedHistogram.DEFAULT_BOUNDS_MILLIS;
+        long[] cumulative = new long[bounds.length + 1];
+        long sumMillis = 0;
+        for (StripedHistogram histogram : histograms) {
+            long[] counts = histogram.getCumulativeCounts();
+            for (int i = 0; i < counts.length; i++) {
+                cumulative[i] += counts[i];
+            }
+            sumMillis += histogram.getSum();
+        }
+        for (int i = 0; i < bounds.length; i++) {
+            sample(page, name + "_bucket", strategy, foodItem, formatSeconds(bounds[i]), cumulative[i]);
+        }
+        sample(page, name + "_bucket", strategy, foodItem, "+Inf", cumulative[bounds.length]);
+        appendLabels(page.append(name).append("_sum"), strategy, foodItem, null);
+        page.append(' ').append(formatSeconds(sumMillis)).append('\n');
+        sample(page, name + "_count", strategy, foodItem, null, cumulative[bounds.length]);
+    }
+
+    private static void sample(StringBuilder page, String name, String strategy, String foodItem, String le, long value) {
+        appendLabels(page.append(name), strategy, foodItem, le);
+        page.append(' ').append(value).append('\n');
+    }
+
+    private static void appendLabels(StringBuilder page, String strategy, String foodItem, String le) {
+        page.append("{strategy=\"");
+        appendEscaped(page, strategy);
+        page.append('"');
+        if (foodItem != null) {
+            page.append(",item=\"");
+            appendEscaped(page, foodItem);
+            page.append('"');
+        }
+        if (le != null) {
+            page.append(",le=\"").append(le).append('"');
+        }
+        page.append('}');
+    }
+
+    // Label values escape backslashes, quotes and newlines.
+    private static void appendEscaped(StringBuilder page, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                page.append('\\').append(c);
+            } else if (c == '\n') {
+                page.append("\\n");
+            } else {
+                page.append(c);
+            }
+        }
+    }
+
+    // e.g. 2500 ms as "2.5"
+    private static String formatSeconds(long millis) {
+        return millis % 1000 == 0 ? String.valueOf(millis / 1000) : String.valueOf(millis / 1000.0);
+    }
+}
@@ -0,0 +1,216 @@
+package css.Monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import css.Model.Courier;
+import css.Model.Menu;
+import css.Model.Order;
+import css.Model.Statistics;
+
+/**
+ * Counts where the orders and couriers of a running simulation are. The
+ * waiter, the kitchen, its helpers and the consumers update it as orders
+ * and couriers move on, and a SimulationMonitor or PrometheusEndpoint
+ * reads it.
+ *
+ * The order counts and wait times are kept per food item, in a table
+ * indexed by the Menu id, and the courier counts for the whole
+ * simulation, since a FIFO courier doesn't know which food it will get.
+ * Every counter is a LongAdder, so the threads updating them don't
+ * contend and reading never blocks. The in-flight counts are a difference
+ * of two counters read one after the other, so a reading can be off by
+ * the few updates that happened in between.
+ *
+ * Times are in simulated milliseconds.
+ */
+public class SimulationMetrics {
+
+    /**
+     * The counts for one food item.
+     */
+    public static final class ItemMetrics {
+        private final String foodItem;
+        private final LongAdder received = new LongAdder();
+        private final LongAdder taken = new LongAdder();
+        private final LongAdder prepared = new LongAdder();
+        private final LongAdder pickedUp = new LongAdder();
+        private final StripedHistogram foodWait = new StripedHistogram();
+        private final StripedHistogram courierWait = new StripedHistogram();
+
+        private ItemMetrics(String foodItem) {
+            this.foodItem = foodItem;
+        }
+
+        // Empty for orders without one.
+        public String getFoodItem() {
+            return foodItem;
+        }
+
+        public long getOrdersReceived() {
+            return received.sum();
+        }
+
+        public long getOrdersTaken() {
+            return taken.sum();
+        }
+
+        public long getOrdersPrepared() {
+            return prepared.sum();
+        }
+
+        public long getOrdersInPrep() {
+            long preparedOrders = prepared.sum();
+            return Math.max(0, taken.sum() - preparedOrders);
+        }
+
+        public long getOrdersPickedUp() {
+            return pickedUp.sum();
+        }
+
+        public StripedHistogram getFoodWaitHistogram() {
+            return foodWait;
+        }
+
+        public StripedHistogram getCourierWaitHistogram() {
+            return courierWait;
+        }
+    }
+
+    private final String strategy;
+    // Indexed by food item id + 1, so orders without one go first. Grown by copying.
+    private volatile ItemMetrics[] items = new ItemMetrics[0];
+    private final LongAdder couriersDispatched = new LongAdder();
+    private final LongAdder couriersArrived = new LongAdder();
+    private final StripedHistogram courierTravel = new StripedHistogram();
+    private final EwmaRate pickupRate = new EwmaRate();
+
+    public SimulationMetrics() {
+        this("Unnamed");
+    }
+
+    // The strategy labels the metrics, e.g. "FIFO" or "Matched".
+    public SimulationMetrics(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    // Handed out by the waiter.
+    public void orderReceived(Order order) {
+        item(order).received.increment();
+    }
+
+    public void orderTakenByKitchen(Order order) {
+        item(order).taken.increment();
+    }
+
+    public void orderPrepared(Order order) {
+        item(order).prepared.increment();
+    }
+
+    public void courierDispatched() {
+        couriersDispatched.increment();
+    }
+
+    // Records the courier's travel time, from its dispatch to its arrival.
+    public void courierArrived(Courier courier) {
+        couriersArrived.increment();
+        if (courier.getTimeDispatched() != null && courier.getArrivalTime() != null) {
+            courierTravel.record(courier.getArrivalTime().toEpochMilli() - courier.getTimeDispatched().toEpochMilli());
+        }
+    }
+
+    // Records the food and courier waits the same way Statistics does.
+    public void orderPickedUp(Order order, Courier courier, long endWaitingTime) {
+        ItemMetrics item = item(order);
+        item.pickedUp.increment();
+        item.foodWait.record(Statistics.foodWaitTime(order, endWaitingTime));
+        if (courier.getArrivalTime() != null) {
+            item.courierWait.record(Statistics.courierWaitTime(courier, endWaitingTime));
+        }
+        pickupRate.mark();
+    }
+
+    /**
+     * @return The food items seen so far, in Menu id order.
+     */
+    public ItemMetrics[] getItems() {
+        ItemMetrics[] current = items;
+        int seen = 0;
+        for (ItemMetrics item : current) {
+            if (item != null) {
+                seen++;
+            }
+        }
+        ItemMetrics[] result = new ItemMetrics[seen];
+        int next = 0;
+        for (ItemMetrics item : current) {
+            if (item != null) {
+                result[next++] = item;
+            }
+        }
+        return result;
+    }
+
+    public long getOrdersInPrep() {
+        long inPrep = 0;
+        for (ItemMetrics item : getItems()) {
+            inPrep += item.getOrdersInPrep();
+        }
+        return inPrep;
+    }
+
+    public long getOrdersPickedUp() {
+        long pickedUp = 0;
+        for (ItemMetrics item : getItems()) {
+            pickedUp += item.getOrdersPickedUp();
+        }
+        return pickedUp;
+    }
+
+    public long getCouriersDispatched() {
+        return couriersDispatched.sum();
+    }
+
+    public long getCouriersArrived() {
+        return couriersArrived.sum();
+    }
+
+    public long getCouriersInTransit() {
+        long arrived = couriersArrived.sum();
+        return Math.max(0, couriersDispatched.sum() - arrived);
+    }
+
+    public StripedHistogram getCourierTravelHistogram() {
+        return courierTravel;
+    }
+
+    public double getPickupsPerSecond() {
+        return pickupRate.getRate();
+    }
+
+    // Lock-free once the item has been seen.
+    private ItemMetrics item(Order order) {
+        int index = order.getFoodItemId() + 1;
+        ItemMetrics[] current = items;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        return addItem(index);
+    }
+
+    private synchronized ItemMetrics addItem(int index) {
+        ItemMetrics[] current = items;
+        if (index < current.length && current[index] != null) {
+            return current[index];
+        }
+        ItemMetrics[] grown = index < current.length ? current.clone() : Arrays.copyOf(current, index + 1);
+        String foodItem = Menu.nameOf(index - 1);
+        grown[index] = new ItemMetrics(foodItem == null ? "" : foodItem);
+        items = grown;
+        return grown[index];
+    }
+}
@@ -0,0 +1,206 @@
+package css.Monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import css.Interfaces.SimulationMonitorMXBean;
+import css.Logging.EventLogger;
+import css.Model.Courier;
+import css.Model.LatencyHistogram;
+import css.Model.Order;
+import css.Model.ReadyOrderIndex;
+import css.Model.Statistics;
+
+/**
+ * Shows a running simulation's queues, in-flight counts and wait times as
+ * an MXBean named css:type=Simulation,strategy=<strategy>.
+ *
+ * The queue depths come from the queues' size(), which for the
+ * LinkedBlockingQueues and ShardedBlockingQueues is a single atomic read.
+ * The wait times come from the snapshots of the consumer's Statistics,
+ * merged on the reading thread, so a JMX client never takes a lock the
+ * simulation uses.
+ */
+public class SimulationMonitor implements SimulationMonitorMXBean {
+
+    private static final EventLogger LOG = EventLogger.shared();
+
+    private final BlockingQueue<Order> ordersReceivedQueue;
+    private final BlockingQueue<Courier> waitingCourierQueue;
+    private final BlockingQueue<Courier> courierReadyQueue;
+    private final BlockingQueue<Order> readyOrdersQueue;
+    private final ReadyOrderIndex readyOrderIndex;
+    private final SimulationMetrics metrics;
+    // Every Statistics the consumer records into, e.g. one per worker
+    private final Supplier<List<Statistics>> statistics;
+    private ObjectName registeredName;
+
+    public SimulationMonitor(BlockingQueue<Order> ordersReceivedQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Order> readyOrdersQueue,
+            SimulationMetrics metrics,
+            Supplier<List<Statistics>> statistics) {
+        this(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, null, metrics, statistics);
+    }
+
+    // With a ReadyOrderIndex its orders count as ready too (Matched strategy).
+    public SimulationMonitor(BlockingQueue<Order> ordersReceivedQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Order> readyOrdersQueue,
+            ReadyOrderIndex readyOrderIndex,
+            SimulationMetrics metrics,
+            Supplier<List<Statistics>> statistics) {
+        this.ordersReceivedQueue = ordersReceivedQueue;
+        this.waitingCourierQueue = waitingCourierQueue;
+        this.courierReadyQueue = courierReadyQueue;
+        this.readyOrdersQueue = readyOrdersQueue;
+        this.readyOrderIndex = readyOrderIndex;
+        this.metrics = metrics;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Registers the monitor with the platform MBean server. Only one
+     * simulation per strategy can be registered at a time, a second one
+     * runs without a monitor.
+     *
+     * @param strategy e.g. "FIFO" or "Matched".
+     * @return True if the monitor was registered.
+     */
+    public synchronized boolean register(String strategy) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName("css:type=Simulation,strategy=" + strategy);
+            server.registerMBean(this, name);
+            registeredName = name;
+            return true;
+        } catch (InstanceAlreadyExistsException e) {
+            LOG.warn("A " + strategy + " simulation is already being monitored, so this one isn't.");
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    public synchronized void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        registeredName = null;
+    }
+
+    public synchronized ObjectName getRegisteredName() {
+        return registeredName;
+    }
+
+    @Override
+    public int getOrdersReceivedQueueDepth() {
+        return ordersReceivedQueue.size();
+    }
+
+    @Override
+    public int getWaitingCourierQueueDepth() {
+        return waitingCourierQueue.size();
+    }
+
+    @Override
+    public int getCourierReadyQueueDepth() {
+        return courierReadyQueue.size();
+    }
+
+    @Override
+    public int getReadyOrdersQueueDepth() {
+        return readyOrdersQueue.size() + (readyOrderIndex != null ? readyOrderIndex.size() : 0);
+    }
+
+    @Override
+    public long getOrdersInPrep() {
+        return metrics.getOrdersInPrep();
+    }
+
+    @Override
+    public long getCouriersInTransit() {
+        return metrics.getCouriersInTransit();
+    }
+
+    @Override
+    public long getOrdersPickedUp() {
+        return metrics.getOrdersPickedUp();
+    }
+
+    @Override
+    public double getPickupsPerSecond() {
+        return metrics.getPickupsPerSecond();
+    }
+
+    @Override
+    public long getFoodWaitP50Millis() {
+        return getFoodWaitHistogram().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getFoodWaitP90Millis() {
+        return getFoodWaitHistogram().getValueAtPercentile(90);
+    }
+
+    @Override
+    public long getFoodWaitP99Millis() {
+        return getFoodWaitHistogram().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getFoodWaitP999Millis() {
+        return getFoodWaitHistogram().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getCourierWaitP50Millis() {
+        return getCourierWaitHistogram().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getCourierWaitP90Millis() {
+        return getCourierWaitHistogram().getValueAtPercentile(90);
+    }
+
+    @Override
+    public long getCourierWaitP99Millis() {
+        return getCourierWaitHistogram().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getCourierWaitP999Millis() {
+        return getCourierWaitHistogram().getValueAtPercentile(99.9);
+    }
+
+    // Merged from the snapshot of every Statistics.
+    public LatencyHistogram getFoodWaitHistogram() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (Statistics stats : statistics.get()) {
+            merged.merge(stats.getSnapshot().getFoodWaitHistogram());
+        }
+        return merged;
+    }
+
+    public LatencyHistogram getCourierWaitHistogram() {
+        LatencyHistogram merged = new LatencyHistogram();
+        for (Statistics stats : statistics.get()) {
+            merged.merge(stats.getSnapshot().getCourierWaitHistogram());
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,72 @@
+package css.Monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts values into fixed buckets for a Prometheus histogram. Each bucket
+ * is a LongAdder, so any number of threads can record at once without
+ * contending, and reading takes no lock.
+ *
+ * Unlike a LatencyHistogram it only knows which bucket a value fell in,
+ * which is all Prometheus needs to estimate percentiles across many
+ * scrapes and simulations.
+ */
+public class StripedHistogram {
+
+    // From 5 ms to a minute, in milliseconds
+    public static final long[] DEFAULT_BOUNDS_MILLIS = {
+        5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 15000, 30000, 60000
+    };
+
+    private final long[] bounds;
+    // One more than the bounds, for the values above them all
+    private final LongAdder[] counts;
+    private final LongAdder sum = new LongAdder();
+
+    public StripedHistogram() {
+        this(DEFAULT_BOUNDS_MILLIS);
+    }
+
+    // Each bucket holds the values up to and including its bound.
+    public StripedHistogram(long[] bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Bounds must be increasing: " + Arrays.toString(bounds));
+            }
+        }
+        this.bounds = bounds.clone();
+        this.counts = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(bounds, value);
+        counts[index >= 0 ? index : -index - 1].increment();
+        sum.add(value);
+    }
+
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * @return The number of values up to and including each bound, and
+     *         the count of every value last, as Prometheus reports them.
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,179 @@
+package css.Producers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import css.Model.Menu;
+import css.Model.Order;
+
+/**
+ * Converts an order file (json array or .ndjson) to the binary format read
+ * by BinaryOrderReader, so repeated runs over the same orders skip the
+ * json parsing.
+ *
+ *   java css.Producers.BinaryOrderConverter dispatch_orders.json dispatch_orders.bin
+ *
+ * The orders are streamed from the source. The menu dictionary comes before
+ * the records but is only complete at the end, so the records are written
+ * to a temporary file first and copied in after the dictionary. Creation
+ * times go to a second temporary file, which is only appended if at least
+ * one order has one.
+ */
+public class BinaryOrderConverter {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String NIL_UUID = "00000000-0000-0000-0000-000000000000";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: BinaryOrderConverter <orders.json|orders.ndjson> <orders" + BinaryOrderReader.FILE_EXTENSION + ">");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int count = convert(args[0], args[1]);
+        System.out.println("Converted " + count + " orders to " + args[1] + " in " + (System.currentTimeMillis() - start) + " ms.");
+    }
+
+    /**
+     * @return The number of orders written.
+     * @throws IllegalArgumentException If an order id isn't a UUID.
+     */
+    public static int convert(String sourcePath, String binaryPath) throws IOException {
+        Path target = Path.of(binaryPath).toAbsolutePath();
+        Path records = Files.createTempFile(target.getParent(), "orders", ".records");
+        Path timestamps = Files.createTempFile(target.getParent(), "orders", ".timestamps");
+        try {
+            // File menu entry for each Menu id, -1 until the food item is seen
+            int[] menuEntries = new int[0];
+            List<String> menu = new ArrayList<>();
+            int count = 0;
+            boolean hasCreationTimes = false;
+
+            Iterator<Order> orders = OrderFiles.open(sourcePath);
+            try (FileChannel out = FileChannel.open(records, StandardOpenOption.WRITE);
+                    FileChannel timesOut = FileChannel.open(timestamps, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                ByteBuffer times = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                while (orders.hasNext()) {
+                    Order order = orders.next();
+                    int foodItemId = order.getFoodItemId();
+                    if (foodItemId == Menu.NO_FOOD_ITEM) {
+                        throw new IllegalArgumentException("Order " + order.getId() + " has no food item");
+                    }
+                    if (foodItemId >= menuEntries.length) {
+                        int oldLength = menuEntries.length;
+                        menuEntries = Arrays.copyOf(menuEntries, Math.max(foodItemId + 1, oldLength * 2));
+                        Arrays.fill(menuEntries, oldLength, menuEntries.length, -1);
+                    }
+                    if (menuEntries[foodItemId] < 0) {
+                        menuEntries[foodItemId] = menu.size();
+                        menu.add(order.getFoodItem());
+                    }
+
+                    if (buffer.remaining() < BinaryOrderReader.RECORD_BYTES) {
+                        writeFully(out, buffer.flip());
+                        buffer.clear();
+                    }
+                    putId(buffer, order);
+                    buffer.putInt(menuEntries[foodItemId]);
+                    buffer.putInt(order.getPrepTime());
+
+                    if (!times.hasRemaining()) {
+                        writeFully(timesOut, times.flip());
+                        times.clear();
+                    }
+                    times.putLong(order.getCreatedAtMillis());
+                    hasCreationTimes |= order.hasCreatedAt();
+                    count++;
+                }
+                writeFully(out, buffer.flip());
+                writeFully(timesOut, times.flip());
+            } finally {
+                if (orders instanceof Closeable closeable) {
+                    closeable.close();
+                }
+            }
+
+            writeFile(target, records, hasCreationTimes ? timestamps : null, menu, count);
+            return count;
+        } finally {
+            Files.deleteIfExists(records);
+            Files.deleteIfExists(timestamps);
+        }
+    }
+
+    private static void putId(ByteBuffer buffer, Order order) {
+        if (order.hasUuidId()) {
+            buffer.putLong(order.getIdMostSigBits());
+            buffer.putLong(order.getIdLeastSigBits());
+        } else if (NIL_UUID.equals(order.getId())) {
+            buffer.putLong(0);
+            buffer.putLong(0);
+        } else {
+            throw new IllegalArgumentException("Order id " + order.getId() + " is not a UUID");
+        }
+    }
+
+    // timestamps is null when no order has a creation time.
+    private static void writeFile(Path target, Path records, Path timestamps, List<String> menu, int count)
+            throws IOException {
+        List<byte[]> names = new ArrayList<>(menu.size());
+        int menuBytes = 0;
+        for (String name : menu) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            menuBytes += Integer.BYTES + bytes.length;
+        }
+        // Records start 8-byte aligned
+        long recordsOffset = (BinaryOrderReader.HEADER_BYTES + menuBytes + 7) & ~7L;
+
+        ByteBuffer head = ByteBuffer.allocate((int) recordsOffset).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(BinaryOrderReader.MAGIC);
+        head.putInt(timestamps != null ? BinaryOrderReader.TIMESTAMPS_VERSION : BinaryOrderReader.VERSION);
+        head.putLong(count);
+        head.putLong(recordsOffset);
+        head.putInt(names.size());
+        for (byte[] name : names) {
+            head.putInt(name.length);
+            head.put(name);
+        }
+        head.position(head.limit());
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, head.flip());
+            // Records are 8-byte multiples, so the timestamps stay aligned
+            append(out, records);
+            if (timestamps != null) {
+                append(out, timestamps);
+            }
+        }
+    }
+
+    private static void append(FileChannel out, Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long copied = 0;
+            while (copied < size) {
+                copied += in.transferTo(copied, size - copied, out);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
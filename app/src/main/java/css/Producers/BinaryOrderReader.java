@@ -0,0 +1,234 @@
+package css.Producers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+import css.Interfaces.OrderSource;
+import css.Model.Menu;
+import css.Model.Order;
+import css.Model.OrderStore;
+
+/**
+ * Reads a binary order file written by BinaryOrderConverter. All numbers
+ * are little-endian.
+ *
+ *   offset 0   int   MAGIC
+ *   offset 4   int   VERSION
+ *   offset 8   long  number of orders
+ *   offset 16  long  offset of the first order record
+ *   offset 24  int   number of menu entries
+ *   offset 28        menu entries, each an int byte length and the UTF-8 name
+ *   then padding up to the first record, which is 8-byte aligned
+ *   records    RECORD_BYTES each: long idMostSigBits, long idLeastSigBits,
+ *              int menu entry, int prepTime
+ *   timestamps only in TIMESTAMPS_VERSION files: a long creation time in
+ *              epoch millis per order, Order.NO_TIMESTAMP if it has none
+ *
+ * Files without creation times are still written as VERSION, so they read
+ * the same as before. The timestamps are a separate column after the
+ * records rather than part of each record, so they cost nothing when
+ * absent.
+ *
+ * Menu entries are numbered by their position in the file and are mapped
+ * to Menu ids once, when the file is opened. The records are memory-mapped
+ * and read in place, so the only allocation per order is the Order itself
+ * when iterating, and none at all with loadInto().
+ */
+public class BinaryOrderReader implements OrderSource, Closeable {
+
+    public static final String FILE_EXTENSION = ".bin";
+    public static final int MAGIC = 0x4353534F; // "CSSO"
+    public static final int VERSION = 1;
+    public static final int TIMESTAMPS_VERSION = 2;
+    public static final int HEADER_BYTES = 28;
+    public static final int RECORD_BYTES = 24;
+
+    // The nil UUID is written as two zero longs, which Order reads as "no id"
+    private static final String NIL_UUID = "00000000-0000-0000-0000-000000000000";
+    // A single mapping can't be larger than Integer.MAX_VALUE bytes
+    private static final int RECORDS_PER_MAPPING = Integer.MAX_VALUE / RECORD_BYTES;
+    private static final int TIMESTAMPS_PER_MAPPING = Integer.MAX_VALUE / Long.BYTES;
+
+    private final String filePath;
+    private ByteBuffer[] mappings;
+    // null unless the file has creation times
+    private ByteBuffer[] timestampMappings;
+    private int[] menuIds;
+    private int size;
+    private int next;
+
+    /**
+     * Opens and maps the file. If it can't be read the reader has no orders.
+     *
+     * @throws IllegalArgumentException If the file isn't a binary order file
+     *         of a version this reader knows.
+     */
+    public BinaryOrderReader(String filePath) {
+        this.filePath = filePath;
+        this.mappings = new ByteBuffer[0];
+        this.menuIds = new int[0];
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            open(channel);
+        } catch (IOException e) {
+            System.out.println("File not found.");
+            e.printStackTrace();
+        }
+    }
+
+    public static boolean isBinaryFile(String filePath) {
+        return filePath.endsWith(FILE_EXTENSION);
+    }
+
+    private void open(FileChannel channel) throws IOException {
+        ByteBuffer header = read(channel, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a binary order file: " + filePath);
+        }
+        int version = header.getInt(4);
+        if (version != VERSION && version != TIMESTAMPS_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary order file version " + version + ": " + filePath);
+        }
+        long orderCount = header.getLong(8);
+        long recordsOffset = header.getLong(16);
+        int menuSize = header.getInt(24);
+        long timestampsOffset = recordsOffset + orderCount * RECORD_BYTES;
+        long end = version == TIMESTAMPS_VERSION ? timestampsOffset + orderCount * Long.BYTES : timestampsOffset;
+        if (orderCount > Integer.MAX_VALUE || end > channel.size()) {
+            throw new IllegalArgumentException("Corrupt binary order file: " + filePath);
+        }
+
+        ByteBuffer menu = read(channel, HEADER_BYTES, (int) (recordsOffset - HEADER_BYTES));
+        int[] ids = new int[menuSize];
+        for (int i = 0; i < menuSize; i++) {
+            byte[] name = new byte[menu.getInt()];
+            menu.get(name);
+            ids[i] = Menu.intern(new String(name, StandardCharsets.UTF_8));
+        }
+
+        int count = (int) orderCount;
+        this.menuIds = ids;
+        this.mappings = map(channel, recordsOffset, count, RECORDS_PER_MAPPING, RECORD_BYTES);
+        if (version == TIMESTAMPS_VERSION) {
+            this.timestampMappings = map(channel, timestampsOffset, count, TIMESTAMPS_PER_MAPPING, Long.BYTES);
+        }
+        this.size = count;
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, long position, int count, int perMapping, int bytes)
+            throws IOException {
+        ByteBuffer[] maps = new ByteBuffer[(count + perMapping - 1) / perMapping];
+        for (int i = 0; i < maps.length; i++) {
+            int entries = Math.min(perMapping, count - i * perMapping);
+            long offset = position + (long) i * perMapping * bytes;
+            maps[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) entries * bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return maps;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("Truncated binary order file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getIdMostSigBits(int index) {
+        return mappings[index / RECORDS_PER_MAPPING].getLong(offset(index));
+    }
+
+    public long getIdLeastSigBits(int index) {
+        return mappings[index / RECORDS_PER_MAPPING].getLong(offset(index) + 8);
+    }
+
+    public int getFoodItemId(int index) {
+        return menuIds[mappings[index / RECORDS_PER_MAPPING].getInt(offset(index) + 16)];
+    }
+
+    public int getPrepTime(int index) {
+        return mappings[index / RECORDS_PER_MAPPING].getInt(offset(index) + 20);
+    }
+
+    public boolean hasCreationTimes() {
+        return timestampMappings != null;
+    }
+
+    // Order.NO_TIMESTAMP if the file or the order has no creation time.
+    public long getCreatedAtMillis(int index) {
+        if (timestampMappings == null) {
+            return Order.NO_TIMESTAMP;
+        }
+        return timestampMappings[index / TIMESTAMPS_PER_MAPPING].getLong((index % TIMESTAMPS_PER_MAPPING) * Long.BYTES);
+    }
+
+    private static int offset(int index) {
+        return (index % RECORDS_PER_MAPPING) * RECORD_BYTES;
+    }
+
+    public Order toOrder(int index) {
+        long mostSigBits = getIdMostSigBits(index);
+        long leastSigBits = getIdLeastSigBits(index);
+        Order order = mostSigBits == 0 && leastSigBits == 0
+                ? new Order(NIL_UUID, Menu.nameOf(getFoodItemId(index)), getPrepTime(index))
+                : new Order(mostSigBits, leastSigBits, getFoodItemId(index), getPrepTime(index));
+        order.setCreatedAtMillis(getCreatedAtMillis(index));
+        return order;
+    }
+
+    /**
+     * Adds every order in the file to the store, in file order.
+     */
+    public void loadInto(OrderStore store) {
+        for (int i = 0; i < size; i++) {
+            int handle = store.add(getIdMostSigBits(i), getIdLeastSigBits(i), getFoodItemId(i), getPrepTime(i));
+            if (timestampMappings != null) {
+                store.setCreatedAtMillis(handle, getCreatedAtMillis(i));
+            }
+        }
+    }
+
+    @Override
+    public int remainingOrders() {
+        return size - next;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next < size;
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return toOrder(next++);
+    }
+
+    // A mapping stays valid until it's garbage collected, so closing only drops the references.
+    @Override
+    public void close() {
+        mappings = new ByteBuffer[0];
+        timestampMappings = null;
+        size = 0;
+        next = 0;
+    }
+}
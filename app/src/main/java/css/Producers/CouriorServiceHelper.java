@@ -1,9 +1,15 @@
 package css.Producers;
 
-import java.time.Instant;
 import java.util.concurrent.BlockingQueue;
 
+import css.Interfaces.Clock;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
 import css.Model.Courier;
+import css.Monitoring.SimulationMetrics;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
 
 /**
  * Responsible for courier's preparation in a separate thread, which is submitted 
@@ -12,26 +18,66 @@ import css.Model.Courier;
  */
 public class CouriorServiceHelper {
 
+    private static final EventLogger LOG = EventLogger.shared();
+
     private BlockingQueue<Courier> courierReadyQueue;
     private int sleepTime;
     private Courier courier;
+    private Clock clock;
+    private ExecutionMode executionMode;
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
 
     public CouriorServiceHelper(int sleepTime, Courier courier, BlockingQueue<Courier> courierReadyQueue) {
+        this(sleepTime, courier, courierReadyQueue, new SystemClock());
+    }
+
+    public CouriorServiceHelper(int sleepTime, Courier courier, BlockingQueue<Courier> courierReadyQueue, Clock clock) {
+        this(sleepTime, courier, courierReadyQueue, clock, ExecutionMode.PLATFORM);
+    }
+
+    public CouriorServiceHelper(int sleepTime, Courier courier, BlockingQueue<Courier> courierReadyQueue,
+            Clock clock, ExecutionMode executionMode) {
         this.sleepTime = sleepTime;
         this.courier = courier;
         this.courierReadyQueue = courierReadyQueue;
+        this.clock = clock;
+        this.executionMode = executionMode;
     }
 
     public void startCouriorThread() {
-        new Thread(() -> {
-            try {
-                Thread.sleep(sleepTime);
-                courier.setArrivalTime(Instant.now());
-                courierReadyQueue.add(courier);
-                System.out.println("Courier " + courier.getId() + " is ready to pickup an order.");
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+        executionMode.startThread(this::travel);
+    }
+
+    // Simulates the courier's trip on the calling thread. Used by executors
+    // that already give every courier its own thread.
+    public void travel() {
+        try {
+            clock.sleep(sleepTime);
+            arrive();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Marks the courier as arrived and ready to pick up an order.
+    public void arrive() {
+        courier.arrive(clock.now());
+        if (traceExporter != null) {
+            traceExporter.courierArrived(courier);
+        }
+        if (metrics != null) {
+            metrics.courierArrived(courier);
+        }
+        courierReadyQueue.add(courier);
+        LOG.log(LogEvent.COURIER_ARRIVED, courier);
+    }
+
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
     }
 }
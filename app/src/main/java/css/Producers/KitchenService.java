@@ -1,19 +1,40 @@
 package css.Producers;
 
+import java.util.SplittableRandom;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.random.RandomGenerator;
 
+import css.Distributions.UniformDistribution;
+import css.Interfaces.Clock;
+import css.Interfaces.Distribution;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
 import css.Model.Courier;
+import css.Model.LifecycleStage;
 import css.Model.Order;
+import css.Model.ReadyOrderIndex;
+import css.Monitoring.SimulationMetrics;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
+import css.Timing.TimingWheel;
 
 // Kitchen is responsible for preparing orders
 // dispatching courier
 // creating id for courier and order to match on (????)
 public class KitchenService implements Runnable {
 
+    private static final EventLogger LOG = EventLogger.shared();
+
+    // Couriers take between 3 and 15 seconds to arrive at the kitchen.
+    public static final int MIN_COURIER_ARRIVAL_MILLIS = 3000;
+    public static final int MAX_COURIER_ARRIVAL_MILLIS = 15000;
+    public static final Distribution DEFAULT_TRAVEL_TIME =
+            new UniformDistribution(MIN_COURIER_ARRIVAL_MILLIS, MAX_COURIER_ARRIVAL_MILLIS);
+
     private final BlockingQueue<Order> ordersReceivedQueue;
     private final BlockingQueue<Courier> waitingCourierQueue;
     private final BlockingQueue<Courier> courierReadyQueue;
@@ -22,6 +43,16 @@ public class KitchenService implements Runnable {
     private final AtomicBoolean allOrdersPrepared;
     private final AtomicBoolean notifyKitchenAllOrdersProcessed;
     private final ExecutorService executorService;
+    private final PreparationService preparationService;
+    private final TimingWheel timingWheel;
+    private final Clock clock;
+    private final ExecutionMode executionMode;
+    private final ReadyOrderIndex readyOrderIndex;
+    // Only the kitchen thread draws travel times, so the stream needs no locking
+    private Distribution travelTime = DEFAULT_TRAVEL_TIME;
+    private SplittableRandom random = new SplittableRandom();
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
 
     public KitchenService(BlockingQueue<Order> ordersReceivedQueue,
             BlockingQueue<Courier> waitingCourierQueue,
@@ -30,6 +61,46 @@ public class KitchenService implements Runnable {
             AtomicBoolean allOrdersReceived,
             AtomicBoolean allOrdersPrepared,
             AtomicBoolean notifyKitchenAllOrdersProcessed) {
+        this(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue,
+                allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock());
+    }
+
+    public KitchenService(BlockingQueue<Order> ordersReceivedQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Order> readyOrdersQueue,
+            AtomicBoolean allOrdersReceived,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock) {
+        this(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue,
+                allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock, ExecutionMode.PLATFORM);
+    }
+
+    public KitchenService(BlockingQueue<Order> ordersReceivedQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Order> readyOrdersQueue,
+            AtomicBoolean allOrdersReceived,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock,
+            ExecutionMode executionMode) {
+        this(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue,
+                allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock, executionMode, null);
+    }
+
+    // With a ReadyOrderIndex, prepared orders are indexed by id instead of queued (Matched strategy).
+    public KitchenService(BlockingQueue<Order> ordersReceivedQueue,
+            BlockingQueue<Courier> waitingCourierQueue,
+            BlockingQueue<Courier> courierReadyQueue,
+            BlockingQueue<Order> readyOrdersQueue,
+            AtomicBoolean allOrdersReceived,
+            AtomicBoolean allOrdersPrepared,
+            AtomicBoolean notifyKitchenAllOrdersProcessed,
+            Clock clock,
+            ExecutionMode executionMode,
+            ReadyOrderIndex readyOrderIndex) {
 
         this.ordersReceivedQueue = ordersReceivedQueue;
         this.waitingCourierQueue = waitingCourierQueue;
@@ -38,7 +109,16 @@ public class KitchenService implements Runnable {
         this.allOrdersReceived = allOrdersReceived;
         this.allOrdersPrepared = allOrdersPrepared;
         this.notifyKitchenAllOrdersProcessed = notifyKitchenAllOrdersProcessed;
-        this.executorService = Executors.newCachedThreadPool();
+        this.executorService = executionMode.newExecutor();
+        this.clock = clock;
+        this.executionMode = executionMode;
+        this.readyOrderIndex = readyOrderIndex;
+        // Platform threads are too expensive to give every order its own, so
+        // in that mode orders are prepared on the shared scheduler instead.
+        this.preparationService = executionMode == ExecutionMode.PLATFORM
+                ? new PreparationService(readyOrdersQueue, readyOrderIndex, clock)
+                : null;
+        this.timingWheel = executionMode == ExecutionMode.TIMING_WHEEL ? new TimingWheel() : null;
     }
 
     // Processes orders from the queue and prepares them for dispatch.
@@ -47,8 +127,8 @@ public class KitchenService implements Runnable {
             while (true) {
                 // Retrieves next available courier. take() blocks until there is one.
                 Courier avaliableCourier = waitingCourierQueue.take(); 
-                System.out.println(waitingCourierQueue.size());
-                Order nextOrder = ordersReceivedQueue.poll(1, TimeUnit.SECONDS);
+                LOG.log(LogEvent.COURIERS_WAITING, waitingCourierQueue.size());
+                Order nextOrder = ordersReceivedQueue.poll(clock.toRealMillis(1000), TimeUnit.MILLISECONDS);
                 if (nextOrder == null) {
                     if (closeKitchen()) {
                         // This signals to FIFO/Matched Consumer to also close thread.
@@ -59,32 +139,101 @@ public class KitchenService implements Runnable {
                     continue;
                 }
                 
+                nextOrder.markStage(LifecycleStage.TAKEN_BY_KITCHEN);
+                if (metrics != null) {
+                    metrics.orderTakenByKitchen(nextOrder);
+                }
                 // setting courier's orderId to order for it to match one in Match strategy
-                avaliableCourier.setOrderId(nextOrder.getId()); 
+                avaliableCourier.setOrderKey(nextOrder.getKey());
                 // Dispatch Courier thread to simulate it's delayed arrival time 
                 dispatchCourier(avaliableCourier);
-                // Create thread to simulate order's prepare time
+                // Schedule the order's completion after its prepare time
                 prepareOrder(nextOrder);
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
+            if (preparationService != null) {
+                preparationService.shutdown();
+            }
+            if (timingWheel != null) {
+                timingWheel.stop();
+            }
+            // Written straight away, after anything still queued
+            LOG.flush();
             System.out.println("KitchenService completed its work.");
         }
     }
 
     private void dispatchCourier(Courier courier) {
-        int sleepTime = (int) (Math.random() * (15000 - 3000)) + 3000;
-        System.out.println("Courier " + courier.getId() + " has been dispatched. It will arrive in " + (sleepTime / 1000) + " seconds.");
-        CouriorServiceHelper helper = new CouriorServiceHelper(sleepTime, courier, courierReadyQueue);
-        executorService.submit(helper::startCouriorThread);
+        int sleepTime = sampleTravelMillis(travelTime, random);
+        courier.dispatch(clock.now());
+        if (metrics != null) {
+            metrics.courierDispatched();
+        }
+        LOG.log(LogEvent.COURIER_DISPATCHED, courier, sleepTime);
+        CouriorServiceHelper helper = new CouriorServiceHelper(sleepTime, courier, courierReadyQueue, clock, executionMode);
+        helper.setTraceExporter(traceExporter);
+        helper.setMetrics(metrics);
+        if (timingWheel != null) {
+            timingWheel.schedule(helper::arrive, clock.toRealMillis(sleepTime));
+            return;
+        }
+        // The executor already gives the courier its own thread, so the trip runs on it directly.
+        executorService.submit(helper::travel);
     }
 
     private void prepareOrder(Order order) {
-        PreparingOrderHelper helper = new PreparingOrderHelper(readyOrdersQueue, order);
+        if (preparationService != null) {
+            preparationService.prepareOrder(order);
+            return;
+        }
+        PreparingOrderHelper helper = new PreparingOrderHelper(readyOrdersQueue, order, clock, executionMode, readyOrderIndex);
+        helper.setTraceExporter(traceExporter);
+        helper.setMetrics(metrics);
+        if (timingWheel != null) {
+            helper.logPreparing();
+            timingWheel.schedule(helper::completeOrder, clock.toRealMillis(order.getPrepTime() * 1000L));
+            return;
+        }
         helper.startPrepareOrderThread();
     }
 
+    /**
+     * Draws a courier travel time in whole milliseconds, never negative.
+     */
+    public static int sampleTravelMillis(Distribution travelTime, RandomGenerator random) {
+        double millis = travelTime.sample(random);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, millis));
+    }
+
+    // Writes every courier trip and order prep to the trace.
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+        if (preparationService != null) {
+            preparationService.setTraceExporter(traceExporter);
+        }
+    }
+
+    // Counts the orders taken and prepared, and the couriers dispatched and arrived.
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+        if (preparationService != null) {
+            preparationService.setMetrics(metrics);
+        }
+    }
+
+    // Uniform between 3 and 15 seconds unless set.
+    public void setTravelTimeDistribution(Distribution travelTime) {
+        this.travelTime = travelTime;
+    }
+
+    // A stream of its own for the kitchen, e.g. split from the simulation's
+    // seeded stream, so the same seed gives the same travel times.
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
     private boolean closeKitchen() {
         return allOrdersReceived.get() && notifyKitchenAllOrdersProcessed.get();
     }
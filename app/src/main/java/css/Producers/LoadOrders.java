@@ -47,6 +47,13 @@ public class LoadOrders {
                 int prepTime = jsonObject.get("prepTime").getAsInt();
 
                 Order newOrder = new Order(id, foodItem, prepTime);
+                // Optional, only in exports that record when the order was placed
+                JsonElement createdAt = jsonObject.get("createdAt");
+                if (createdAt != null && !createdAt.isJsonNull()) {
+                    newOrder.setCreatedAtMillis(createdAt.getAsJsonPrimitive().isNumber()
+                            ? createdAt.getAsLong()
+                            : OrderStreamReader.parseTimestamp(createdAt.getAsString()));
+                }
                 orders.add(newOrder);
             }
 
@@ -0,0 +1,448 @@
+package css.Producers;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.google.gson.stream.JsonReader;
+
+import css.Model.Menu;
+import css.Model.Order;
+
+/**
+ * Loads orders from a newline-delimited json file, one order object per
+ * line, as an alternative to LoadOrders for large replay files.
+ *
+ * The file is memory-mapped and split into chunks that end on line
+ * boundaries. The chunks are parsed in parallel on a fork-join pool and the
+ * results are joined back together in file order. Lines in the usual flat
+ * form are parsed straight from the mapped bytes; anything else, such as
+ * escaped strings or nested values, is handed to Gson.
+ */
+public class NdjsonOrderLoader {
+
+    public static final String FILE_EXTENSION = ".ndjson";
+
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_CHUNK_BYTES = 64 << 20;
+    // Chunks per worker, so a slow chunk doesn't leave the other workers idle
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private final String filePath;
+    private final int parallelism;
+    private final List<Order> orders;
+
+    public NdjsonOrderLoader(String filePath) {
+        this(filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    public NdjsonOrderLoader(String filePath, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.filePath = filePath;
+        this.parallelism = parallelism;
+        this.orders = loadOrdersFromNdjson();
+    }
+
+    public static boolean isNdjsonFile(String filePath) {
+        return filePath.endsWith(FILE_EXTENSION);
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    private List<Order> loadOrdersFromNdjson() {
+        List<Order> loadedOrders = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            List<Callable<List<Order>>> chunks = new ArrayList<>();
+            for (long[] bounds : splitOnLines(channel)) {
+                chunks.add(() -> parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, bounds[0], bounds[1] - bounds[0])));
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // invokeAll keeps the futures in chunk order, which is file order
+                for (Future<List<Order>> chunk : pool.invokeAll(chunks)) {
+                    loadedOrders.addAll(chunk.get());
+                }
+            } finally {
+                pool.shutdown();
+            }
+        } catch (IOException e) {
+            System.out.println("File not found.");
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return loadedOrders;
+    }
+
+    // Splits the file into [start, end) ranges, moving each split point
+    // forward to just past the next newline.
+    private List<long[]> splitOnLines(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunkBytes = Math.min(MAX_CHUNK_BYTES,
+                Math.max(MIN_CHUNK_BYTES, size / ((long) parallelism * CHUNKS_PER_WORKER)));
+
+        List<long[]> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkBytes);
+            while (end < size) {
+                probe.clear();
+                int read = channel.read(probe, end);
+                int newline = indexOfNewline(probe, read);
+                if (newline >= 0) {
+                    end += newline + 1;
+                    break;
+                }
+                end += read;
+            }
+            chunks.add(new long[] {start, Math.min(end, size)});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static int indexOfNewline(ByteBuffer buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Order> parseChunk(MappedByteBuffer chunk) throws IOException {
+        List<Order> chunkOrders = new ArrayList<>();
+        LineParser parser = new LineParser(chunk);
+        int limit = chunk.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && chunk.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            Order order = parser.parse(lineStart, lineEnd);
+            if (order == null && !parser.isBlank(lineStart, lineEnd)) {
+                order = parseWithGson(chunk, lineStart, lineEnd);
+            }
+            if (order != null) {
+                chunkOrders.add(order);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return chunkOrders;
+    }
+
+    private static Order parseWithGson(ByteBuffer chunk, int start, int end) throws IOException {
+        byte[] line = new byte[end - start];
+        chunk.get(start, line);
+        try (JsonReader jsonReader = new JsonReader(new StringReader(new String(line, StandardCharsets.UTF_8)))) {
+            return OrderStreamReader.readOrder(jsonReader);
+        }
+    }
+
+    /**
+     * Parses lines of the form {"id": "...", "name": "...", "prepTime": 4},
+     * optionally with a "createdAt" time, from the mapped bytes. Fields can
+     * come in any order and unknown
+     * string or int fields are skipped. parse() returns null for any line
+     * it doesn't handle so the caller can fall back to Gson.
+     */
+    private static final class LineParser {
+
+        private static final int NOT_A_NAME = -1;
+        private static final int OTHER = 0;
+        private static final int ID = 1;
+        private static final int NAME = 2;
+        private static final int PREP_TIME = 3;
+        private static final int CREATED_AT = 4;
+        private static final byte[][] FIELD_NAMES = {
+            null, "id".getBytes(StandardCharsets.US_ASCII), "name".getBytes(StandardCharsets.US_ASCII),
+            "prepTime".getBytes(StandardCharsets.US_ASCII), "createdAt".getBytes(StandardCharsets.US_ASCII)
+        };
+
+        // Enough for any real menu; names past this are interned through Menu every time
+        private static final int MAX_KNOWN_FOOD_ITEMS = 64;
+
+        private final ByteBuffer buffer;
+        private final byte[][] foodItemNames = new byte[MAX_KNOWN_FOOD_ITEMS][];
+        private final int[] foodItemIds = new int[MAX_KNOWN_FOOD_ITEMS];
+        private int knownFoodItems;
+        private int pos;
+        private int end;
+        private long idMostSigBits;
+        private long idLeastSigBits;
+
+        LineParser(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean isBlank(int start, int end) {
+            this.pos = start;
+            this.end = end;
+            skipWhitespace();
+            return pos == end;
+        }
+
+        Order parse(int start, int end) {
+            this.pos = start;
+            this.end = end;
+            String idText = null;
+            boolean uuidId = false;
+            int foodItemId = Menu.NO_FOOD_ITEM;
+            int prepTime = 0;
+            long createdAt = Order.NO_TIMESTAMP;
+
+            if (!consume('{')) {
+                return null;
+            }
+            if (consume('}')) {
+                return trailingWhitespaceOnly() ? new Order(null, null, 0) : null;
+            }
+            do {
+                int field = readFieldName();
+                if (field == NOT_A_NAME || !consume(':')) {
+                    return null;
+                }
+                skipWhitespace();
+                if (pos == end) {
+                    return null;
+                }
+                if (buffer.get(pos) == '"') {
+                    int valueStart = readString();
+                    if (valueStart < 0 || field == PREP_TIME) {
+                        return null;
+                    }
+                    // The closing quote is just before pos
+                    int valueLength = pos - 1 - valueStart;
+                    if (field == ID) {
+                        uuidId = readUuid(valueStart, valueLength);
+                        idText = uuidId ? null : decode(valueStart, valueLength);
+                    } else if (field == NAME) {
+                        foodItemId = internFoodItem(valueStart, valueLength);
+                    } else if (field == CREATED_AT) {
+                        createdAt = OrderStreamReader.parseTimestamp(decode(valueStart, valueLength));
+                    }
+                } else {
+                    long value = readLong();
+                    if (value == Long.MIN_VALUE || field == ID || field == NAME) {
+                        return null;
+                    }
+                    if (field == PREP_TIME) {
+                        // Gson reports a prep time that doesn't fit an int
+                        if (value != (int) value) {
+                            return null;
+                        }
+                        prepTime = (int) value;
+                    } else if (field == CREATED_AT) {
+                        createdAt = value;
+                    }
+                }
+            } while (consume(','));
+
+            if (!consume('}') || !trailingWhitespaceOnly()) {
+                return null;
+            }
+            Order order = uuidId
+                    ? new Order(idMostSigBits, idLeastSigBits, foodItemId, prepTime)
+                    : new Order(idText, Menu.nameOf(foodItemId), prepTime);
+            order.setCreatedAtMillis(createdAt);
+            return order;
+        }
+
+        // Parses a canonical lowercase UUID straight into idMostSigBits and
+        // idLeastSigBits. Any other id, including the nil UUID, is left for
+        // Order to keep as text.
+        private boolean readUuid(int start, int length) {
+            if (length != 36) {
+                return false;
+            }
+            long mostSigBits = 0;
+            long leastSigBits = 0;
+            for (int i = 0; i < 36; i++) {
+                byte b = buffer.get(start + i);
+                if (i == 8 || i == 13 || i == 18 || i == 23) {
+                    if (b != '-') {
+                        return false;
+                    }
+                    continue;
+                }
+                int digit;
+                if (b >= '0' && b <= '9') {
+                    digit = b - '0';
+                } else if (b >= 'a' && b <= 'f') {
+                    digit = b - 'a' + 10;
+                } else {
+                    return false;
+                }
+                if (i < 18) {
+                    mostSigBits = mostSigBits << 4 | digit;
+                } else {
+                    leastSigBits = leastSigBits << 4 | digit;
+                }
+            }
+            if (mostSigBits == 0 && leastSigBits == 0) {
+                return false;
+            }
+            idMostSigBits = mostSigBits;
+            idLeastSigBits = leastSigBits;
+            return true;
+        }
+
+        // Looks the name up among the ones this parser has already seen,
+        // so a repeated name costs a byte comparison instead of a String.
+        private int internFoodItem(int start, int length) {
+            for (int i = 0; i < knownFoodItems; i++) {
+                if (matches(foodItemNames[i], start, length)) {
+                    return foodItemIds[i];
+                }
+            }
+            int id = Menu.intern(decode(start, length));
+            if (knownFoodItems < foodItemNames.length) {
+                byte[] name = new byte[length];
+                buffer.get(start, name);
+                foodItemNames[knownFoodItems] = name;
+                foodItemIds[knownFoodItems++] = id;
+            }
+            return id;
+        }
+
+        private String decode(int start, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // Matches the field name against the known fields in place, so no
+        // String is made for it. Returns NOT_A_NAME if it isn't a plain string.
+        private int readFieldName() {
+            if (!consume('"')) {
+                return NOT_A_NAME;
+            }
+            int start = pos;
+            while (pos < end && buffer.get(pos) != '"') {
+                if (buffer.get(pos) == '\\') {
+                    return NOT_A_NAME;
+                }
+                pos++;
+            }
+            if (pos == end) {
+                return NOT_A_NAME;
+            }
+            int length = pos - start;
+            pos++;
+            for (int field = ID; field <= CREATED_AT; field++) {
+                if (matches(FIELD_NAMES[field], start, length)) {
+                    return field;
+                }
+            }
+            return OTHER;
+        }
+
+        private boolean matches(byte[] name, int start, int length) {
+            if (name.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(start + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Skips a string without escapes and returns where its content
+        // starts, or -1. pos ends up just past the closing quote.
+        private int readString() {
+            if (!consume('"')) {
+                return -1;
+            }
+            int start = pos;
+            while (pos < end) {
+                byte b = buffer.get(pos++);
+                if (b == '"') {
+                    return start;
+                }
+                if (b == '\\') {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        // An integer of up to 18 digits, enough for epoch millis, written
+        // without a fraction or exponent, or Long.MIN_VALUE.
+        private long readLong() {
+            boolean negative = pos < end && buffer.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            int start = pos;
+            long value = 0;
+            while (pos < end && buffer.get(pos) >= '0' && buffer.get(pos) <= '9') {
+                value = value * 10 + (buffer.get(pos) - '0');
+                pos++;
+            }
+            int digits = pos - start;
+            if (digits == 0 || digits > 18) {
+                return Long.MIN_VALUE;
+            }
+            if (pos < end) {
+                byte next = buffer.get(pos);
+                if (next == '.' || next == 'e' || next == 'E') {
+                    return Long.MIN_VALUE;
+                }
+            }
+            return negative ? -value : value;
+        }
+
+        private boolean consume(char expected) {
+            skipWhitespace();
+            if (pos < end && buffer.get(pos) == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean trailingWhitespaceOnly() {
+            skipWhitespace();
+            return pos == end;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                byte b = buffer.get(pos);
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                    return;
+                }
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package css.Producers;
+
+import java.util.Iterator;
+
+import css.Model.Order;
+
+/**
+ * Picks the reader for an order file from its extension: BinaryOrderReader
+ * for .bin files, NdjsonOrderLoader for .ndjson files and the streaming
+ * OrderStreamReader for json arrays.
+ */
+public final class OrderFiles {
+
+    private OrderFiles() {
+    }
+
+    /**
+     * @return The file's orders in file order. Close the iterator if it is
+     *         Closeable; the Waiter does this when it's done.
+     */
+    public static Iterator<Order> open(String filePath) {
+        if (BinaryOrderReader.isBinaryFile(filePath)) {
+            return new BinaryOrderReader(filePath);
+        }
+        if (NdjsonOrderLoader.isNdjsonFile(filePath)) {
+            return new NdjsonOrderLoader(filePath).getOrders().iterator();
+        }
+        return new OrderStreamReader(filePath);
+    }
+}
@@ -0,0 +1,154 @@
+package css.Producers;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.google.gson.stream.JsonReader;
+
+import css.Model.Order;
+
+/**
+ * Reads orders one at a time from a json array of orders, the same format
+ * LoadOrders reads. Only the current order is held in memory, so the file
+ * can be any size, and the first order is available as soon as it has been
+ * read instead of after the whole file is parsed.
+ *
+ * An order may also have a "createdAt" field with the time it was placed,
+ * either as epoch milliseconds or as an ISO-8601 instant like
+ * "2024-05-17T18:30:00.250Z". It is what TraceReplayArrivals replays.
+ */
+public class OrderStreamReader implements Iterator<Order>, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String filePath;
+    private JsonReader jsonReader;
+    private int ordersRead;
+
+    /**
+     * Opens the file. If it can't be opened the reader has no orders.
+     */
+    public OrderStreamReader(String filePath) {
+        this.filePath = filePath;
+        try {
+            open(new BufferedReader(new FileReader(filePath), BUFFER_SIZE));
+        } catch (IOException e) {
+            System.out.println("File not found.");
+            e.printStackTrace();
+            jsonReader = null;
+        }
+    }
+
+    public OrderStreamReader(Reader reader) {
+        this.filePath = null;
+        try {
+            open(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open(Reader reader) throws IOException {
+        jsonReader = new JsonReader(reader);
+        jsonReader.beginArray();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (jsonReader == null) {
+            return false;
+        }
+        try {
+            return jsonReader.hasNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return readOrder();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Order readOrder() throws IOException {
+        Order order = readOrder(jsonReader);
+        ordersRead++;
+        return order;
+    }
+
+    // Reads one order object. Fields can come in any order and unknown ones are skipped.
+    static Order readOrder(JsonReader jsonReader) throws IOException {
+        String id = null;
+        String foodItem = null;
+        int prepTime = 0;
+        long createdAt = Order.NO_TIMESTAMP;
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            switch (jsonReader.nextName()) {
+                case "id" -> id = jsonReader.nextString();
+                case "name" -> foodItem = jsonReader.nextString();
+                case "prepTime" -> prepTime = jsonReader.nextInt();
+                case "createdAt" -> createdAt = readTimestamp(jsonReader);
+                default -> jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        Order order = new Order(id, foodItem, prepTime);
+        order.setCreatedAtMillis(createdAt);
+        return order;
+    }
+
+    private static long readTimestamp(JsonReader jsonReader) throws IOException {
+        return switch (jsonReader.peek()) {
+            case NUMBER -> jsonReader.nextLong();
+            case NULL -> {
+                jsonReader.nextNull();
+                yield Order.NO_TIMESTAMP;
+            }
+            default -> parseTimestamp(jsonReader.nextString());
+        };
+    }
+
+    /**
+     * @return The epoch milliseconds of an ISO-8601 instant, or of a
+     *         string of digits taken as epoch milliseconds.
+     * @throws java.time.format.DateTimeParseException If it is neither.
+     */
+    static long parseTimestamp(String text) {
+        if (!text.isEmpty() && text.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(text);
+        }
+        return Instant.parse(text).toEpochMilli();
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public int getOrdersRead() {
+        return ordersRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (jsonReader != null) {
+            jsonReader.close();
+            jsonReader = null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package css.Producers;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import css.Interfaces.Clock;
+import css.Logging.ChromeTraceExporter;
+import css.Model.Order;
+import css.Model.ReadyOrderIndex;
+import css.Monitoring.SimulationMetrics;
+import css.Timing.ExecutionMode;
+
+/**
+ * Simulates orders being prepared using one shared scheduler instead of a
+ * sleeping thread per order. Each order is scheduled to complete after its
+ * prep time, and the completion callback marks it ready and adds it to the
+ * readyOrdersQueue. The number of threads stays the same no matter how many
+ * orders are being prepared at once. With a ReadyOrderIndex the ready
+ * orders go into the index instead of the queue.
+ */
+public class PreparationService {
+
+    private static final int DEFAULT_THREADS = 1;
+
+    private final BlockingQueue<Order> readyOrdersQueue;
+    private final ReadyOrderIndex readyOrderIndex;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
+
+    public PreparationService(BlockingQueue<Order> readyOrdersQueue, Clock clock) {
+        this(readyOrdersQueue, null, clock);
+    }
+
+    public PreparationService(BlockingQueue<Order> readyOrdersQueue, ReadyOrderIndex readyOrderIndex, Clock clock) {
+        this(readyOrdersQueue, readyOrderIndex, clock, DEFAULT_THREADS);
+    }
+
+    public PreparationService(BlockingQueue<Order> readyOrdersQueue, Clock clock, int threads) {
+        this(readyOrdersQueue, null, clock, threads);
+    }
+
+    public PreparationService(BlockingQueue<Order> readyOrdersQueue, ReadyOrderIndex readyOrderIndex, Clock clock, int threads) {
+        this.readyOrdersQueue = readyOrdersQueue;
+        this.readyOrderIndex = readyOrderIndex;
+        this.clock = clock;
+        this.scheduler = Executors.newScheduledThreadPool(threads, preparationThreadFactory());
+    }
+
+    /**
+     * Starts preparing the order. The order is completed by a callback on
+     * the scheduler once its prep time has passed.
+     *
+     * @param order The order to prepare.
+     * @return A future that can be used to cancel the preparation.
+     */
+    public ScheduledFuture<?> prepareOrder(Order order) {
+        PreparingOrderHelper helper = new PreparingOrderHelper(readyOrdersQueue, order, clock, ExecutionMode.PLATFORM, readyOrderIndex);
+        helper.setTraceExporter(traceExporter);
+        helper.setMetrics(metrics);
+        helper.logPreparing();
+        long prepTime = clock.toRealMillis(order.getPrepTime() * 1000L);
+        return scheduler.schedule(helper::completeOrder, prepTime, TimeUnit.MILLISECONDS);
+    }
+
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Stops accepting new orders. Orders already being prepared still complete.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static ThreadFactory preparationThreadFactory() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "order-preparation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
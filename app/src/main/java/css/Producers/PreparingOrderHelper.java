@@ -1,41 +1,102 @@
 package css.Producers;
 
-import java.time.Instant;
 import java.util.concurrent.BlockingQueue;
 
+import css.Interfaces.Clock;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
+import css.Model.LifecycleStage;
 import css.Model.Order;
+import css.Model.ReadyOrderIndex;
+import css.Monitoring.SimulationMetrics;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
 
 /**
  * Responsible for creating threads to simulate the
  * orders being prepared. Once prepared it's added to 
  * readyOrderQueue and finishedTime and isReady is set.
+ * When a ReadyOrderIndex is given the order is added to it
+ * instead, so the Matched strategy can look it up by id.
  */
 public class PreparingOrderHelper {
 
+    private static final EventLogger LOG = EventLogger.shared();
+
     private final BlockingQueue<Order> readyOrdersQueue;
     private final Order order;
+    private final Clock clock;
+    private final ExecutionMode executionMode;
+    private final ReadyOrderIndex readyOrderIndex;
+    // The helper is created when the prep starts
+    private final long startNanos = System.nanoTime();
+    private ChromeTraceExporter traceExporter;
+    private SimulationMetrics metrics;
 
     public PreparingOrderHelper(BlockingQueue<Order> readyOrdersQueue, Order order) {
+        this(readyOrdersQueue, order, new SystemClock());
+    }
+
+    public PreparingOrderHelper(BlockingQueue<Order> readyOrdersQueue, Order order, Clock clock) {
+        this(readyOrdersQueue, order, clock, ExecutionMode.PLATFORM);
+    }
+
+    public PreparingOrderHelper(BlockingQueue<Order> readyOrdersQueue, Order order, Clock clock, ExecutionMode executionMode) {
+        this(readyOrdersQueue, order, clock, executionMode, null);
+    }
+
+    public PreparingOrderHelper(BlockingQueue<Order> readyOrdersQueue, Order order, Clock clock, ExecutionMode executionMode,
+            ReadyOrderIndex readyOrderIndex) {
         this.readyOrdersQueue = readyOrdersQueue;
         this.order = order;
+        this.clock = clock;
+        this.executionMode = executionMode;
+        this.readyOrderIndex = readyOrderIndex;
     }
 
     public void startPrepareOrderThread() {
-        new Thread(() -> {
+        executionMode.startThread(() -> {
             try {
-                System.out.println("Order " + order.getId() + " is getting prepared. It will take " + order.getPrepTime() + " seconds");
-                Thread.sleep(order.getPrepTime() * 1000);
-                synchronized (order) { // Synchronize access to the order object
-                    order.setFinishedTime(Instant.now());
-                    order.setReady(true);
-                }
-                readyOrdersQueue.add(order);
-                System.out.println("Order " + order.getId() + " finished at " + order.getFinishedTime().toString());
-                System.out.println("Order " + order.getId() + " is ready for pickup.");
+                logPreparing();
+                clock.sleep(order.getPrepTime() * 1000L);
+                completeOrder();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
-        }).start();
+        });
+    }
+
+    public void logPreparing() {
+        LOG.log(LogEvent.ORDER_PREPARING, order, order.getPrepTime());
+    }
+
+    // Marks the order as finished and hands it to the consumers.
+    public void completeOrder() {
+        // setReady publishes the finished time to any thread that sees the order as ready
+        order.markStage(LifecycleStage.PREP_DONE);
+        order.setFinishedTime(clock.now());
+        if (traceExporter != null) {
+            traceExporter.prepFinished(order, startNanos);
+        }
+        if (metrics != null) {
+            metrics.orderPrepared(order);
+        }
+        order.setReady(true);
+        if (readyOrderIndex != null) {
+            readyOrderIndex.add(order);
+        } else {
+            readyOrdersQueue.add(order);
+        }
+        LOG.log(LogEvent.ORDER_READY, order, order.getFinishedTimeMillis());
+    }
+
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
     }
 
 }
@@ -0,0 +1,138 @@
+package css.Producers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import css.Distributions.UniformDistribution;
+import css.Interfaces.Distribution;
+import css.Interfaces.OrderSource;
+import css.Model.Menu;
+import css.Model.Order;
+
+/**
+ * Generates orders from a seed instead of reading them from a file, for
+ * load tests with any number of orders. Each order is made when next() is
+ * called, so a run over 10^8 orders holds no more of them in memory than
+ * one over 10.
+ *
+ * The food item is drawn from a weighted menu mix and the prep time, in
+ * whole seconds, from the item's own distribution or the shared one. Ids
+ * are random version 4 UUIDs. The same seed and settings always give the
+ * same orders. Without any menu items added the mix is DEFAULT_MENU with
+ * equal weights.
+ *
+ *   SyntheticOrderSource orders = new SyntheticOrderSource(100_000_000, 42L);
+ *   orders.addMenuItem("Acai Bowl", 3);
+ *   orders.addMenuItem("Beef Stew", 1, new UniformDistribution(10, 20));
+ */
+public class SyntheticOrderSource implements OrderSource {
+
+    public static final List<String> DEFAULT_MENU = List.of("Banana Split", "McFlury", "Acai Bowl", "Yogurt", "Kebab");
+    // The prep times in the sample orders run from 3 to 15 seconds
+    public static final Distribution DEFAULT_PREP_TIME = UniformDistribution.ofIntegers(3, 15);
+
+    private final int count;
+    private final SplittableRandom random;
+    private final List<String> menuNames = new ArrayList<>();
+    private final List<Distribution> menuPrepTimes = new ArrayList<>();
+    private double[] cumulativeWeights = new double[0];
+    private Distribution prepTime = DEFAULT_PREP_TIME;
+    private int[] foodItemIds;
+    private Distribution[] prepTimes;
+    private int produced;
+
+    public SyntheticOrderSource(int count, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Order count must not be negative: " + count);
+        }
+        this.count = count;
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Prep times come from the shared distribution.
+    public void addMenuItem(String name, double weight) {
+        addMenuItem(name, weight, null);
+    }
+
+    /**
+     * Adds a food item that is picked in proportion to its weight. Items
+     * must be added before the first order is generated.
+     */
+    public void addMenuItem(String name, double weight, Distribution prepTime) {
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be positive: " + weight);
+        }
+        if (foodItemIds != null) {
+            throw new IllegalStateException("Orders are already being generated");
+        }
+        double total = cumulativeWeights.length == 0 ? 0 : cumulativeWeights[cumulativeWeights.length - 1];
+        cumulativeWeights = Arrays.copyOf(cumulativeWeights, cumulativeWeights.length + 1);
+        cumulativeWeights[cumulativeWeights.length - 1] = total + weight;
+        menuNames.add(name);
+        menuPrepTimes.add(prepTime);
+    }
+
+    // The distribution for items added without one of their own.
+    public void setPrepTimeDistribution(Distribution prepTime) {
+        this.prepTime = prepTime;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return produced < count;
+    }
+
+    @Override
+    public Order next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (foodItemIds == null) {
+            prepareMenu();
+        }
+        produced++;
+        int item = pickMenuItem();
+        int prepSeconds = (int) Math.max(0, Math.round(prepTimes[item].sample(random)));
+        // Version 4, variant 2 like UUID.randomUUID()
+        long mostSigBits = random.nextLong() & ~0xF000L | 0x4000L;
+        long leastSigBits = random.nextLong() & ~(0xCL << 60) | (0x8L << 60);
+        return new Order(mostSigBits, leastSigBits, foodItemIds[item], prepSeconds);
+    }
+
+    // Interns the names once so generating an order needs no lookups.
+    private void prepareMenu() {
+        if (menuNames.isEmpty()) {
+            for (String name : DEFAULT_MENU) {
+                addMenuItem(name, 1);
+            }
+        }
+        foodItemIds = new int[menuNames.size()];
+        prepTimes = new Distribution[menuNames.size()];
+        for (int i = 0; i < foodItemIds.length; i++) {
+            foodItemIds[i] = Menu.intern(menuNames.get(i));
+            prepTimes[i] = menuPrepTimes.get(i) != null ? menuPrepTimes.get(i) : prepTime;
+        }
+    }
+
+    private int pickMenuItem() {
+        if (cumulativeWeights.length == 1) {
+            return 0;
+        }
+        double point = random.nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, point);
+        // An exact hit on a boundary belongs to the next item
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    @Override
+    public int remainingOrders() {
+        return count - produced;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -1,67 +1,219 @@
 package css.Producers;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import css.Interfaces.ArrivalProcess;
+import css.Interfaces.Clock;
+import css.Interfaces.OrderSource;
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
+import css.Model.LifecycleTracer;
 import css.Model.Order;
+import css.Monitoring.SimulationMetrics;
+import css.Timing.SystemClock;
 
 /**
  * Represents a waitor receiving orders and giving it to 
  * a kitchen to prepare. 
+ * Orders come from a list or from an iterator over a file or generator,
+ * e.g. from OrderFiles.open() or a SyntheticOrderSource. An iterator is
+ * read as the orders are handed out and closed when the waiter is done.
+ * Unless it is an OrderSource that knows its size, the total isn't known
+ * until the last order has been read and getTotalOrders() returns
+ * UNKNOWN_TOTAL until then.
  */
 public class Waiter implements Runnable { // (Producer)
 
+    private static final EventLogger LOG = EventLogger.shared();
+
+    // The waiter hands the kitchen 2 orders every second.
+    public static final int ORDERS_PER_BATCH = 2;
+    public static final long BATCH_INTERVAL_MILLIS = 1000;
+    public static final int UNKNOWN_TOTAL = Integer.MAX_VALUE;
+
     private final BlockingQueue<Order> ordersReceivedQueue;
     private LoadOrders loader;
-    private final List<Order> orders;
+    private final Iterator<Order> orders;
+    private volatile int totalOrders;
+    private int receivedOrders;
+    private ArrivalProcess arrivalProcess;
+    private LifecycleTracer lifecycleTracer;
+    private SimulationMetrics metrics;
     private final AtomicBoolean allOrdersReceived;
+    private final Clock clock;
 
     public Waiter(String filePath,
             BlockingQueue<Order> ordersReceivedQueue,
             AtomicBoolean allOrdersReceived) {
+        this(filePath, ordersReceivedQueue, allOrdersReceived, new SystemClock());
+    }
+
+    public Waiter(String filePath,
+            BlockingQueue<Order> ordersReceivedQueue,
+            AtomicBoolean allOrdersReceived,
+            Clock clock) {
 
         this.ordersReceivedQueue = ordersReceivedQueue;
         loader = new LoadOrders(filePath);
-        orders = loader.getOrders();
+        orders = loader.getOrders().iterator();
+        totalOrders = loader.getOrders().size();
         this.allOrdersReceived = allOrdersReceived;
+        this.clock = clock;
     }
 
     public Waiter(List<Order> orders,
             BlockingQueue<Order> ordersReceivedQueue,
             AtomicBoolean allOrdersReceived) {
+        this(orders, ordersReceivedQueue, allOrdersReceived, new SystemClock());
+    }
+
+    public Waiter(List<Order> orders,
+            BlockingQueue<Order> ordersReceivedQueue,
+            AtomicBoolean allOrdersReceived,
+            Clock clock) {
+
+        this.ordersReceivedQueue = ordersReceivedQueue;
+        this.orders = orders.iterator();
+        this.totalOrders = orders.size();
+        this.allOrdersReceived = allOrdersReceived;
+        this.clock = clock;
+    }
+
+    public Waiter(Iterator<Order> orderStream,
+            BlockingQueue<Order> ordersReceivedQueue,
+            AtomicBoolean allOrdersReceived) {
+        this(orderStream, ordersReceivedQueue, allOrdersReceived, new SystemClock());
+    }
+
+    public Waiter(Iterator<Order> orderStream,
+            BlockingQueue<Order> ordersReceivedQueue,
+            AtomicBoolean allOrdersReceived,
+            Clock clock) {
 
         this.ordersReceivedQueue = ordersReceivedQueue;
-        this.orders = orders;
+        this.orders = orderStream;
+        this.totalOrders = orderStream instanceof OrderSource source && source.remainingOrders() != OrderSource.UNKNOWN_SIZE
+                ? source.remainingOrders()
+                : UNKNOWN_TOTAL;
         this.allOrdersReceived = allOrdersReceived;
+        this.clock = clock;
     }
 
     /**
      * Responsible for reading the orders 2 every second and placing it in
-     * allOrderQueue to get prepared.
+     * allOrderQueue to get prepared. With an arrival process each order is
+     * placed at the time the process gives instead.
      */
     public void readOrders() {
         try {
-            System.out.println("Waitor is reading orders...");
-            int orderCount = 0;
-            while (orderCount < orders.size()) {
-                for (int i = 0; i < 2 && orderCount < orders.size(); i++) {
-                    Order order = orders.get(orderCount++);
-                    System.out.println("Order " + order.getId() + " has been added to ordersReceivedQueue.");
-                    ordersReceivedQueue.put(order);
-                }
-                Thread.sleep(1000); // 2 orders every 1 sec
+            LOG.info("Waitor is reading orders...");
+            if (arrivalProcess == null) {
+                readInBatches();
+            } else {
+                readOnArrivals();
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // e.g. an UncheckedIOException from a truncated or malformed file.
+            // The orders read before it still go out.
+            LOG.warn("Could not read the orders after " + receivedOrders + " of them: " + e);
+            e.printStackTrace();
         } finally {
+            // However the waiter stopped, the orders handed out are all there
+            // will be, and the consumers must know it before they see allOrdersReceived.
+            totalOrders = receivedOrders;
+            closeOrders();
             allOrdersReceived.set(true);
-            System.out.println("Waitor has completed its work. All orders have been requested.");
+            LOG.info("Waitor has completed its work. All orders have been requested.");
+        }
+    }
+
+    private void readInBatches() throws InterruptedException {
+        while (orders.hasNext()) {
+            for (int i = 0; i < ORDERS_PER_BATCH && orders.hasNext(); i++) {
+                handOut(orders.next());
+            }
+            clock.sleep(BATCH_INTERVAL_MILLIS); // 2 orders every 1 sec
         }
     }
 
+    private void readOnArrivals() throws InterruptedException {
+        long start = clock.now().toEpochMilli();
+        while (orders.hasNext()) {
+            Order order = orders.next();
+            // Sleeping until the arrival time rather than for the gap keeps
+            // the time spent handing out orders from adding up.
+            long wait = arrivalProcess.nextArrivalMillis(order.getCreatedAtMillis())
+                    - (clock.now().toEpochMilli() - start);
+            if (wait > 0) {
+                clock.sleep(wait);
+            }
+            handOut(order);
+        }
+    }
+
+    private void handOut(Order order) throws InterruptedException {
+        // Publish the total before the last order goes out, so
+        // the consumers know it by the time they pick it up.
+        boolean last = !orders.hasNext();
+        receivedOrders++;
+        if (last) {
+            totalOrders = receivedOrders;
+        }
+        LOG.log(LogEvent.ORDER_RECEIVED, order);
+        if (lifecycleTracer != null) {
+            lifecycleTracer.orderReceived(order);
+        }
+        if (metrics != null) {
+            metrics.orderReceived(order);
+        }
+        try {
+            ordersReceivedQueue.put(order);
+        } catch (InterruptedException e) {
+            // It never went out
+            receivedOrders--;
+            throw e;
+        }
+    }
+
+    // Replaces the 2-orders-per-second cadence, e.g. with PoissonArrivals,
+    // or with TraceReplayArrivals to follow the orders' own creation times.
+    public void setArrivalProcess(ArrivalProcess arrivalProcess) {
+        this.arrivalProcess = arrivalProcess;
+    }
+
+    // Starts a lifecycle trace for every order handed out.
+    public void setLifecycleTracer(LifecycleTracer lifecycleTracer) {
+        this.lifecycleTracer = lifecycleTracer;
+    }
+
+    // Counts every order handed out.
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return The number of orders, or UNKNOWN_TOTAL while a streamed file
+     *         still has orders left to read.
+     */
     public int getTotalOrders() {
-        return orders.size();
+        return totalOrders;
+    }
+
+    private void closeOrders() {
+        if (orders instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
     }
 
     public LoadOrders getLoadOrders() {
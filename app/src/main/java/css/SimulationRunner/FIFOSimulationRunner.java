@@ -1,20 +1,41 @@
 package css.SimulationRunner;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 
 import css.Consumers.FIFOOrderConsumer;
+import css.Consumers.ParallelFIFODispatcher;
+import css.Consumers.ShardedBlockingQueue;
+import css.Interfaces.ArrivalProcess;
+import css.Interfaces.Clock;
+import css.Interfaces.Distribution;
+import css.Interfaces.OrderProcessor;
 import css.Interfaces.SimulationRunner;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
 import css.Model.Courier;
+import css.Model.LifecycleTracer;
 import css.Model.Order;
+import css.Monitoring.PrometheusEndpoint;
+import css.Monitoring.SimulationMetrics;
+import css.Monitoring.SimulationMonitor;
 import css.Producers.CourierSetup;
 import css.Producers.KitchenService;
+import css.Producers.OrderFiles;
 import css.Producers.Waiter;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
 
 // Responsible for starting FIFO strategy simulation
 public class FIFOSimulationRunner implements SimulationRunner {
 
+    private static final EventLogger LOG = EventLogger.shared();
+
     private BlockingQueue<Order> ordersReceivedQueue = new LinkedBlockingQueue<>();
     private BlockingQueue<Courier> waitingCourierQueue = new LinkedBlockingQueue<>();
     private BlockingQueue<Courier> courierReadyQueue = new LinkedBlockingQueue<>();
@@ -25,6 +46,19 @@ public class FIFOSimulationRunner implements SimulationRunner {
     private String filePath;
     private int numCouriers;
     private CourierSetup courierSetup;
+    private Clock clock;
+    private ArrivalProcess arrivalProcess;
+    private Iterator<Order> orderSource;
+    private Distribution travelTime = KitchenService.DEFAULT_TRAVEL_TIME;
+    private SplittableRandom random = new SplittableRandom();
+    private ExecutionMode executionMode;
+    private LifecycleTracer lifecycleTracer;
+    private ChromeTraceExporter traceExporter;
+    private final SimulationMetrics metrics = new SimulationMetrics("FIFO");
+    private PrometheusEndpoint prometheusEndpoint;
+    private SimulationMonitor monitor;
+    private int consumerWorkers;
+    private boolean retainWaitTimes;
     //private String filePath;
     //private int numCouriers;
     //private CourierSetup courierSetup;
@@ -33,16 +67,40 @@ public class FIFOSimulationRunner implements SimulationRunner {
     private FIFOOrderConsumer fifoOrderConsumer;
 
     public FIFOSimulationRunner(String filePath, int numCouriers) {
+        this(filePath, numCouriers, new SystemClock());
+    }
+
+    // The clock sets the pace of the simulation, e.g. a ScaledClock to run faster than real time.
+    public FIFOSimulationRunner(String filePath, int numCouriers, Clock clock) {
+        this(filePath, numCouriers, clock, ExecutionMode.PLATFORM);
+    }
+
+    // The execution mode selects platform or virtual threads for the couriers and orders.
+    public FIFOSimulationRunner(String filePath, int numCouriers, Clock clock, ExecutionMode executionMode) {
+        this(filePath, numCouriers, clock, executionMode, 1);
+    }
+
+    // With more than one consumer worker, orders and couriers are paired by a
+    // ParallelFIFODispatcher reading from sharded queues.
+    public FIFOSimulationRunner(String filePath, int numCouriers, Clock clock, ExecutionMode executionMode, int consumerWorkers) {
         ordersReceivedQueue = new LinkedBlockingQueue<>();
         waitingCourierQueue = new LinkedBlockingQueue<>();
-        courierReadyQueue = new LinkedBlockingQueue<>();
-        readyOrdersQueue = new LinkedBlockingQueue<>();
+        if (consumerWorkers > 1) {
+            courierReadyQueue = new ShardedBlockingQueue<>(consumerWorkers);
+            readyOrdersQueue = new ShardedBlockingQueue<>(consumerWorkers);
+        } else {
+            courierReadyQueue = new LinkedBlockingQueue<>();
+            readyOrdersQueue = new LinkedBlockingQueue<>();
+        }
         allOrdersReceived = new AtomicBoolean(false);
         allOrdersPrepared = new AtomicBoolean(false);
         notifyKitchenAllOrdersProcessed = new AtomicBoolean(false);
         this.filePath = filePath;
         this.numCouriers = numCouriers;
         courierSetup = new CourierSetup();
+        this.clock = clock;
+        this.executionMode = executionMode;
+        this.consumerWorkers = consumerWorkers;
     }
 
     // Setters to allow for dependency injection in tests
@@ -50,6 +108,60 @@ public class FIFOSimulationRunner implements SimulationRunner {
         this.courierSetup = courierSetup;
     }
 
+    // Keeps every wait time in a list as well as the histograms. Off by
+    // default, since the lists grow with the number of orders.
+    public void setRetainWaitTimes(boolean retainWaitTimes) {
+        this.retainWaitTimes = retainWaitTimes;
+    }
+
+    // Without an arrival process the waiter hands out 2 orders every second.
+    public void setArrivalProcess(ArrivalProcess arrivalProcess) {
+        this.arrivalProcess = arrivalProcess;
+    }
+
+    // Orders to use instead of the file, e.g. a SyntheticOrderSource for load tests.
+    public void setOrderSource(Iterator<Order> orderSource) {
+        this.orderSource = orderSource;
+    }
+
+    // Courier travel times are drawn from this, uniform between 3 and 15 seconds by default.
+    public void setTravelTimeDistribution(Distribution travelTime) {
+        this.travelTime = travelTime;
+    }
+
+    // Runs with the same seed draw the same travel times in the same order.
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Traces every order's lifecycle and prints the breakdown at the end of the run.
+    public void setLifecycleTracer(LifecycleTracer lifecycleTracer) {
+        this.lifecycleTracer = lifecycleTracer;
+    }
+
+    public LifecycleTracer getLifecycleTracer() {
+        return lifecycleTracer;
+    }
+
+    // Streams the run to a Chrome trace. The caller closes the exporter.
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    // Publishes the run's metrics for Prometheus. The caller closes the endpoint.
+    public void setPrometheusEndpoint(PrometheusEndpoint prometheusEndpoint) {
+        this.prometheusEndpoint = prometheusEndpoint;
+    }
+
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Registered as an MXBean while the simulation runs, null before it starts.
+    public SimulationMonitor getMonitor() {
+        return monitor;
+    }
+
     public void setWaiter(Waiter waiter) {
         this.waiter = waiter;
     }
@@ -64,7 +176,7 @@ public class FIFOSimulationRunner implements SimulationRunner {
 
     @Override
     public void run() {
-        int totalOrders;
+        IntSupplier totalOrders;
 
         courierSetup.setUpCouriers(waitingCourierQueue, numCouriers);
 
@@ -74,31 +186,72 @@ public class FIFOSimulationRunner implements SimulationRunner {
 
         try {
             // Waitor is the PRODUCER, It reads the orders and writes requests for couriers
-            Waiter waitor = new Waiter(filePath, ordersReceivedQueue, allOrdersReceived);
-            totalOrders = waitor.getTotalOrders();
+            // Orders are streamed from the file, so the first ones go out while
+            // the rest are still being read and the total becomes known at the end.
+            Waiter waitor = new Waiter(orderSource != null ? orderSource : OrderFiles.open(filePath), ordersReceivedQueue, allOrdersReceived, clock);
+            waitor.setArrivalProcess(arrivalProcess);
+            waitor.setLifecycleTracer(lifecycleTracer);
+            waitor.setMetrics(metrics);
+            if (prometheusEndpoint != null) {
+                prometheusEndpoint.register(metrics);
+            }
+            totalOrders = waitor::getTotalOrders;
             waitorThread = new Thread(waitor);
             waitorThread.start();
 
             // KitchenService is Producer since it's writing readyOrders and readyCouriers
-            KitchenService kitchenService = new KitchenService(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed);
+            KitchenService kitchenService = new KitchenService(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock, executionMode);
+            kitchenService.setTravelTimeDistribution(travelTime);
+            kitchenService.setRandom(random.split());
+            kitchenService.setTraceExporter(traceExporter);
+            kitchenService.setMetrics(metrics);
             kitchenServiceThread = new Thread(kitchenService);
             kitchenServiceThread.start();
 
             // Reading ready orders and courier so CONSUMER
-            FIFOOrderConsumer FIFOOrderConsumer = new FIFOOrderConsumer(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders, allOrdersPrepared, notifyKitchenAllOrdersProcessed);
+            OrderProcessor FIFOOrderConsumer;
+            if (consumerWorkers > 1) {
+                ParallelFIFODispatcher dispatcher = new ParallelFIFODispatcher(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders, notifyKitchenAllOrdersProcessed, clock, consumerWorkers);
+                dispatcher.setLifecycleTracer(lifecycleTracer);
+                dispatcher.setTraceExporter(traceExporter);
+                dispatcher.setMetrics(metrics);
+                dispatcher.setRetainWaitTimes(retainWaitTimes);
+                monitor = new SimulationMonitor(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, metrics, dispatcher::getWorkerStatistics);
+                FIFOOrderConsumer = dispatcher;
+            } else {
+                FIFOOrderConsumer consumer = new FIFOOrderConsumer(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders, allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock);
+                consumer.setLifecycleTracer(lifecycleTracer);
+                consumer.setTraceExporter(traceExporter);
+                consumer.setMetrics(metrics);
+                consumer.setRetainWaitTimes(retainWaitTimes);
+                monitor = new SimulationMonitor(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, metrics, () -> List.of(consumer.getStatistics()));
+                FIFOOrderConsumer = consumer;
+            }
+            monitor.register("FIFO");
             FIFOOrderConsumerThread = new Thread(FIFOOrderConsumer);
             FIFOOrderConsumerThread.start();
 
             // Wait for all threads to finish
-            System.out.println("Attempting to join threads....");
+            LOG.info("Attempting to join threads....");
             waitorThread.join();
             kitchenServiceThread.join();
             FIFOOrderConsumerThread.join();
-            System.out.println("Threads have been joined....");
-            System.out.println("Done.");
+            if (lifecycleTracer != null) {
+                lifecycleTracer.printBreakdown();
+            }
+            if (traceExporter != null) {
+                traceExporter.flush();
+            }
+            LOG.info("Threads have been joined....");
+            LOG.info("Done.");
+            LOG.flush();
 
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            if (monitor != null) {
+                monitor.unregister();
+            }
         }
 
     }
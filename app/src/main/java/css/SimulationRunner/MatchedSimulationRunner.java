@@ -1,49 +1,94 @@
 package css.SimulationRunner;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
 
 import css.Consumers.MatchedOrderConsumer;
+import css.Interfaces.ArrivalProcess;
+import css.Interfaces.Clock;
+import css.Interfaces.Distribution;
 import css.Interfaces.SimulationRunner;
+import css.Logging.ChromeTraceExporter;
+import css.Logging.EventLogger;
 import css.Model.Courier;
+import css.Model.LifecycleTracer;
 import css.Model.Order;
+import css.Model.ReadyOrderIndex;
+import css.Monitoring.PrometheusEndpoint;
+import css.Monitoring.SimulationMetrics;
+import css.Monitoring.SimulationMonitor;
 import css.Producers.CourierSetup;
 import css.Producers.KitchenService;
+import css.Producers.OrderFiles;
 import css.Producers.Waiter;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
 
 // Responsible for starting Matched strategy simulation
 public class MatchedSimulationRunner implements SimulationRunner {
 
+    private static final EventLogger LOG = EventLogger.shared();
+
     private BlockingQueue<Order> ordersReceivedQueue;
     private BlockingQueue<Courier> waitingCourierQueue;
     private BlockingQueue<Courier> courierReadyQueue;
     private BlockingQueue<Order> readyOrdersQueue;
+    private ReadyOrderIndex readyOrderIndex;
     private AtomicBoolean allOrdersReceived;
     private AtomicBoolean allOrdersPrepared;
     private AtomicBoolean notifyKitchenAllOrdersProcessed;
     private String filePath;
     private int numCouriers;
     private CourierSetup courierSetup;
+    private Clock clock;
+    private ArrivalProcess arrivalProcess;
+    private Iterator<Order> orderSource;
+    private Distribution travelTime = KitchenService.DEFAULT_TRAVEL_TIME;
+    private SplittableRandom random = new SplittableRandom();
+    private ExecutionMode executionMode;
+    private LifecycleTracer lifecycleTracer;
+    private ChromeTraceExporter traceExporter;
+    private final SimulationMetrics metrics = new SimulationMetrics("Matched");
+    private PrometheusEndpoint prometheusEndpoint;
+    private SimulationMonitor monitor;
+    private boolean retainWaitTimes;
     private MatchedOrderConsumer matchedOrderConsumer;
     private Waiter waiter;
     private KitchenService kitchenService;
 
     public MatchedSimulationRunner(String filePath, int numCouriers) {
+        this(filePath, numCouriers, new SystemClock());
+    }
+
+    // The clock sets the pace of the simulation, e.g. a ScaledClock to run faster than real time.
+    public MatchedSimulationRunner(String filePath, int numCouriers, Clock clock) {
+        this(filePath, numCouriers, clock, ExecutionMode.PLATFORM);
+    }
+
+    // The execution mode selects platform or virtual threads for the couriers and orders.
+    public MatchedSimulationRunner(String filePath, int numCouriers, Clock clock, ExecutionMode executionMode) {
         ordersReceivedQueue = new LinkedBlockingQueue<>();
         waitingCourierQueue = new LinkedBlockingQueue<>();
         courierReadyQueue = new LinkedBlockingQueue<>();
         readyOrdersQueue = new LinkedBlockingQueue<>();
+        readyOrderIndex = new ReadyOrderIndex();
         allOrdersReceived = new AtomicBoolean(false);
         allOrdersPrepared = new AtomicBoolean(false);
         notifyKitchenAllOrdersProcessed = new AtomicBoolean(false);
         this.filePath = filePath;
         this.numCouriers = numCouriers;
         courierSetup = new CourierSetup();
+        this.clock = clock;
+        this.executionMode = executionMode;
     }
 
     public void run() {
-        int totalOrders;
+        IntSupplier totalOrders;
 
         courierSetup.setUpCouriers(waitingCourierQueue, numCouriers);
 
@@ -53,18 +98,36 @@ public class MatchedSimulationRunner implements SimulationRunner {
 
         try {
             // Waitor is the PRODUCER, It reads the orders and writes requests for couriers
-            Waiter waitor = new Waiter(filePath, ordersReceivedQueue, allOrdersReceived);
-            totalOrders = waitor.getTotalOrders();
+            // Orders are streamed from the file, so the first ones go out while
+            // the rest are still being read and the total becomes known at the end.
+            Waiter waitor = new Waiter(orderSource != null ? orderSource : OrderFiles.open(filePath), ordersReceivedQueue, allOrdersReceived, clock);
+            waitor.setArrivalProcess(arrivalProcess);
+            waitor.setLifecycleTracer(lifecycleTracer);
+            waitor.setMetrics(metrics);
+            if (prometheusEndpoint != null) {
+                prometheusEndpoint.register(metrics);
+            }
+            totalOrders = waitor::getTotalOrders;
             waitorThread = new Thread(waitor);
             waitorThread.start();
 
             // KitchenService is Producer since it's writing readyOrders and readyCouriers
-            KitchenService kitchenService = new KitchenService(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed);
+            KitchenService kitchenService = new KitchenService(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, allOrdersReceived, allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock, executionMode, readyOrderIndex);
+            kitchenService.setTravelTimeDistribution(travelTime);
+            kitchenService.setRandom(random.split());
+            kitchenService.setTraceExporter(traceExporter);
+            kitchenService.setMetrics(metrics);
             kitchenServiceThread = new Thread(kitchenService);
             kitchenServiceThread.start();
 
             // Reading ready orders and courier so CONSUMER
-            MatchedOrderConsumer matchedOrderConsumer = new MatchedOrderConsumer(readyOrdersQueue, courierReadyQueue, waitingCourierQueue, totalOrders, allOrdersPrepared, notifyKitchenAllOrdersProcessed);
+            MatchedOrderConsumer matchedOrderConsumer = new MatchedOrderConsumer(readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue, totalOrders, allOrdersPrepared, notifyKitchenAllOrdersProcessed, clock);
+            matchedOrderConsumer.setLifecycleTracer(lifecycleTracer);
+            matchedOrderConsumer.setTraceExporter(traceExporter);
+            matchedOrderConsumer.setMetrics(metrics);
+            matchedOrderConsumer.setRetainWaitTimes(retainWaitTimes);
+            monitor = new SimulationMonitor(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue, readyOrderIndex, metrics, () -> List.of(matchedOrderConsumer.getStatistics()));
+            monitor.register("Matched");
             MatchedrderConsumerThread = new Thread(matchedOrderConsumer);
             MatchedrderConsumerThread.start();
 
@@ -72,11 +135,22 @@ public class MatchedSimulationRunner implements SimulationRunner {
             waitorThread.join();
             kitchenServiceThread.join();
             MatchedrderConsumerThread.join();
-            System.out.println("Threads have been joined....");
-            System.out.println("Done.");
+            if (lifecycleTracer != null) {
+                lifecycleTracer.printBreakdown();
+            }
+            if (traceExporter != null) {
+                traceExporter.flush();
+            }
+            LOG.info("Threads have been joined....");
+            LOG.info("Done.");
+            LOG.flush();
 
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            if (monitor != null) {
+                monitor.unregister();
+            }
         }
 
     }
@@ -85,6 +159,60 @@ public class MatchedSimulationRunner implements SimulationRunner {
         courierSetup = mockCourierSetup;
     }
 
+    // Keeps every wait time in a list as well as the histograms. Off by
+    // default, since the lists grow with the number of orders.
+    public void setRetainWaitTimes(boolean retainWaitTimes) {
+        this.retainWaitTimes = retainWaitTimes;
+    }
+
+    // Without an arrival process the waiter hands out 2 orders every second.
+    public void setArrivalProcess(ArrivalProcess arrivalProcess) {
+        this.arrivalProcess = arrivalProcess;
+    }
+
+    // Orders to use instead of the file, e.g. a SyntheticOrderSource for load tests.
+    public void setOrderSource(Iterator<Order> orderSource) {
+        this.orderSource = orderSource;
+    }
+
+    // Courier travel times are drawn from this, uniform between 3 and 15 seconds by default.
+    public void setTravelTimeDistribution(Distribution travelTime) {
+        this.travelTime = travelTime;
+    }
+
+    // Runs with the same seed draw the same travel times in the same order.
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    // Traces every order's lifecycle and prints the breakdown at the end of the run.
+    public void setLifecycleTracer(LifecycleTracer lifecycleTracer) {
+        this.lifecycleTracer = lifecycleTracer;
+    }
+
+    public LifecycleTracer getLifecycleTracer() {
+        return lifecycleTracer;
+    }
+
+    // Streams the run to a Chrome trace. The caller closes the exporter.
+    public void setTraceExporter(ChromeTraceExporter traceExporter) {
+        this.traceExporter = traceExporter;
+    }
+
+    // Publishes the run's metrics for Prometheus. The caller closes the endpoint.
+    public void setPrometheusEndpoint(PrometheusEndpoint prometheusEndpoint) {
+        this.prometheusEndpoint = prometheusEndpoint;
+    }
+
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Registered as an MXBean while the simulation runs, null before it starts.
+    public SimulationMonitor getMonitor() {
+        return monitor;
+    }
+
     public void setWaiter(Waiter mockWaiter) {
        waiter = mockWaiter;
     }
@@ -0,0 +1,255 @@
+package css.SimulationRunner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import css.Arrivals.FixedRateArrivals;
+import css.Engine.DiscreteEventEngine;
+import css.Interfaces.ArrivalProcess;
+import css.Interfaces.Distribution;
+import css.Interfaces.SimulationRunner;
+import css.Model.DispatchStrategy;
+import css.Model.IntQueue;
+import css.Model.Order;
+import css.Model.OrderStore;
+import css.Model.Statistics;
+import css.Producers.BinaryOrderReader;
+import css.Producers.KitchenService;
+import css.Producers.OrderFiles;
+import css.Producers.Waiter;
+
+/**
+ * Runs the FIFO or Matched simulation on a virtual clock instead of
+ * real threads. The waiter, kitchen and consumer steps are the same as
+ * in the threaded runners, but each one is an event in a
+ * DiscreteEventEngine, so nothing ever sleeps and the wait times reported
+ * through Statistics are in simulated milliseconds.
+ *
+ * Orders live in an OrderStore and couriers in plain arrays, and both are
+ * passed around as int handles, so a run over millions of orders doesn't
+ * create an object per order or courier.
+ */
+public class VirtualTimeSimulationRunner implements SimulationRunner {
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final OrderStore orders;
+    private final int numCouriers;
+    private final DispatchStrategy strategy;
+    private final long seed;
+    private Statistics stats;
+    private boolean retainWaitTimes;
+
+    private final IntQueue ordersReceivedQueue;
+    private final IntQueue waitingCourierQueue;
+    // FIFO: ready orders and arrived couriers are paired in arrival order.
+    private final IntQueue readyOrdersQueue;
+    private final IntQueue courierReadyQueue;
+    // The order each courier was dispatched for and when it arrived, NOT_SET while travelling.
+    private final int[] courierOrders;
+    private final long[] courierArrivalTimes;
+
+    private ArrivalProcess arrivalProcess;
+    private Distribution travelTime = KitchenService.DEFAULT_TRAVEL_TIME;
+    private ArrivalProcess arrivals;
+    private DiscreteEventEngine engine;
+    // Seeded afresh each run, so every run with the same seed is the same
+    private SplittableRandom random;
+    private int processedOrders;
+
+    public VirtualTimeSimulationRunner(String filePath, int numCouriers, DispatchStrategy strategy) {
+        this(loadOrderStore(filePath), numCouriers, strategy, new SplittableRandom().nextLong());
+    }
+
+    public VirtualTimeSimulationRunner(List<Order> orders, int numCouriers, DispatchStrategy strategy, long seed) {
+        this(OrderStore.of(orders), numCouriers, strategy, seed);
+    }
+
+    public VirtualTimeSimulationRunner(OrderStore orders, int numCouriers, DispatchStrategy strategy, long seed) {
+        this.orders = orders;
+        this.numCouriers = numCouriers;
+        this.strategy = strategy;
+        this.seed = seed;
+        // Only the histograms unless asked for, so a run over millions of orders stays small
+        this.stats = new Statistics(false);
+        this.ordersReceivedQueue = new IntQueue();
+        this.waitingCourierQueue = new IntQueue(numCouriers);
+        this.readyOrdersQueue = new IntQueue();
+        this.courierReadyQueue = new IntQueue();
+        this.courierOrders = new int[numCouriers];
+        this.courierArrivalTimes = new long[numCouriers];
+    }
+
+    @Override
+    public void run() {
+        engine = new DiscreteEventEngine();
+        random = new SplittableRandom(seed);
+        processedOrders = 0;
+        // Each run reports only its own wait times
+        stats = new Statistics(retainWaitTimes);
+        orders.resetProgress();
+        ordersReceivedQueue.clear();
+        waitingCourierQueue.clear();
+        readyOrdersQueue.clear();
+        courierReadyQueue.clear();
+        Arrays.fill(courierOrders, -1);
+        Arrays.fill(courierArrivalTimes, OrderStore.NOT_SET);
+        for (int courier = 0; courier < numCouriers; courier++) {
+            waitingCourierQueue.add(courier);
+        }
+
+        if (arrivalProcess != null) {
+            // Left part way through by the last run
+            arrivalProcess.reset();
+            arrivals = arrivalProcess;
+        } else {
+            arrivals = new FixedRateArrivals(Waiter.ORDERS_PER_BATCH, Waiter.BATCH_INTERVAL_MILLIS);
+        }
+
+        long startTime = System.currentTimeMillis();
+        if (orders.size() > 0) {
+            engine.scheduleAt(arrivals.nextArrivalMillis(orders.getCreatedAtMillis(0)), () -> receiveOrder(0));
+        }
+        engine.run();
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        stats.printStatistics();
+        System.out.println(strategy + " virtual-time simulation processed " + processedOrders + " orders and "
+                + engine.getProcessedEvents() + " events covering " + engine.now() + " simulated ms in "
+                + elapsedTime + " ms.");
+    }
+
+    // Waiter: hands the next order to the kitchen and schedules the one after
+    // it, by default at the same 2-orders-per-second cadence as the threaded Waiter.
+    private void receiveOrder(int order) {
+        orders.setReceivedNanos(order, engine.now() * NANOS_PER_MILLI);
+        ordersReceivedQueue.add(order);
+        int next = order + 1;
+        if (next < orders.size()) {
+            engine.scheduleAt(arrivals.nextArrivalMillis(orders.getCreatedAtMillis(next)), () -> receiveOrder(next));
+        }
+        dispatchOrders();
+    }
+
+    // KitchenService: pairs every idle courier with a received order, then
+    // starts the courier's trip and the order's preparation.
+    private void dispatchOrders() {
+        while (!waitingCourierQueue.isEmpty() && !ordersReceivedQueue.isEmpty()) {
+            int courier = waitingCourierQueue.poll();
+            int order = ordersReceivedQueue.poll();
+            courierOrders[courier] = order;
+            courierArrivalTimes[courier] = OrderStore.NOT_SET;
+            orders.setCourierId(order, courier);
+
+            int travelMillis = KitchenService.sampleTravelMillis(travelTime, random);
+            engine.schedule(travelMillis, () -> courierArrived(courier));
+            engine.schedule(orders.getPrepTime(order) * 1000L, () -> orderReady(order));
+        }
+    }
+
+    private void orderReady(int order) {
+        orders.setReadyNanos(order, engine.now() * NANOS_PER_MILLI);
+
+        if (strategy == DispatchStrategy.FIFO) {
+            readyOrdersQueue.add(order);
+            pairFIFO();
+            return;
+        }
+        // Matched: the order's own courier may already be waiting for it.
+        int courier = orders.getCourierId(order);
+        if (courierArrivalTimes[courier] != OrderStore.NOT_SET) {
+            pickUp(courier, order);
+        }
+    }
+
+    private void courierArrived(int courier) {
+        courierArrivalTimes[courier] = engine.now();
+
+        if (strategy == DispatchStrategy.FIFO) {
+            courierReadyQueue.add(courier);
+            pairFIFO();
+            return;
+        }
+        int order = courierOrders[courier];
+        if (orders.isReady(order)) {
+            pickUp(courier, order);
+        }
+    }
+
+    private void pairFIFO() {
+        while (!readyOrdersQueue.isEmpty() && !courierReadyQueue.isEmpty()) {
+            pickUp(courierReadyQueue.poll(), readyOrdersQueue.poll());
+        }
+    }
+
+    // Consumer: records the wait times and sends the courier back to the kitchen.
+    private void pickUp(int courier, int order) {
+        long endWaitingTime = engine.now();
+        orders.setPickedUpNanos(order, endWaitingTime * NANOS_PER_MILLI);
+        stats.recordWaitTimes(endWaitingTime - orders.getReadyNanos(order) / NANOS_PER_MILLI,
+                endWaitingTime - courierArrivalTimes[courier]);
+        processedOrders++;
+        courierArrivalTimes[courier] = OrderStore.NOT_SET;
+        waitingCourierQueue.add(courier);
+        dispatchOrders();
+    }
+
+    // Streams the file straight into the store, without a list of Orders in
+    // between. Binary files are copied from the mapped records directly.
+    public static OrderStore loadOrderStore(String filePath) {
+        Iterator<Order> orders = OrderFiles.open(filePath);
+        OrderStore store;
+        if (orders instanceof BinaryOrderReader binaryOrders) {
+            store = new OrderStore(binaryOrders.size());
+            binaryOrders.loadInto(store);
+        } else {
+            store = OrderStore.of(orders);
+        }
+        if (orders instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return store;
+    }
+
+    // Replaces the default cadence for the next run, e.g. with PoissonArrivals.
+    public void setArrivalProcess(ArrivalProcess arrivalProcess) {
+        this.arrivalProcess = arrivalProcess;
+    }
+
+    // Courier travel times are drawn from this, uniform between 3 and 15 seconds by default.
+    public void setTravelTimeDistribution(Distribution travelTime) {
+        this.travelTime = travelTime;
+    }
+
+    // Keeps every wait time in a list as well as the histograms. Off by
+    // default, since the lists grow with the number of orders.
+    public void setRetainWaitTimes(boolean retainWaitTimes) {
+        this.retainWaitTimes = retainWaitTimes;
+        this.stats = new Statistics(retainWaitTimes);
+    }
+
+    // The last run's. Every run records into new Statistics.
+    public Statistics getStatistics() {
+        return stats;
+    }
+
+    public OrderStore getOrderStore() {
+        return orders;
+    }
+
+    public int getProcessedOrders() {
+        return processedOrders;
+    }
+
+    public long getSimulatedTime() {
+        return engine == null ? 0 : engine.now();
+    }
+}
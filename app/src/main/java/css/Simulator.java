@@ -1,25 +1,44 @@
 package css;
 
+// import css.Model.DispatchStrategy;
 // import css.SimulationRunner.FIFOSimulationRunner;
+import css.Monitoring.PrometheusEndpoint;
 import css.SimulationRunner.MatchedSimulationRunner;
+// import css.SimulationRunner.VirtualTimeSimulationRunner;
+import css.Timing.ScaledClock;
 
 public class Simulator {
 
     private static final String FILE_PATH = "dispatch_orders.json";
+    // How many times faster than real time the threaded simulations run, e.g. 100.
+    private static final double SPEED_UP_FACTOR = 1;
     
     public static void main(String[] args) {
+        // Serves /metrics for Prometheus when run with -Dcss.metrics.port=<port>
+        PrometheusEndpoint prometheusEndpoint = PrometheusEndpoint.fromSystemProperty();
+
         //Simulation 1: Matched Strategy
         System.out.println("Starting Matched Simulation...");
-        MatchedSimulationRunner matchedSimulationRunner = new MatchedSimulationRunner(FILE_PATH, 10);
+        MatchedSimulationRunner matchedSimulationRunner = new MatchedSimulationRunner(FILE_PATH, 10, new ScaledClock(SPEED_UP_FACTOR));
+        matchedSimulationRunner.setPrometheusEndpoint(prometheusEndpoint);
         matchedSimulationRunner.run();
         System.out.println();
 
 
         // //Simulation 2: FIFO Strategy
         // System.out.println("Starting FIFO Simulation...");
-        // FIFOSimulationRunner fifoSimulationRunner = new FIFOSimulationRunner(FILE_PATH, 10);
+        // FIFOSimulationRunner fifoSimulationRunner = new FIFOSimulationRunner(FILE_PATH, 10, new ScaledClock(SPEED_UP_FACTOR));
+        // fifoSimulationRunner.setPrometheusEndpoint(prometheusEndpoint);
         // fifoSimulationRunner.run();
+
+        // //Simulation 3: Matched or FIFO Strategy on a virtual clock (no real sleeping)
+        // System.out.println("Starting Virtual-Time Simulation...");
+        // VirtualTimeSimulationRunner virtualTimeSimulationRunner = new VirtualTimeSimulationRunner(FILE_PATH, 10, DispatchStrategy.MATCHED);
+        // virtualTimeSimulationRunner.run();
         
+        if (prometheusEndpoint != null) {
+            prometheusEndpoint.close();
+        }
         System.exit(0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package css.Timing;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Selects how the couriers' trips and the orders' prep times are simulated.
+ * With PLATFORM and VIRTUAL each of those is a thread that mostly sleeps;
+ * VIRTUAL threads cost a few hundred bytes of heap each instead of a
+ * platform thread with its own native stack. With TIMING_WHEEL nothing
+ * sleeps: courier arrivals and order completions are fired from the single
+ * thread of a TimingWheel.
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL,
+    TIMING_WHEEL;
+
+    /**
+     * Starts a new thread of this mode running the task. TIMING_WHEEL has
+     * no threads of its own and uses platform threads here.
+     */
+    public Thread startThread(Runnable task) {
+        if (this == VIRTUAL) {
+            return Thread.ofVirtual().start(task);
+        }
+        return Thread.ofPlatform().start(task);
+    }
+
+    /**
+     * Creates an executor that runs every submitted task on its own thread
+     * of this mode.
+     */
+    public ExecutorService newExecutor() {
+        if (this == VIRTUAL) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newCachedThreadPool();
+    }
+}
@@ -0,0 +1,56 @@
+package css.Timing;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import css.Interfaces.Clock;
+
+/**
+ * Clock that runs faster than the wall clock by a fixed speed-up factor.
+ * With a factor of 100 a 10 second courier trip sleeps for 100 ms, while
+ * the timestamps it hands out still advance by the full 10 seconds. Wait
+ * times computed from those timestamps are therefore already in simulated
+ * milliseconds.
+ */
+public class ScaledClock implements Clock {
+
+    private final double speedUpFactor;
+    private final Instant simulationStart;
+    private final long realStartNanos;
+
+    public ScaledClock(double speedUpFactor) {
+        if (speedUpFactor <= 0) {
+            throw new IllegalArgumentException("Speed-up factor must be positive: " + speedUpFactor);
+        }
+        this.speedUpFactor = speedUpFactor;
+        this.simulationStart = Instant.now();
+        this.realStartNanos = System.nanoTime();
+    }
+
+    public double getSpeedUpFactor() {
+        return speedUpFactor;
+    }
+
+    @Override
+    public Instant now() {
+        long realElapsedNanos = System.nanoTime() - realStartNanos;
+        return simulationStart.plusNanos((long) (realElapsedNanos * speedUpFactor));
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(toRealNanos(millis));
+    }
+
+    @Override
+    public long toRealMillis(long millis) {
+        if (millis <= 0) {
+            return 0;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(toRealNanos(millis)));
+    }
+
+    private long toRealNanos(long millis) {
+        return (long) (TimeUnit.MILLISECONDS.toNanos(millis) / speedUpFactor);
+    }
+}
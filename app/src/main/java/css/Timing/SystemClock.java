@@ -0,0 +1,26 @@
+package css.Timing;
+
+import java.time.Instant;
+
+import css.Interfaces.Clock;
+
+/**
+ * Clock backed by the wall clock. Simulated time and real time are the same.
+ */
+public class SystemClock implements Clock {
+
+    @Override
+    public Instant now() {
+        return Instant.now();
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    @Override
+    public long toRealMillis(long millis) {
+        return millis;
+    }
+}
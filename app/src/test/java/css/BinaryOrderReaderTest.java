@@ -0,0 +1,155 @@
+package css;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Order;
+import css.Model.OrderStore;
+import css.Producers.BinaryOrderConverter;
+import css.Producers.BinaryOrderReader;
+import css.Producers.LoadOrders;
+
+public class BinaryOrderReaderTest {
+
+    private static String tempPath(String suffix) throws IOException {
+        File tempFile = File.createTempFile("orders", suffix);
+        tempFile.deleteOnExit();
+        return tempFile.getAbsolutePath();
+    }
+
+    private static String convert(String json) throws IOException {
+        String jsonPath = tempPath(".json");
+        try (FileWriter writer = new FileWriter(jsonPath)) {
+            writer.write(json);
+        }
+        String binaryPath = tempPath(BinaryOrderReader.FILE_EXTENSION);
+        BinaryOrderConverter.convert(jsonPath, binaryPath);
+        return binaryPath;
+    }
+
+    @Test
+    public void testRoundTripsTheJsonOrders() throws IOException {
+        String jsonPath = "src/test/resources/small_orders.json";
+        String binaryPath = tempPath(BinaryOrderReader.FILE_EXTENSION);
+
+        assertEquals(4, BinaryOrderConverter.convert(jsonPath, binaryPath));
+
+        List<Order> orders = new ArrayList<>();
+        try (BinaryOrderReader reader = new BinaryOrderReader(binaryPath)) {
+            assertEquals(4, reader.size());
+            reader.forEachRemaining(orders::add);
+        }
+        assertEquals(new LoadOrders(jsonPath).getOrders(), orders);
+    }
+
+    @Test
+    public void testRecordsAreFixedWidthAfterTheMenu() throws IOException {
+        String binaryPath = convert("["
+                + "{\"id\": \"a8cfcb76-7f24-4420-a5ba-d46dd77bdffd\", \"name\": \"Banana Split\", \"prepTime\": 4},"
+                + "{\"id\": \"58e9b5fe-3fde-4a27-8e98-682e58a4a65d\", \"name\": \"McFlury\", \"prepTime\": 14},"
+                + "{\"id\": \"2ec069e3-576f-48eb-869f-74a540ef840c\", \"name\": \"Banana Split\", \"prepTime\": 9}]");
+
+        long size = Files.size(Path.of(binaryPath));
+        assertEquals(0, (size - 3 * BinaryOrderReader.RECORD_BYTES) % 8);
+
+        try (BinaryOrderReader reader = new BinaryOrderReader(binaryPath)) {
+            assertEquals(reader.getFoodItemId(0), reader.getFoodItemId(2));
+            assertEquals("McFlury", reader.toOrder(1).getFoodItem());
+            assertEquals(9, reader.getPrepTime(2));
+            assertEquals(0xa8cfcb767f244420L, reader.getIdMostSigBits(0));
+            assertEquals(0xa5bad46dd77bdffdL, reader.getIdLeastSigBits(0));
+        }
+    }
+
+    @Test
+    public void testLoadIntoStore() throws IOException {
+        String binaryPath = convert("["
+                + "{\"id\": \"a8cfcb76-7f24-4420-a5ba-d46dd77bdffd\", \"name\": \"Banana Split\", \"prepTime\": 4},"
+                + "{\"id\": \"00000000-0000-0000-0000-000000000000\", \"name\": \"Yogurt\", \"prepTime\": 2}]");
+
+        OrderStore store = new OrderStore();
+        try (BinaryOrderReader reader = new BinaryOrderReader(binaryPath)) {
+            reader.loadInto(store);
+            assertEquals(new Order("00000000-0000-0000-0000-000000000000", "Yogurt", 2), reader.toOrder(1));
+        }
+
+        assertEquals(2, store.size());
+        assertEquals("a8cfcb76-7f24-4420-a5ba-d46dd77bdffd", store.getId(0));
+        assertEquals("Banana Split", store.getFoodItem(0));
+        assertEquals("00000000-0000-0000-0000-000000000000", store.getId(1));
+        assertEquals(2, store.getPrepTime(1));
+    }
+
+    @Test
+    public void testCreationTimesFollowTheRecords() throws IOException {
+        String binaryPath = convert("["
+                + "{\"id\": \"a8cfcb76-7f24-4420-a5ba-d46dd77bdffd\", \"name\": \"Banana Split\", \"prepTime\": 4,"
+                + " \"createdAt\": 1715970600250},"
+                + "{\"id\": \"58e9b5fe-3fde-4a27-8e98-682e58a4a65d\", \"name\": \"McFlury\", \"prepTime\": 14}]");
+
+        try (BinaryOrderReader reader = new BinaryOrderReader(binaryPath)) {
+            assertTrue(reader.hasCreationTimes());
+            assertEquals(1_715_970_600_250L, reader.next().getCreatedAtMillis());
+            assertFalse(reader.next().hasCreatedAt());
+        }
+        try (BinaryOrderReader reader = new BinaryOrderReader(binaryPath)) {
+            OrderStore store = new OrderStore();
+            reader.loadInto(store);
+            assertEquals(1_715_970_600_250L, store.getCreatedAtMillis(0));
+            assertEquals(Order.NO_TIMESTAMP, store.getCreatedAtMillis(1));
+        }
+    }
+
+    @Test
+    public void testFilesWithoutCreationTimesKeepTheFirstVersion() throws IOException {
+        String binaryPath = tempPath(BinaryOrderReader.FILE_EXTENSION);
+        BinaryOrderConverter.convert("src/test/resources/small_orders.json", binaryPath);
+
+        byte[] bytes = Files.readAllBytes(Path.of(binaryPath));
+        assertEquals(BinaryOrderReader.VERSION, bytes[4]);
+        try (BinaryOrderReader reader = new BinaryOrderReader(binaryPath)) {
+            assertFalse(reader.hasCreationTimes());
+            assertEquals(Order.NO_TIMESTAMP, reader.getCreatedAtMillis(0));
+        }
+    }
+
+    @Test
+    public void testConverterRejectsNonUuidIds() {
+        assertThrows(IllegalArgumentException.class,
+                () -> convert("[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3}]"));
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        String path = tempPath(BinaryOrderReader.FILE_EXTENSION);
+        Files.write(Path.of(path), new byte[64]);
+
+        assertThrows(IllegalArgumentException.class, () -> new BinaryOrderReader(path));
+    }
+
+    @Test
+    public void testMissingFileHasNoOrders() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        try (BinaryOrderReader reader = new BinaryOrderReader("invalid_path/orders.bin")) {
+            assertFalse(reader.hasNext());
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertTrue(outputStream.toString().contains("File not found."));
+    }
+}
@@ -0,0 +1,56 @@
+package css;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Arrivals.BurstyArrivals;
+
+public class BurstyArrivalsTest {
+
+    @Test
+    public void testNoArrivalsDuringOffPeriods() {
+        // 2 s bursts at 50 orders/s, then 8 s of nothing
+        BurstyArrivals arrivals = new BurstyArrivals(50, 2000, 8000, 42L);
+        int count = 10_000;
+        long last = 0;
+        for (int i = 0; i < count; i++) {
+            long arrival = arrivals.nextArrivalMillis();
+            assertTrue(arrival >= last);
+            assertTrue(arrival % 10_000 <= 2000, "Order arrived in an off period at " + arrival);
+            last = arrival;
+        }
+
+        // The long-run rate is the burst rate times the on fraction: 10 orders/s
+        assertEquals(10.0, count / (last / 1000.0), 0.5);
+    }
+
+    @Test
+    public void testSameSeedGivesSameArrivals() {
+        BurstyArrivals first = new BurstyArrivals(20, 1000, 1000, 3L);
+        BurstyArrivals second = new BurstyArrivals(20, 1000, 1000, 3L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextArrivalMillis(), second.nextArrivalMillis());
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidPeriods() {
+        assertThrows(IllegalArgumentException.class, () -> new BurstyArrivals(10, 0, 1000, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new BurstyArrivals(10, 1000, -1, 1L));
+    }
+
+    @Test
+    public void testResetStartsOver() {
+        BurstyArrivals arrivals = new BurstyArrivals(20, 1000, 1000, 3L);
+        long[] firstRun = new long[50];
+        for (int i = 0; i < firstRun.length; i++) {
+            firstRun[i] = arrivals.nextArrivalMillis();
+        }
+        arrivals.reset();
+        for (long arrival : firstRun) {
+            assertEquals(arrival, arrivals.nextArrivalMillis());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package css;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import css.Logging.ChromeTraceExporter;
+import css.Model.Courier;
+import css.Model.Order;
+
+public class ChromeTraceExporterTest {
+
+    private StringWriter output;
+    private ChromeTraceExporter exporter;
+
+    @BeforeEach
+    public void setUp() {
+        output = new StringWriter();
+        exporter = new ChromeTraceExporter(output);
+    }
+
+    private List<JsonObject> events(String phase) {
+        exporter.close();
+        JsonArray array = JsonParser.parseString(output.toString()).getAsJsonArray();
+        List<JsonObject> events = new ArrayList<>();
+        for (JsonElement element : array) {
+            JsonObject event = element.getAsJsonObject();
+            if (event.get("ph").getAsString().equals(phase)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private static String argument(JsonObject event, String name) {
+        return event.getAsJsonObject("args").get(name).getAsString();
+    }
+
+    @Test
+    public void testEmptyTraceNamesTheProcesses() {
+        List<JsonObject> metadata = events("M");
+        assertEquals(3, metadata.size());
+        assertEquals("Couriers", argument(metadata.get(0), "name"));
+        assertEquals(ChromeTraceExporter.KITCHEN_PID, metadata.get(1).get("pid").getAsInt());
+    }
+
+    @Test
+    public void testCourierTrip() throws InterruptedException {
+        Courier courier = new Courier("4");
+        courier.setOrderId("order-1");
+        courier.dispatch(Instant.now());
+        Thread.sleep(5);
+        courier.arrive(Instant.now());
+        exporter.courierArrived(courier);
+        // Never dispatched, so there's no trip to show
+        exporter.courierArrived(new Courier("5"));
+
+        List<JsonObject> spans = events("X");
+        assertEquals(1, spans.size());
+        JsonObject trip = spans.get(0);
+        assertEquals("Travel", trip.get("name").getAsString());
+        assertEquals("order-1", argument(trip, "order"));
+        assertEquals(ChromeTraceExporter.COURIERS_PID, trip.get("pid").getAsInt());
+        assertTrue(trip.get("dur").getAsDouble() >= 5000, trip.toString());
+        assertTrue(output.toString().contains("\"Courier 4\""));
+    }
+
+    @Test
+    public void testOverlappingPrepsGetTheirOwnSlots() {
+        long start = System.nanoTime();
+        exporter.prepFinished(new Order("1", "Pizza", 3), start);
+        // Started before the first one finished
+        exporter.prepFinished(new Order("2", "Burger", 4), start);
+        // Started after both finished, so it reuses the first slot
+        exporter.prepFinished(new Order("3", "Salad", 1), System.nanoTime());
+
+        List<JsonObject> preps = events("X");
+        assertEquals(3, preps.size());
+        assertEquals("Pizza", preps.get(0).get("name").getAsString());
+        assertEquals(1, preps.get(0).get("tid").getAsInt());
+        assertEquals(2, preps.get(1).get("tid").getAsInt());
+        assertEquals(1, preps.get(2).get("tid").getAsInt());
+        assertEquals(4, preps.get(1).getAsJsonObject("args").get("prepTime").getAsInt());
+    }
+
+    @Test
+    public void testPickupIsOnTheConsumerThreadsTrack() {
+        Courier courier = new Courier("1");
+        courier.arrive(Instant.now());
+        exporter.orderPickedUp(new Order("7", "Pizza", 3), courier);
+        exporter.orderPickedUp(new Order("8", "Pizza", 3), courier);
+
+        List<JsonObject> pickups = events("i");
+        assertEquals(2, pickups.size());
+        assertEquals(Thread.currentThread().threadId(), pickups.get(0).get("tid").getAsLong());
+        assertEquals("8", argument(pickups.get(1), "order"));
+        assertEquals("1", argument(pickups.get(1), "courier"));
+        // The courier's waits, and the thread named once
+        List<JsonObject> waits = events("X");
+        assertEquals(2, waits.size());
+        assertEquals("Waiting", waits.get(0).get("name").getAsString());
+        assertEquals(3 + 2, events("M").size());
+    }
+
+    @Test
+    public void testIdsAreEscaped() {
+        Courier courier = new Courier("say \"hi\"\\");
+        courier.arrive(Instant.now());
+        exporter.orderPickedUp(new Order("a\nb", "Pizza", 3), courier);
+
+        JsonObject pickup = events("i").get(0);
+        assertEquals("a\nb", argument(pickup, "order"));
+        assertEquals("say \"hi\"\\", argument(pickup, "courier"));
+    }
+
+    @Test
+    public void testEventsAfterCloseAreDropped() {
+        exporter.close();
+        exporter.prepFinished(new Order("1", "Pizza", 3), System.nanoTime());
+        exporter.close();
+
+        assertEquals(0, events("X").size());
+    }
+}
@@ -5,10 +5,13 @@ import java.time.Instant;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import css.Model.Courier;
+import css.Model.Order;
+import css.Model.OrderKey;
 
 public class CourierTest {
     private Courier courier;
@@ -42,9 +45,34 @@ public class CourierTest {
         assertEquals(orderId, courier.getOrderId(), "Order ID should match the set value");
     }
 
+    @Test
+    public void testOrderKeyAndIdAgree() {
+        Order order = new Order("a8cfcb76-7f24-4420-a5ba-d46dd77bdffd", "Pizza", 3);
+        courier.setOrderKey(order.getKey());
+        assertEquals(order.getId(), courier.getOrderId());
+
+        courier.setOrderId("order-456");
+        assertEquals(OrderKey.of("order-456"), courier.getOrderKey());
+        courier.setOrderId(null);
+        assertNull(courier.getOrderKey());
+    }
+
     @Test
     public void testTimeDispatchedInitiallyNull() {
         assertNull(courier.getTimeDispatched(), "Time dispatched should be null initially");
+        assertEquals(Order.STAGE_NOT_REACHED, courier.getDispatchedNanos());
+        assertEquals(Order.STAGE_NOT_REACHED, courier.getArrivedNanos());
+    }
+
+    @Test
+    public void testDispatchAndArrive() {
+        Instant dispatched = Instant.parse("2024-05-17T18:30:00Z");
+        courier.dispatch(dispatched);
+        courier.arrive(dispatched.plusSeconds(5));
+
+        assertEquals(dispatched, courier.getTimeDispatched());
+        assertEquals(dispatched.plusSeconds(5), courier.getArrivalTime());
+        assertTrue(courier.getArrivedNanos() - courier.getDispatchedNanos() >= 0);
     }
     
 }
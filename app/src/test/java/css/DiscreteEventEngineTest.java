@@ -0,0 +1,68 @@
+package css;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Engine.DiscreteEventEngine;
+
+public class DiscreteEventEngineTest {
+
+    private DiscreteEventEngine engine;
+    private List<String> fired;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new DiscreteEventEngine();
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    public void testEventsRunInTimeOrder() {
+        engine.schedule(3000, () -> fired.add("courier"));
+        engine.schedule(1000, () -> fired.add("order"));
+        engine.schedule(2000, () -> fired.add("waiter"));
+
+        engine.run();
+
+        assertEquals(List.of("order", "waiter", "courier"), fired);
+        assertEquals(3000, engine.now());
+        assertEquals(3, engine.getProcessedEvents());
+    }
+
+    @Test
+    public void testEventsAtSameTimeRunInScheduleOrder() {
+        engine.schedule(500, () -> fired.add("first"));
+        engine.schedule(500, () -> fired.add("second"));
+        engine.schedule(500, () -> fired.add("third"));
+
+        engine.run();
+
+        assertEquals(List.of("first", "second", "third"), fired);
+    }
+
+    @Test
+    public void testEventsScheduledFromHandlersUseVirtualTime() {
+        engine.schedule(1000, () -> {
+            fired.add("prepared at " + engine.now());
+            engine.schedule(4000, () -> fired.add("picked up at " + engine.now()));
+        });
+
+        engine.run();
+
+        assertEquals(List.of("prepared at 1000", "picked up at 5000"), fired);
+        assertEquals(0, engine.getPendingEvents());
+    }
+
+    @Test
+    public void testSchedulingInThePastIsClampedToNow() {
+        engine.schedule(2000, () -> engine.scheduleAt(500, () -> fired.add("late at " + engine.now())));
+
+        engine.run();
+
+        assertEquals(List.of("late at 2000"), fired);
+    }
+}
@@ -0,0 +1,72 @@
+package css;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Distributions.EmpiricalDistribution;
+
+public class EmpiricalDistributionTest {
+
+    private static String writeTempFile(String content) throws IOException {
+        File tempFile = File.createTempFile("travel_times", ".csv");
+        tempFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write(content);
+        }
+        return tempFile.getAbsolutePath();
+    }
+
+    @Test
+    public void testSamplesFollowTheHistogram() throws IOException {
+        String filePath = writeTempFile("# travel time ms, lower,upper,count\n"
+                + "3000,5000,1\n"
+                + "\n"
+                + "5000, 8000, 0\n"
+                + "8000,15000,3\n");
+        EmpiricalDistribution distribution = EmpiricalDistribution.load(filePath);
+        SplittableRandom random = new SplittableRandom(42L);
+
+        assertEquals(3, distribution.getBinCount());
+        int fast = 0;
+        int slow = 0;
+        for (int i = 0; i < 40_000; i++) {
+            double value = distribution.sample(random);
+            if (value >= 3000 && value < 5000) {
+                fast++;
+            } else {
+                // The empty bin is never picked
+                assertTrue(value >= 8000 && value < 15000, "Sampled " + value);
+                slow++;
+            }
+        }
+        assertEquals(10_000, fast, 400);
+        assertEquals(30_000, slow, 400);
+    }
+
+    @Test
+    public void testSingleValueBins() {
+        EmpiricalDistribution distribution = new EmpiricalDistribution(
+                new double[] {4000, 6000}, new double[] {4000, 6000}, new double[] {0, 5});
+
+        assertEquals(6000, distribution.sample(new SplittableRandom(1L)));
+    }
+
+    @Test
+    public void testRejectsInvalidHistograms() throws IOException {
+        String badLine = writeTempFile("3000,5000\n");
+        assertThrows(IllegalArgumentException.class, () -> EmpiricalDistribution.load(badLine));
+        String badNumber = writeTempFile("3000,five,1\n");
+        assertThrows(IllegalArgumentException.class, () -> EmpiricalDistribution.load(badNumber));
+        String empty = writeTempFile("# nothing\n");
+        assertThrows(IllegalArgumentException.class, () -> EmpiricalDistribution.load(empty));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EmpiricalDistribution(new double[] {5}, new double[] {3}, new double[] {1}));
+    }
+}
@@ -0,0 +1,189 @@
+package css;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Logging.EventLogger;
+import css.Logging.LogEvent;
+import css.Logging.LogLevel;
+import css.Model.Courier;
+import css.Model.Order;
+
+public class EventLoggerTest {
+
+    private PrintStream console;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    public void setUp() {
+        console = System.out;
+        output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    private List<String> lines() {
+        String printed = output.toString();
+        return printed.isEmpty() ? List.of() : List.of(printed.split(System.lineSeparator()));
+    }
+
+    @Test
+    public void testEventsAreWrittenOnFlush() {
+        try (EventLogger logger = new EventLogger(16, LogLevel.INFO)) {
+            Order order = new Order("7", "Pizza", 3);
+            Courier courier = new Courier("2");
+            logger.log(LogEvent.ORDER_RECEIVED, order);
+            logger.log(LogEvent.ORDER_PREPARING, order, 3);
+            logger.log(LogEvent.COURIER_DISPATCHED, courier, 4500);
+            logger.log(LogEvent.ORDER_PICKED_UP, order, courier);
+            logger.info("Done.");
+            logger.flush();
+
+            assertEquals(List.of(
+                    "Order 7 has been added to ordersReceivedQueue.",
+                    "Order 7 is getting prepared. It will take 3 seconds",
+                    "Courier 2 has been dispatched. It will arrive in 4 seconds.",
+                    "Courier 2 picked up Order 7",
+                    "Done."), lines());
+        }
+    }
+
+    @Test
+    public void testFulfillmentIsWrittenOverSeveralLines() {
+        try (EventLogger logger = new EventLogger(16, LogLevel.INFO)) {
+            logger.log(LogEvent.ORDER_FULFILLED, new Order("7", "Pizza", 3), new Courier("2"), 120, 45);
+            logger.flush();
+
+            String printed = output.toString();
+            assertTrue(printed.contains("Matched: Order 7 picked up by Courier 2"), printed);
+            assertTrue(printed.contains("Food Wait Time: 120 ms"), printed);
+            assertTrue(printed.contains("Courier Wait Time: 45 ms"), printed);
+        }
+    }
+
+    @Test
+    public void testEventsBelowTheLevelAreSkipped() {
+        try (EventLogger logger = new EventLogger(16, LogLevel.INFO)) {
+            logger.log(LogEvent.COURIERS_WAITING, 3);
+            logger.log(LogEvent.COURIER_ARRIVED, new Courier("1"));
+            logger.setLevel(LogLevel.DEBUG);
+            logger.log(LogEvent.COURIERS_WAITING, 2);
+            logger.flush();
+
+            assertEquals(List.of("Courier 1 is ready to pickup an order.", "2 couriers waiting for an order."), lines());
+        }
+    }
+
+    @Test
+    public void testOffWritesNothing() {
+        try (EventLogger logger = new EventLogger(16, LogLevel.OFF)) {
+            assertFalse(logger.isEnabled(LogLevel.WARN));
+            logger.warn("Something went wrong");
+            logger.log(LogEvent.ORDER_RECEIVED, new Order("1", "Pizza", 3));
+            logger.flush();
+
+            assertEquals("", output.toString());
+        }
+    }
+
+    @Test
+    public void testFullRingWaitsForTheWriter() throws InterruptedException {
+        int threads = 4;
+        int perThread = 500;
+        try (EventLogger logger = new EventLogger(4, LogLevel.INFO)) {
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Courier courier = new Courier(String.valueOf(t));
+                producers.add(new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        logger.log(LogEvent.COURIER_DISPATCHED, courier, i * 1000L);
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            logger.flush();
+
+            List<String> lines = lines();
+            assertEquals(threads * perThread, lines.size());
+            // Nothing dropped, and each thread's events in the order it logged them
+            int[] nextSecond = new int[threads];
+            for (String line : lines) {
+                String[] words = line.split(" ");
+                int courier = Integer.parseInt(words[1]);
+                assertEquals(nextSecond[courier]++, Integer.parseInt(words[9]), line);
+            }
+        }
+    }
+
+    @Test
+    public void testEventsAfterCloseAreIgnored() {
+        EventLogger logger = new EventLogger(16, LogLevel.INFO);
+        logger.info("Before");
+        logger.close();
+        logger.info("After");
+        logger.flush();
+
+        assertEquals(List.of("Before"), lines());
+    }
+
+    @Test
+    public void testFlushReturnsWhenEventsRaceClose() throws InterruptedException {
+        EventLogger logger = new EventLogger(4, LogLevel.INFO);
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread producer = new Thread(() -> {
+                while (running.get()) {
+                    logger.info("Racing");
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        Thread.sleep(20);
+        logger.close();
+
+        Thread flusher = new Thread(logger::flush);
+        flusher.start();
+        flusher.join(5000);
+        running.set(false);
+        for (Thread producer : producers) {
+            producer.join(5000);
+            assertFalse(producer.isAlive(), "A producer was left waiting on the closed ring");
+        }
+        assertFalse(flusher.isAlive(), "flush() kept waiting after close()");
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new EventLogger(5, LogLevel.OFF).getCapacity());
+        assertEquals(1, new EventLogger(1, LogLevel.OFF).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new EventLogger(0, LogLevel.INFO));
+    }
+
+    @Test
+    public void testParseLevel() {
+        assertEquals(LogLevel.OFF, LogLevel.parse("off", LogLevel.INFO));
+        assertEquals(LogLevel.DEBUG, LogLevel.parse(" DEBUG ", LogLevel.INFO));
+        assertEquals(LogLevel.INFO, LogLevel.parse("loud", LogLevel.INFO));
+        assertEquals(LogLevel.WARN, LogLevel.parse(null, LogLevel.WARN));
+    }
+}
@@ -0,0 +1,97 @@
+package css;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Monitoring.EwmaRate;
+
+public class EwmaRateTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private AtomicLong now;
+    private EwmaRate rate;
+
+    @BeforeEach
+    public void setUp() {
+        now = new AtomicLong(5 * SECOND);
+        rate = new EwmaRate(SECOND, 10 * SECOND, now::get);
+    }
+
+    private void mark(int times) {
+        for (int i = 0; i < times; i++) {
+            rate.mark();
+        }
+    }
+
+    @Test
+    public void testNoRateBeforeTheFirstTick() {
+        mark(50);
+        now.addAndGet(SECOND - 1);
+        assertEquals(0.0, rate.getRate());
+    }
+
+    @Test
+    public void testFirstTickSetsTheRate() {
+        mark(50);
+        now.addAndGet(SECOND);
+        assertEquals(50.0, rate.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testSteadyRateStaysPut() {
+        for (int tick = 0; tick < 30; tick++) {
+            mark(20);
+            now.addAndGet(SECOND);
+        }
+        assertEquals(20.0, rate.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testRateMovesTowardsTheNewRate() {
+        mark(10);
+        now.addAndGet(SECOND);
+        assertEquals(10.0, rate.getRate(), 1e-9);
+        mark(110);
+        now.addAndGet(SECOND);
+        // 1 - e^(-1/10) of the way from 10 to 110
+        assertEquals(10 + 100 * (1 - Math.exp(-0.1)), rate.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testIdleTicksDecayTheRate() {
+        mark(100);
+        now.addAndGet(SECOND);
+        assertEquals(100.0, rate.getRate(), 1e-9);
+        // Ten seconds without a call decay it by e^-1
+        now.addAndGet(10 * SECOND);
+        assertEquals(100 * Math.exp(-1), rate.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testConcurrentMarksAreAllCounted() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> mark(10_000));
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        now.addAndGet(SECOND);
+        assertEquals(40_000.0, rate.getRate(), 1e-9);
+    }
+
+    @Test
+    public void testRealTimeRateStartsAtZero() {
+        EwmaRate realTime = new EwmaRate();
+        realTime.mark();
+        assertTrue(realTime.getRate() >= 0);
+        assertThrows(IllegalArgumentException.class, () -> new EwmaRate(0, SECOND));
+    }
+}
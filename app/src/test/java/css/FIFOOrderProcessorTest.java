@@ -5,8 +5,10 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,8 @@ import css.Consumers.FIFOOrderConsumer;
 import css.Model.Courier;
 import css.Model.Order;
 import css.Model.Statistics;
+import css.Producers.Waiter;
+import css.Timing.SystemClock;
 
 public class FIFOOrderProcessorTest {
 
@@ -68,6 +72,28 @@ public class FIFOOrderProcessorTest {
         assertTrue(notifyKitchenAllOrdersProcessed.get());
     }
 
+    @Test
+    public void testWaitTimeListsAreOptIn() throws InterruptedException {
+        for (boolean retain : new boolean[] {false, true}) {
+            Order order = new Order("1", "pizza", 3);
+            order.setReady(true);
+            order.setFinishedTime(Instant.now());
+            readyOrdersQueue.add(order);
+            courierReadyQueue.add(new Courier("1"));
+            FIFOOrderConsumer processor = new FIFOOrderConsumer(
+                    readyOrdersQueue, courierReadyQueue, waitingCourierQueue,
+                    1, allOrdersPrepared, notifyKitchenAllOrdersProcessed
+            );
+            if (retain) {
+                processor.setRetainWaitTimes(true);
+            }
+            processor.consume();
+
+            assertEquals(1, processor.getStatistics().getFoodWaitHistogram().getCount());
+            assertEquals(retain ? 1 : 0, processor.getStatistics().getFoodWaitTimes().size());
+        }
+    }
+
     @Test
     public void testEmptyQueues() throws InterruptedException {
         FIFOOrderConsumer processor = new FIFOOrderConsumer(
@@ -306,4 +332,20 @@ public class FIFOOrderProcessorTest {
         // which you can check by manually inspecting the console output,
         // or by adding additional methods to check the state of `stats`.
     }
+
+    @Test
+    public void testFinishesWhenTheTotalTurnsOutToBeZero() throws InterruptedException {
+        AtomicInteger totalOrders = new AtomicInteger(Waiter.UNKNOWN_TOTAL);
+        FIFOOrderConsumer processor = new FIFOOrderConsumer(readyOrdersQueue, courierReadyQueue, waitingCourierQueue,
+                totalOrders::get, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock());
+        Thread processorThread = new Thread(processor);
+        processorThread.start();
+        TimeUnit.MILLISECONDS.sleep(50);
+        // e.g. the waiter found an empty file
+        totalOrders.set(0);
+        processorThread.join(2000);
+
+        assertFalse(processorThread.isAlive(), "Consumer is still waiting");
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+    }
 }
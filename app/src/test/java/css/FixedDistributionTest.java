@@ -0,0 +1,21 @@
+package css;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import css.Distributions.FixedDistribution;
+
+public class FixedDistributionTest {
+
+    @Test
+    public void testAlwaysGivesTheValue() {
+        FixedDistribution distribution = new FixedDistribution(4.5);
+        Random random = new Random(42L);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(4.5, distribution.sample(random));
+        }
+    }
+}
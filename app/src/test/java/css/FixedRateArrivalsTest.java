@@ -0,0 +1,47 @@
+package css;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import css.Arrivals.FixedRateArrivals;
+
+public class FixedRateArrivalsTest {
+
+    @Test
+    public void testBatchesMatchTheWaiterCadence() {
+        FixedRateArrivals arrivals = new FixedRateArrivals(2, 1000);
+
+        long[] expected = {0, 0, 1000, 1000, 2000, 2000, 3000};
+        for (long arrival : expected) {
+            assertEquals(arrival, arrivals.nextArrivalMillis());
+        }
+    }
+
+    @Test
+    public void testEvenlySpacedRate() {
+        FixedRateArrivals arrivals = new FixedRateArrivals(3.0);
+
+        assertEquals(0, arrivals.nextArrivalMillis());
+        assertEquals(333, arrivals.nextArrivalMillis());
+        assertEquals(667, arrivals.nextArrivalMillis());
+        assertEquals(1000, arrivals.nextArrivalMillis());
+    }
+
+    @Test
+    public void testRejectsInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> new FixedRateArrivals(0.0));
+        assertThrows(IllegalArgumentException.class, () -> new FixedRateArrivals(0, 1000));
+    }
+
+    @Test
+    public void testResetStartsOver() {
+        FixedRateArrivals arrivals = new FixedRateArrivals(2, 1000);
+        arrivals.nextArrivalMillis();
+        arrivals.nextArrivalMillis();
+        assertEquals(1000, arrivals.nextArrivalMillis());
+
+        arrivals.reset();
+        assertEquals(0, arrivals.nextArrivalMillis());
+    }
+}
@@ -0,0 +1,65 @@
+package css;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Model.IntQueue;
+
+public class IntQueueTest {
+
+    @Test
+    public void testClearEmptiesTheQueue() {
+        IntQueue queue = new IntQueue(2);
+        queue.add(1);
+        queue.add(2);
+        queue.poll();
+
+        queue.clear();
+        queue.add(3);
+
+        assertEquals(1, queue.size());
+        assertEquals(3, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testFifoOrder() {
+        IntQueue queue = new IntQueue();
+        for (int i = 0; i < 100; i++) {
+            queue.add(i);
+        }
+
+        assertEquals(100, queue.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testGrowingAfterWrapAroundKeepsOrder() {
+        IntQueue queue = new IntQueue(4);
+        int next = 0;
+        int expected = 0;
+        // Interleave adds and polls so the head wraps before the queue grows
+        for (int round = 0; round < 50; round++) {
+            queue.add(next++);
+            queue.add(next++);
+            queue.add(next++);
+            assertEquals(expected++, queue.poll());
+        }
+        while (!queue.isEmpty()) {
+            assertEquals(expected++, queue.poll());
+        }
+        assertEquals(next, expected);
+    }
+
+    @Test
+    public void testPollOnEmptyQueueThrows() {
+        assertThrows(NoSuchElementException.class, () -> new IntQueue().poll());
+    }
+}
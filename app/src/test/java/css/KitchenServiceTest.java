@@ -5,19 +5,25 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import css.Distributions.FixedDistribution;
 import css.Model.Courier;
 import css.Model.Order;
 import css.Producers.CourierSetup;
 import css.Producers.KitchenService;
+import css.Timing.ExecutionMode;
+import css.Timing.ScaledClock;
 
 public class KitchenServiceTest {
 
@@ -42,6 +48,21 @@ public class KitchenServiceTest {
         courierSetup.setUpCouriers(waitingCourierQueue, 4);
     }
 
+    @Test
+    public void testTravelTimesAreSeeded() {
+        SplittableRandom first = new SplittableRandom(7L);
+        SplittableRandom second = new SplittableRandom(7L);
+
+        for (int i = 0; i < 1000; i++) {
+            int travelMillis = KitchenService.sampleTravelMillis(KitchenService.DEFAULT_TRAVEL_TIME, first);
+            assertTrue(travelMillis >= KitchenService.MIN_COURIER_ARRIVAL_MILLIS
+                    && travelMillis < KitchenService.MAX_COURIER_ARRIVAL_MILLIS, "Travel time " + travelMillis);
+            assertEquals(travelMillis, KitchenService.sampleTravelMillis(KitchenService.DEFAULT_TRAVEL_TIME, second));
+        }
+        // Never negative, whatever the distribution gives
+        assertEquals(0, KitchenService.sampleTravelMillis(new FixedDistribution(-5), first));
+    }
+
     @Test
     public void testKitchenServiceWithNoOrders() throws InterruptedException {
         KitchenService kitchenService = new KitchenService(
@@ -320,6 +341,79 @@ public class KitchenServiceTest {
         System.setOut(System.out);
     }
 
+    @Test
+    public void testKitchenServiceInVirtualThreadMode() throws InterruptedException {
+        List<Order> orders = createTestOrders(4);
+        ordersReceivedQueue.addAll(orders);
+
+        KitchenService kitchenService = new KitchenService(
+                ordersReceivedQueue,
+                waitingCourierQueue,
+                courierReadyQueue,
+                readyOrdersQueue,
+                allOrdersReceived,
+                allOrdersPrepared,
+                notifyKitchenAllOrdersProcessed,
+                new ScaledClock(100),
+                ExecutionMode.VIRTUAL
+        );
+
+        Thread kitchenThread = new Thread(kitchenService);
+        kitchenThread.start();
+
+        // Every order gets prepared and every courier arrives
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(readyOrdersQueue.poll(5, TimeUnit.SECONDS), "Order was not prepared");
+            Courier courier = courierReadyQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(courier, "Courier did not arrive");
+            waitingCourierQueue.add(courier);
+        }
+
+        allOrdersReceived.set(true);
+        notifyKitchenAllOrdersProcessed.set(true);
+        kitchenThread.join();
+
+        assertTrue(allOrdersPrepared.get());
+    }
+
+    @Test
+    public void testKitchenServiceInTimingWheelMode() throws InterruptedException {
+        List<Order> orders = createTestOrders(4);
+        ordersReceivedQueue.addAll(orders);
+
+        KitchenService kitchenService = new KitchenService(
+                ordersReceivedQueue,
+                waitingCourierQueue,
+                courierReadyQueue,
+                readyOrdersQueue,
+                allOrdersReceived,
+                allOrdersPrepared,
+                notifyKitchenAllOrdersProcessed,
+                new ScaledClock(100),
+                ExecutionMode.TIMING_WHEEL
+        );
+
+        Thread kitchenThread = new Thread(kitchenService);
+        kitchenThread.start();
+
+        // Arrivals and completions fire from the wheel instead of per-task threads
+        for (int i = 0; i < 4; i++) {
+            Order order = readyOrdersQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(order, "Order was not prepared");
+            assertTrue(order.isReady());
+            Courier courier = courierReadyQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(courier, "Courier did not arrive");
+            assertNotNull(courier.getArrivalTime());
+            waitingCourierQueue.add(courier);
+        }
+
+        allOrdersReceived.set(true);
+        notifyKitchenAllOrdersProcessed.set(true);
+        kitchenThread.join();
+
+        assertTrue(allOrdersPrepared.get());
+    }
+
     public List<Order> createTestOrders(int num) {
         List<Order> orders = new ArrayList<>();
         Random rand = new Random();
@@ -0,0 +1,130 @@
+package css;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Courier;
+import css.Model.LifecycleStage;
+import css.Model.LifecycleTracer;
+import css.Model.LifecycleTracer.Segment;
+import css.Model.Order;
+
+public class LifecycleTracerTest {
+
+    private LifecycleTracer tracer;
+
+    @BeforeEach
+    public void setUp() {
+        tracer = new LifecycleTracer();
+    }
+
+    @Test
+    public void testReceivedStartsTheTrace() {
+        Order order = new Order("1", "Pizza", 3);
+        assertFalse(order.isTraced());
+        tracer.orderReceived(order);
+        assertTrue(order.isTraced());
+        assertTrue(order.getStageNanos(LifecycleStage.RECEIVED) != Order.STAGE_NOT_REACHED);
+    }
+
+    @Test
+    public void testPickupCompletesTheTrace() throws InterruptedException {
+        Courier courier = new Courier("c");
+        courier.dispatch(Instant.now());
+        Order order = new Order("1", "Pizza", 3);
+        tracer.orderReceived(order);
+        Thread.sleep(2);
+        order.markStage(LifecycleStage.TAKEN_BY_KITCHEN);
+        Thread.sleep(5);
+        order.markStage(LifecycleStage.PREP_DONE);
+        courier.arrive(Instant.now());
+        Thread.sleep(3);
+        tracer.orderPickedUp(order, courier);
+
+        assertEquals(1, tracer.getTracedOrders());
+        assertEquals(0, tracer.getIncompleteTraces());
+        assertEquals(courier.getDispatchedNanos(), order.getStageNanos(LifecycleStage.COURIER_DISPATCHED));
+        assertEquals(courier.getArrivedNanos(), order.getStageNanos(LifecycleStage.COURIER_ARRIVED));
+        assertTrue(tracer.getHistogram(Segment.QUEUEING).getMax() >= 2_000);
+        assertTrue(tracer.getHistogram(Segment.PREP).getMax() >= 5_000);
+        assertTrue(tracer.getHistogram(Segment.COURIER_TRAVEL).getMax() >= 7_000);
+        // The courier came after the food, so the wait starts at its arrival
+        long pickupWait = tracer.getHistogram(Segment.PICKUP_WAIT).getMax();
+        assertTrue(pickupWait >= 3_000 && pickupWait < tracer.getHistogram(Segment.TOTAL).getMax(), "" + pickupWait);
+        assertTrue(tracer.getHistogram(Segment.TOTAL).getMax() >= 10_000);
+    }
+
+    @Test
+    public void testPickupWaitStartsWhenTheFoodIsReady() throws InterruptedException {
+        Order order = new Order("1", "Pizza", 3);
+        tracer.orderReceived(order);
+        order.markStage(LifecycleStage.TAKEN_BY_KITCHEN);
+        Courier courier = new Courier("c");
+        courier.dispatch(Instant.now());
+        courier.arrive(Instant.now());
+        // The food is ready 20 ms after the courier got there
+        Thread.sleep(20);
+        order.markStage(LifecycleStage.PREP_DONE);
+        long sincePrepDone = System.nanoTime();
+        tracer.orderPickedUp(order, courier);
+        long pickupWaitLimit = (System.nanoTime() - sincePrepDone) / 1000;
+
+        assertTrue(tracer.getHistogram(Segment.PICKUP_WAIT).getMax() <= pickupWaitLimit);
+        assertTrue(tracer.getHistogram(Segment.PREP).getMax() >= 20_000);
+    }
+
+    @Test
+    public void testUntracedOrdersAreIgnored() {
+        tracer.orderPickedUp(new Order("1", "Pizza", 3), new Courier("c"));
+        assertEquals(0, tracer.getTracedOrders());
+        assertEquals(0, tracer.getIncompleteTraces());
+    }
+
+    @Test
+    public void testMissingStagesAreCounted() {
+        Order order = new Order("1", "Pizza", 3);
+        tracer.orderReceived(order);
+        // Never dispatched, taken or prepared
+        tracer.orderPickedUp(order, new Courier("c"));
+
+        assertEquals(1, tracer.getTracedOrders());
+        assertEquals(1, tracer.getIncompleteTraces());
+        assertEquals(0, tracer.getHistogram(Segment.PREP).getCount());
+        assertEquals(0, tracer.getHistogram(Segment.PICKUP_WAIT).getCount());
+    }
+
+    @Test
+    public void testPrintBreakdown() {
+        Order order = new Order("1", "Pizza", 3);
+        tracer.orderReceived(order);
+        Courier courier = new Courier("c");
+        courier.dispatch(Instant.now());
+        order.markStage(LifecycleStage.TAKEN_BY_KITCHEN);
+        order.markStage(LifecycleStage.PREP_DONE);
+        courier.arrive(Instant.now());
+        tracer.orderPickedUp(order, courier);
+
+        PrintStream console = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        try {
+            tracer.printBreakdown();
+        } finally {
+            System.setOut(console);
+        }
+        String printed = output.toString();
+        assertTrue(printed.contains("Lifecycle breakdown over 1 orders"), printed);
+        for (Segment segment : Segment.values()) {
+            assertTrue(printed.contains("  " + segment.getLabel() + " "), printed);
+        }
+        assertTrue(printed.contains("% of total"), printed);
+        assertFalse(printed.contains("missing a stage"), printed);
+    }
+}
@@ -0,0 +1,46 @@
+package css;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Distributions.LogNormalDistribution;
+
+public class LogNormalDistributionTest {
+
+    @Test
+    public void testMeanAndStandardDeviation() {
+        LogNormalDistribution distribution = LogNormalDistribution.withMeanAndStdDev(9000, 4000);
+        SplittableRandom random = new SplittableRandom(42L);
+
+        int samples = 200_000;
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int i = 0; i < samples; i++) {
+            double value = distribution.sample(random);
+            assertTrue(value > 0, "Sampled " + value);
+            sum += value;
+            sumOfSquares += value * value;
+        }
+        double mean = sum / samples;
+        double standardDeviation = Math.sqrt(sumOfSquares / samples - mean * mean);
+        assertEquals(9000, mean, 90);
+        assertEquals(4000, standardDeviation, 120);
+    }
+
+    @Test
+    public void testZeroSigmaIsTheMedian() {
+        LogNormalDistribution distribution = new LogNormalDistribution(Math.log(5000), 0);
+
+        assertEquals(5000, distribution.sample(new SplittableRandom(1L)), 1e-6);
+    }
+
+    @Test
+    public void testRejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new LogNormalDistribution(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> LogNormalDistribution.withMeanAndStdDev(0, 1));
+    }
+}
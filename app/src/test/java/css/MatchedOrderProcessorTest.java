@@ -1,10 +1,12 @@
 package css;
 
 import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -16,7 +18,11 @@ import org.junit.jupiter.api.Test;
 import css.Consumers.MatchedOrderConsumer;
 import css.Model.Courier;
 import css.Model.Order;
+import css.Model.ReadyOrderIndex;
 import css.Model.Statistics;
+import css.Monitoring.SimulationMetrics;
+import css.Producers.Waiter;
+import css.Timing.SystemClock;
 
 public class MatchedOrderProcessorTest {
 
@@ -178,5 +184,209 @@ public void testInterruptedExceptionHandling() throws InterruptedException {
     // Additionally, you could check if some expected cleanup occurred, depending on how your code handles interruption.
 }
 
+    @Test
+    public void testCouriersFindTheirOrdersInTheIndex() throws InterruptedException {
+        // Many ready orders, couriers arriving in reverse order of readiness
+        int numOrders = 2000;
+        ReadyOrderIndex readyOrderIndex = new ReadyOrderIndex();
+        for (int i = 0; i < numOrders; i++) {
+            Order order = new Order(String.valueOf(i), "pizza", 1);
+            order.setReady(true);
+            order.setFinishedTime(Instant.now());
+            readyOrderIndex.add(order);
+        }
+        for (int i = numOrders - 1; i >= 0; i--) {
+            Courier courier = new Courier(String.valueOf(i));
+            courier.setOrderId(String.valueOf(i));
+            courier.setArrivalTime(Instant.now());
+            courierReadyQueue.add(courier);
+        }
+
+        MatchedOrderConsumer processor = new MatchedOrderConsumer(
+                readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue,
+                numOrders, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock()
+        );
+        Thread processorThread = new Thread(processor::run);
+        processorThread.start();
+        processorThread.join(10_000);
+
+        assertFalse(processorThread.isAlive(), "Consumer did not finish");
+        assertTrue(readyOrderIndex.isEmpty());
+        assertEquals(numOrders, waitingCourierQueue.size());
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+    }
+
+    @Test
+    public void testPickupHappensAsSoonAsOrderIsReady() throws InterruptedException {
+        ReadyOrderIndex readyOrderIndex = new ReadyOrderIndex();
+        Courier courier = new Courier("1");
+        courier.setOrderId("1");
+        courier.setArrivalTime(Instant.now());
+        courierReadyQueue.add(courier);
+
+        MatchedOrderConsumer processor = new MatchedOrderConsumer(
+                readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue,
+                1, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock()
+        );
+        Thread processorThread = new Thread(processor::run);
+        processorThread.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        Order order = new Order("1", "pizza", 1);
+        order.setReady(true);
+        order.setFinishedTime(Instant.now());
+        readyOrderIndex.add(order);
+
+        // Previously the courier only rechecked every 500 ms
+        Courier pickedUp = waitingCourierQueue.poll(100, TimeUnit.MILLISECONDS);
+        assertEquals(courier, pickedUp);
+        processorThread.join(1000);
+        assertFalse(processorThread.isAlive());
+    }
+
+    @Test
+    public void testPickupFromQueueWithoutSharedIndex() throws InterruptedException {
+        Courier courier = new Courier("1");
+        courier.setOrderId("1");
+        courier.setArrivalTime(Instant.now());
+        courierReadyQueue.add(courier);
+
+        MatchedOrderConsumer processor = new MatchedOrderConsumer(
+                readyOrdersQueue, courierReadyQueue, waitingCourierQueue,
+                1, allOrdersPrepared, notifyKitchenAllOrdersProcessed
+        );
+        Thread processorThread = new Thread(processor::run);
+        processorThread.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        Order order = new Order("1", "pizza", 1);
+        order.setReady(true);
+        order.setFinishedTime(Instant.now());
+        readyOrdersQueue.add(order);
+
+        assertEquals(courier, waitingCourierQueue.poll(100, TimeUnit.MILLISECONDS));
+        processorThread.join(1000);
+        assertFalse(processorThread.isAlive());
+        assertTrue(readyOrdersQueue.isEmpty());
+    }
+
+    @Test
+    public void testReadyOrderIsNotBlockedByCourierAheadOfIt() throws InterruptedException {
+        ReadyOrderIndex readyOrderIndex = new ReadyOrderIndex();
+        // Courier 1 arrives first but its order is still being prepared
+        Courier courier1 = new Courier("1");
+        courier1.setOrderId("1");
+        courier1.setArrivalTime(Instant.now());
+        Courier courier2 = new Courier("2");
+        courier2.setOrderId("2");
+        courier2.setArrivalTime(Instant.now());
+        courierReadyQueue.add(courier1);
+        courierReadyQueue.add(courier2);
 
+        Order order2 = new Order("2", "burger", 1);
+        order2.setReady(true);
+        order2.setFinishedTime(Instant.now());
+        readyOrderIndex.add(order2);
+
+        MatchedOrderConsumer processor = new MatchedOrderConsumer(
+                readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue,
+                2, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock()
+        );
+        Thread processorThread = new Thread(processor::run);
+        processorThread.start();
+
+        // Courier 2 picks up while courier 1 is still waiting
+        assertEquals(courier2, waitingCourierQueue.poll(1, TimeUnit.SECONDS));
+        assertFalse(notifyKitchenAllOrdersProcessed.get());
+
+        Order order1 = new Order("1", "pizza", 1);
+        order1.setReady(true);
+        order1.setFinishedTime(Instant.now());
+        readyOrderIndex.add(order1);
+
+        assertEquals(courier1, waitingCourierQueue.poll(1, TimeUnit.SECONDS));
+        processorThread.join(1000);
+        assertFalse(processorThread.isAlive());
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+    }
+
+    @Test
+    public void testFinishesWhenTheTotalTurnsOutToBeZero() throws InterruptedException {
+        AtomicInteger totalOrders = new AtomicInteger(Waiter.UNKNOWN_TOTAL);
+        MatchedOrderConsumer consumer = new MatchedOrderConsumer(readyOrdersQueue, new ReadyOrderIndex(), courierReadyQueue,
+                waitingCourierQueue, totalOrders::get, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock());
+        Thread consumerThread = new Thread(consumer);
+        consumerThread.start();
+        TimeUnit.MILLISECONDS.sleep(50);
+        // e.g. the waiter found an empty file
+        totalOrders.set(0);
+        consumerThread.join(2000);
+
+        assertFalse(consumerThread.isAlive(), "Consumer is still waiting");
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+    }
+
+    @Test
+    public void testPickupsRunOffTheThreadThatAddsTheOrder() throws InterruptedException {
+        ReadyOrderIndex readyOrderIndex = new ReadyOrderIndex();
+        BlockingQueue<String> pickupThreads = new ArrayBlockingQueue<>(1);
+        MatchedOrderConsumer processor = new MatchedOrderConsumer(
+                readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue,
+                1, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock()
+        );
+        processor.setMetrics(new SimulationMetrics() {
+            @Override
+            public void orderPickedUp(Order order, Courier courier, long endWaitingTime) {
+                pickupThreads.add(Thread.currentThread().getName());
+            }
+        });
+        Courier courier = new Courier("1");
+        courier.setOrderId("1");
+        courier.setArrivalTime(Instant.now());
+        courierReadyQueue.add(courier);
+        Thread processorThread = new Thread(processor::run);
+        processorThread.start();
+
+        // The courier is waiting before the order is ready
+        TimeUnit.MILLISECONDS.sleep(50);
+        Order order = new Order("1", "pizza", 1);
+        order.setReady(true);
+        order.setFinishedTime(Instant.now());
+        readyOrderIndex.add(order);
+        processorThread.join(1000);
+
+        assertFalse(processorThread.isAlive());
+        assertEquals("order-pickup", pickupThreads.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedPickupStillReturnsTheCourier() throws InterruptedException {
+        ReadyOrderIndex readyOrderIndex = new ReadyOrderIndex();
+        MatchedOrderConsumer processor = new MatchedOrderConsumer(
+                readyOrdersQueue, readyOrderIndex, courierReadyQueue, waitingCourierQueue,
+                1, allOrdersPrepared, notifyKitchenAllOrdersProcessed, new SystemClock()
+        );
+        processor.setMetrics(new SimulationMetrics() {
+            @Override
+            public void orderPickedUp(Order order, Courier courier, long endWaitingTime) {
+                throw new IllegalStateException("Metrics are broken");
+            }
+        });
+        Order order = new Order("1", "pizza", 1);
+        order.setReady(true);
+        order.setFinishedTime(Instant.now());
+        readyOrderIndex.add(order);
+        Courier courier = new Courier("1");
+        courier.setOrderId("1");
+        courier.setArrivalTime(Instant.now());
+        courierReadyQueue.add(courier);
+
+        Thread processorThread = new Thread(processor::run);
+        processorThread.start();
+        processorThread.join(1000);
+
+        assertFalse(processorThread.isAlive());
+        assertEquals(courier, waitingCourierQueue.poll());
+        assertTrue(readyOrderIndex.isEmpty());
+    }
 }
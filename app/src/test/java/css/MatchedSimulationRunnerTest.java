@@ -1,20 +1,38 @@
 package css;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
 import css.Consumers.MatchedOrderConsumer;
+import css.Logging.ChromeTraceExporter;
 import css.Model.Courier;
+import css.Model.LifecycleTracer;
+import css.Model.LifecycleTracer.Segment;
 import css.Model.Order;
+import css.Monitoring.PrometheusEndpoint;
+import css.Monitoring.SimulationMonitor;
 import css.Producers.CourierSetup;
 import css.Producers.KitchenService;
+import css.Producers.OrderStreamReader;
+import css.Producers.SyntheticOrderSource;
 import css.Producers.Waiter;
 import css.SimulationRunner.MatchedSimulationRunner;
+import css.Timing.ScaledClock;
 
 public class MatchedSimulationRunnerTest {
 
@@ -67,6 +85,101 @@ public class MatchedSimulationRunnerTest {
         assertEquals(0, waitingCourierQueue.size());
         assertEquals(0, courierReadyQueue.size());
     }
-}
 
+    @Test
+    public void testLifecycleTracing() {
+        // 6 orders at 100 times real time
+        MatchedSimulationRunner runner = new MatchedSimulationRunner("unused.json", 3, new ScaledClock(100));
+        runner.setOrderSource(new SyntheticOrderSource(6, 7L));
+        runner.setSeed(7L);
+        LifecycleTracer tracer = new LifecycleTracer();
+        runner.setLifecycleTracer(tracer);
+        runner.run();
+
+        assertEquals(6, tracer.getTracedOrders());
+        assertEquals(0, tracer.getIncompleteTraces());
+        // Prep takes at least 3 simulated seconds, 30 real ms
+        assertTrue(tracer.getHistogram(Segment.PREP).getMin() >= 29_000, "Prep " + tracer.getHistogram(Segment.PREP).getMin());
+        assertTrue(tracer.getHistogram(Segment.TOTAL).getMin() >= tracer.getHistogram(Segment.PREP).getMin());
+    }
+
+    @Test
+    public void testChromeTrace() throws IOException {
+        Path traceFile = Files.createTempFile("trace", ".json");
+        try {
+            MatchedSimulationRunner runner = new MatchedSimulationRunner("unused.json", 3, new ScaledClock(100));
+            runner.setOrderSource(new SyntheticOrderSource(6, 7L));
+            try (ChromeTraceExporter exporter = new ChromeTraceExporter(traceFile.toString())) {
+                runner.setTraceExporter(exporter);
+                runner.run();
+            }
+
+            int trips = 0;
+            int preps = 0;
+            int pickups = 0;
+            for (JsonElement element : JsonParser.parseString(Files.readString(traceFile)).getAsJsonArray()) {
+                String category = element.getAsJsonObject().has("cat") ? element.getAsJsonObject().get("cat").getAsString() : "";
+                String name = element.getAsJsonObject().get("name").getAsString();
+                if (name.equals("Travel")) {
+                    trips++;
+                } else if (category.equals("prep")) {
+                    preps++;
+                } else if (name.equals("Pickup")) {
+                    pickups++;
+                }
+            }
+            assertEquals(6, trips);
+            assertEquals(6, preps);
+            assertEquals(6, pickups);
+        } finally {
+            Files.deleteIfExists(traceFile);
+        }
+    }
+
+    @Test
+    public void testEmptyOrderSource() throws InterruptedException {
+        MatchedSimulationRunner runner = new MatchedSimulationRunner("unused.json", 3, new ScaledClock(100));
+        runner.setOrderSource(new OrderStreamReader(new StringReader("[]")));
+        Thread runnerThread = new Thread(runner::run);
+        runnerThread.start();
+        runnerThread.join(10_000);
 
+        assertFalse(runnerThread.isAlive(), "The run did not finish");
+        assertEquals(0, runner.getMonitor().getOrdersPickedUp());
+    }
+
+    @Test
+    public void testMonitor() {
+        MatchedSimulationRunner runner = new MatchedSimulationRunner("unused.json", 3, new ScaledClock(100));
+        runner.setOrderSource(new SyntheticOrderSource(6, 7L));
+        runner.run();
+
+        SimulationMonitor monitor = runner.getMonitor();
+        // Unregistered once the run is over, but the last readings stay
+        assertNull(monitor.getRegisteredName());
+        assertEquals(6, monitor.getOrdersPickedUp());
+        assertEquals(0, monitor.getOrdersInPrep());
+        assertEquals(0, monitor.getCouriersInTransit());
+        assertEquals(0, monitor.getReadyOrdersQueueDepth());
+        assertEquals(6, monitor.getFoodWaitHistogram().getCount());
+    }
+
+    @Test
+    public void testPrometheusEndpoint() throws IOException {
+        MatchedSimulationRunner runner = new MatchedSimulationRunner("unused.json", 3, new ScaledClock(100));
+        runner.setOrderSource(new SyntheticOrderSource(6, 7L));
+        try (PrometheusEndpoint endpoint = new PrometheusEndpoint(0)) {
+            runner.setPrometheusEndpoint(endpoint);
+            runner.run();
+
+            long pickups = 0;
+            for (String line : endpoint.scrape().split("\n")) {
+                if (line.startsWith("css_pickups_total{strategy=\"Matched\"")) {
+                    pickups += Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+                }
+            }
+            assertEquals(6, pickups);
+            assertTrue(endpoint.scrape().contains("css_courier_arrivals_total{strategy=\"Matched\"} 6\n"));
+        }
+    }
+}
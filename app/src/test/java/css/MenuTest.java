@@ -0,0 +1,66 @@
+package css;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Menu;
+import css.Model.Order;
+
+public class MenuTest {
+
+    @Test
+    public void testSameNameGetsSameId() {
+        int id = Menu.intern("Menu Test Pizza");
+
+        assertEquals(id, Menu.intern(new String("Menu Test Pizza")));
+        assertNotEquals(id, Menu.intern("Menu Test Burger"));
+        assertEquals("Menu Test Pizza", Menu.nameOf(id));
+    }
+
+    @Test
+    public void testNullFoodItem() {
+        assertEquals(Menu.NO_FOOD_ITEM, Menu.intern(null));
+        assertNull(Menu.nameOf(Menu.NO_FOOD_ITEM));
+        assertNull(new Order("1").getFoodItem());
+    }
+
+    @Test
+    public void testOrdersShareMenuEntries() {
+        Order first = new Order("1", "Menu Test Salad", 3);
+        Order second = new Order("2", "Menu Test Salad", 5);
+
+        assertEquals(first.getFoodItemId(), second.getFoodItemId());
+        assertEquals("Menu Test Salad", second.getFoodItem());
+    }
+
+    @Test
+    public void testConcurrentInterningGivesOneIdPerName() throws InterruptedException {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    int id = Menu.intern("Menu Test Item " + i);
+                    assertEquals("Menu Test Item " + i, Menu.nameOf(id));
+                    if (i == 42) {
+                        ids.add(id);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, ids.size());
+    }
+}
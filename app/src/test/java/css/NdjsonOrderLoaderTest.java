@@ -0,0 +1,129 @@
+package css;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Order;
+import css.Producers.LoadOrders;
+import css.Producers.NdjsonOrderLoader;
+
+public class NdjsonOrderLoaderTest {
+
+    private static String writeTempFile(String content) throws IOException {
+        File tempFile = File.createTempFile("orders", NdjsonOrderLoader.FILE_EXTENSION);
+        tempFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write(content);
+        }
+        return tempFile.getAbsolutePath();
+    }
+
+    @Test
+    public void testLoadsOneOrderPerLine() throws IOException {
+        String filePath = writeTempFile(
+                "{\"id\": \"a8cfcb76-7f24-4420-a5ba-d46dd77bdffd\", \"name\": \"Banana Split\", \"prepTime\": 4}\r\n"
+                + "\n"
+                + "{\"prepTime\":14,\"name\":\"McFlury\",\"id\":\"2\",\"extra\":\"ignored\"}\n"
+                + "{\"id\": \"3\", \"name\": \"Acai Bowl\", \"prepTime\": 12}");
+
+        List<Order> orders = new NdjsonOrderLoader(filePath).getOrders();
+
+        assertEquals(List.of(
+                new Order("a8cfcb76-7f24-4420-a5ba-d46dd77bdffd", "Banana Split", 4),
+                new Order("2", "McFlury", 14),
+                new Order("3", "Acai Bowl", 12)), orders);
+    }
+
+    @Test
+    public void testReadsOptionalCreationTime() throws IOException {
+        String filePath = writeTempFile(
+                "{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3, \"createdAt\": 1715970600250}\n"
+                + "{\"createdAt\": \"2024-05-17T18:30:01.500Z\", \"id\": \"2\", \"name\": \"Burger\", \"prepTime\": 4}\n"
+                + "{\"id\": \"3\", \"name\": \"Salad\", \"prepTime\": 1, \"createdAt\": null}\n"
+                + "{\"id\": \"4\", \"name\": \"Soup\", \"prepTime\": 2}\n");
+
+        List<Order> orders = new NdjsonOrderLoader(filePath).getOrders();
+
+        assertEquals(4, orders.size());
+        assertEquals(1_715_970_600_250L, orders.get(0).getCreatedAtMillis());
+        assertEquals(1_715_970_601_500L, orders.get(1).getCreatedAtMillis());
+        assertFalse(orders.get(2).hasCreatedAt());
+        assertFalse(orders.get(3).hasCreatedAt());
+    }
+
+    @Test
+    public void testFallsBackToGsonForEscapesAndNestedValues() throws IOException {
+        String filePath = writeTempFile(
+                "{\"id\": \"1\", \"name\": \"Caf\\u00e9 \\\"Latte\\\"\", \"prepTime\": 3}\n"
+                + "{\"id\": \"2\", \"name\": \"Kebab\", \"tags\": [\"hot\"], \"prepTime\": 5.0}\n");
+
+        List<Order> orders = new NdjsonOrderLoader(filePath).getOrders();
+
+        assertEquals(2, orders.size());
+        assertEquals("Café \"Latte\"", orders.get(0).getFoodItem());
+        assertEquals(new Order("2", "Kebab", 5), orders.get(1));
+    }
+
+    @Test
+    public void testChunksAreMergedInFileOrder() throws IOException {
+        // Big enough to be split into several chunks
+        int count = 100_000;
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            content.append("{\"id\": \"").append(i).append("\", \"name\": \"Item ").append(i % 7)
+                    .append("\", \"prepTime\": ").append(i % 15).append("}\n");
+        }
+        String filePath = writeTempFile(content.toString());
+        assertTrue(new File(filePath).length() > 2 << 20);
+
+        List<Order> orders = new NdjsonOrderLoader(filePath, 4).getOrders();
+
+        assertEquals(count, orders.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(new Order(String.valueOf(i), "Item " + (i % 7), i % 15), orders.get(i));
+        }
+    }
+
+    @Test
+    public void testMatchesLoadOrders() throws IOException {
+        String json = "[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3},"
+                + "{\"id\": \"2\", \"name\": \"Burger\", \"prepTime\": 4}]";
+        File jsonFile = File.createTempFile("orders", ".json");
+        jsonFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(jsonFile)) {
+            writer.write(json);
+        }
+        String ndjsonPath = writeTempFile("{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3}\n"
+                + "{\"id\": \"2\", \"name\": \"Burger\", \"prepTime\": 4}\n");
+
+        assertEquals(new LoadOrders(jsonFile.getAbsolutePath()).getOrders(), new NdjsonOrderLoader(ndjsonPath).getOrders());
+    }
+
+    @Test
+    public void testIsNdjsonFile() {
+        assertTrue(NdjsonOrderLoader.isNdjsonFile("replay/orders.ndjson"));
+        assertFalse(NdjsonOrderLoader.isNdjsonFile("dispatch_orders.json"));
+    }
+
+    @Test
+    public void testMissingFileLoadsNoOrders() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        try {
+            assertTrue(new NdjsonOrderLoader("invalid_path/orders.ndjson").getOrders().isEmpty());
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertTrue(outputStream.toString().contains("File not found."));
+    }
+}
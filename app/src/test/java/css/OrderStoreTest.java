@@ -0,0 +1,112 @@
+package css;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Order;
+import css.Model.OrderStore;
+
+public class OrderStoreTest {
+
+    @Test
+    public void testHandlesFollowInsertionOrder() {
+        OrderStore store = OrderStore.of(List.of(
+                new Order("a8cfcb76-7f24-4420-a5ba-d46dd77bdffd", "Banana Split", 4),
+                new Order("2", "McFlury", 14)));
+
+        assertEquals(2, store.size());
+        assertEquals("a8cfcb76-7f24-4420-a5ba-d46dd77bdffd", store.getId(0));
+        assertEquals("Banana Split", store.getFoodItem(0));
+        assertEquals(4, store.getPrepTime(0));
+        assertEquals("2", store.getId(1));
+        assertEquals("McFlury", store.getFoodItem(1));
+        assertEquals(14, store.getPrepTime(1));
+    }
+
+    @Test
+    public void testTimesAndCourierStartUnset() {
+        OrderStore store = new OrderStore();
+        int handle = store.add(1L, 2L, 0, 5);
+
+        assertEquals(OrderStore.NOT_SET, store.getReceivedNanos(handle));
+        assertFalse(store.isReady(handle));
+        assertFalse(store.isPickedUp(handle));
+        assertEquals(OrderStore.NO_COURIER, store.getCourierId(handle));
+
+        store.setReceivedNanos(handle, 10);
+        store.setReadyNanos(handle, 20);
+        store.setPickedUpNanos(handle, 30);
+        store.setCourierId(handle, 7);
+
+        assertEquals(10, store.getReceivedNanos(handle));
+        assertTrue(store.isReady(handle));
+        assertEquals(20, store.getReadyNanos(handle));
+        assertTrue(store.isPickedUp(handle));
+        assertEquals(30, store.getPickedUpNanos(handle));
+        assertEquals(7, store.getCourierId(handle));
+    }
+
+    @Test
+    public void testResetProgressClearsTimesAndCouriers() {
+        OrderStore store = new OrderStore();
+        int handle = store.add(1L, 2L, 0, 5);
+        store.setReceivedNanos(handle, 10);
+        store.setReadyNanos(handle, 20);
+        store.setPickedUpNanos(handle, 30);
+        store.setCourierId(handle, 7);
+
+        store.resetProgress();
+
+        assertEquals(OrderStore.NOT_SET, store.getReceivedNanos(handle));
+        assertFalse(store.isReady(handle));
+        assertFalse(store.isPickedUp(handle));
+        assertEquals(OrderStore.NO_COURIER, store.getCourierId(handle));
+        assertEquals(5, store.getPrepTime(handle));
+    }
+
+    @Test
+    public void testStoreGrowsPastInitialCapacity() {
+        OrderStore store = new OrderStore(2);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, store.add(i, -i, 0, i % 15));
+        }
+        store.add(new Order("text-id", "Pizza", 3));
+
+        assertEquals(1001, store.size());
+        assertEquals(999, store.getIdMostSigBits(999));
+        assertEquals(-999, store.getIdLeastSigBits(999));
+        assertEquals(999 % 15, store.getPrepTime(999));
+        assertEquals("text-id", store.getId(1000));
+    }
+
+    @Test
+    public void testCreationTimesAreOptional() {
+        Order timed = new Order("58e9b5fe-3fde-4a27-8e98-682e58a4a65d", "McFlury", 14);
+        timed.setCreatedAtMillis(1_715_970_600_250L);
+        OrderStore store = new OrderStore(1);
+        store.add(new Order("42", "Acai Bowl", 12));
+        assertEquals(Order.NO_TIMESTAMP, store.getCreatedAtMillis(0));
+
+        store.add(timed);
+        store.add(new Order("43", "Acai Bowl", 12));
+
+        assertEquals(Order.NO_TIMESTAMP, store.getCreatedAtMillis(0));
+        assertEquals(1_715_970_600_250L, store.getCreatedAtMillis(1));
+        assertEquals(Order.NO_TIMESTAMP, store.getCreatedAtMillis(2));
+        assertEquals(1_715_970_600_250L, store.toOrder(1).getCreatedAtMillis());
+    }
+
+    @Test
+    public void testToOrderRoundTrips() {
+        Order uuidOrder = new Order("58e9b5fe-3fde-4a27-8e98-682e58a4a65d", "McFlury", 14);
+        Order textOrder = new Order("42", "Acai Bowl", 12);
+        OrderStore store = OrderStore.of(List.of(uuidOrder, textOrder));
+
+        assertEquals(uuidOrder, store.toOrder(0));
+        assertEquals(textOrder, store.toOrder(1));
+    }
+}
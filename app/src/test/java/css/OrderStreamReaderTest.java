@@ -0,0 +1,85 @@
+package css;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Order;
+import css.Producers.LoadOrders;
+import css.Producers.OrderStreamReader;
+
+public class OrderStreamReaderTest {
+
+    @Test
+    public void testReadsOrdersOneAtATime() throws IOException {
+        String json = "[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3},"
+                + "{\"prepTime\": 5, \"extra\": {\"nested\": [1, 2]}, \"name\": \"Burger\", \"id\": \"2\"}]";
+
+        try (OrderStreamReader reader = new OrderStreamReader(new StringReader(json))) {
+            assertTrue(reader.hasNext());
+            assertEquals(new Order("1", "Pizza", 3), reader.next());
+            assertEquals(1, reader.getOrdersRead());
+
+            // Fields can come in any order and unknown ones are skipped
+            assertEquals(new Order("2", "Burger", 5), reader.next());
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @Test
+    public void testMatchesLoadOrders() throws IOException {
+        String filePath = "src/test/resources/small_orders.json";
+        List<Order> streamed = new ArrayList<>();
+        try (OrderStreamReader reader = new OrderStreamReader(filePath)) {
+            reader.forEachRemaining(streamed::add);
+        }
+
+        assertEquals(new LoadOrders(filePath).getOrders(), streamed);
+    }
+
+    @Test
+    public void testReadsOptionalCreationTime() throws IOException {
+        String json = "[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3, \"createdAt\": 1715970600250},"
+                + "{\"id\": \"2\", \"name\": \"Burger\", \"prepTime\": 4, \"createdAt\": \"2024-05-17T18:30:01.500Z\"},"
+                + "{\"id\": \"3\", \"name\": \"Salad\", \"prepTime\": 1, \"createdAt\": null},"
+                + "{\"id\": \"4\", \"name\": \"Soup\", \"prepTime\": 2}]";
+
+        try (OrderStreamReader reader = new OrderStreamReader(new StringReader(json))) {
+            assertEquals(1_715_970_600_250L, reader.next().getCreatedAtMillis());
+            assertEquals(1_715_970_601_500L, reader.next().getCreatedAtMillis());
+            assertFalse(reader.next().hasCreatedAt());
+            assertEquals(Order.NO_TIMESTAMP, reader.next().getCreatedAtMillis());
+        }
+    }
+
+    @Test
+    public void testEmptyArray() throws IOException {
+        try (OrderStreamReader reader = new OrderStreamReader(new StringReader("[]"))) {
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    public void testMissingFileHasNoOrders() throws IOException {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStream));
+        try (OrderStreamReader reader = new OrderStreamReader("invalid_path/orders.json")) {
+            assertFalse(reader.hasNext());
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertTrue(outputStream.toString().contains("File not found."));
+    }
+}
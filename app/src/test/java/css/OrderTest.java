@@ -1,6 +1,9 @@
 package css;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -11,7 +14,9 @@ import static org.junit.jupiter.api.Assertions.fail;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import css.Model.LifecycleStage;
 import css.Model.Order;
+import css.Model.OrderKey;
 
 public class OrderTest {
 
@@ -91,6 +96,142 @@ public class OrderTest {
         assertTrue(order.isReady(), "Order should be ready after setReady(true) is called");
     }
 
+    @Test
+    public void testSetReadyWakesEveryWaiter() throws InterruptedException {
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread waiter = new Thread(() -> {
+                try {
+                    order.awaitReady();
+                } catch (InterruptedException e) {
+                    fail("Thread was interrupted while waiting for the order to be ready");
+                }
+            });
+            waiters.add(waiter);
+            waiter.start();
+        }
+        Thread.sleep(100);
+
+        order.setReady(true);
+
+        for (Thread waiter : waiters) {
+            waiter.join(1000);
+            assertFalse(waiter.isAlive(), "Every waiting thread should wake up once the order is ready");
+        }
+    }
+
+    @Test
+    public void testAwaitReadyReturnsImmediatelyWhenReady() throws InterruptedException {
+        order.setReady(true);
+        order.awaitReady();
+        assertTrue(order.isReady());
+    }
+
+    @Test
+    public void testAwaitReadyIsInterruptible() throws InterruptedException {
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        Thread waiter = new Thread(() -> {
+            try {
+                order.awaitReady();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+
+        waiter.interrupt();
+        waiter.join(1000);
+
+        assertTrue(interrupted.get(), "awaitReady should throw when the thread is interrupted");
+        assertFalse(order.isReady());
+    }
+
+    @Test
+    public void testSetReadyFalseResetsOrder() {
+        order.setReady(true);
+        order.setReady(false);
+        assertFalse(order.isReady(), "Order should not be ready after being set to false");
+    }
+
+    @Test
+    public void testUuidIdRoundTrips() {
+        String uuid = "a8cfcb76-7f24-4420-a5ba-d46dd77bdffd";
+        Order uuidOrder = new Order(uuid, "Banana Split", 4);
+
+        assertTrue(uuidOrder.hasUuidId(), "Canonical UUID ids should be stored as two longs");
+        assertEquals(uuid, uuidOrder.getId());
+        assertEquals(0xa8cfcb767f244420L, uuidOrder.getIdMostSigBits());
+        assertEquals(0xa5bad46dd77bdffdL, uuidOrder.getIdLeastSigBits());
+    }
+
+    @Test
+    public void testNonUuidIdsAreKeptAsText() {
+        String upperCaseUuid = "A8CFCB76-7F24-4420-A5BA-D46DD77BDFFD";
+        String nilUuid = "00000000-0000-0000-0000-000000000000";
+
+        assertFalse(order.hasUuidId());
+        assertEquals(upperCaseUuid, new Order(upperCaseUuid, foodItem, prepTime).getId());
+        assertEquals(nilUuid, new Order(nilUuid, foodItem, prepTime).getId());
+        assertEquals(null, new Order(null, foodItem, prepTime).getId());
+    }
+
+    @Test
+    public void testCompactConstructorMatchesStringConstructor() {
+        Order parsed = new Order("a8cfcb76-7f24-4420-a5ba-d46dd77bdffd", "Banana Split", 4);
+        Order compact = new Order(0xa8cfcb767f244420L, 0xa5bad46dd77bdffdL, parsed.getFoodItemId(), 4);
+
+        assertEquals(parsed, compact);
+        assertEquals(parsed.hashCode(), compact.hashCode());
+        assertEquals("Banana Split", compact.getFoodItem());
+    }
+
+    @Test
+    public void testKeyMatchesTheParsedId() {
+        String uuid = "a8cfcb76-7f24-4420-a5ba-d46dd77bdffd";
+        OrderKey uuidKey = new Order(uuid, "Banana Split", 4).getKey();
+        OrderKey textKey = new Order("12", "Banana Split", 4).getKey();
+
+        assertEquals(OrderKey.of(uuid), uuidKey);
+        assertEquals(OrderKey.of(uuid).hashCode(), uuidKey.hashCode());
+        assertEquals(uuid, uuidKey.getId());
+        assertEquals(OrderKey.of("12"), textKey);
+        assertNotEquals(OrderKey.of(uuid.toUpperCase()), uuidKey);
+        assertEquals(OrderKey.of(null), new Order(null, foodItem, prepTime).getKey());
+    }
+
+    @Test
+    public void testFinishedTimeMillis() {
+        assertFalse(order.isFinished());
+        assertEquals(null, order.getFinishedTime());
+
+        Instant finishedTime = Instant.ofEpochSecond(1_700_000_000L, 123_456_789);
+        order.setFinishedTime(finishedTime);
+
+        assertTrue(order.isFinished());
+        assertEquals(finishedTime.toEpochMilli(), order.getFinishedTimeMillis());
+    }
+
+    @Test
+    public void testLifecycleTrace() {
+        // Untraced orders ignore the stages
+        order.markStage(LifecycleStage.PREP_DONE);
+        assertFalse(order.isTraced());
+        assertEquals(Order.STAGE_NOT_REACHED, order.getStageNanos(LifecycleStage.PREP_DONE));
+
+        long before = System.nanoTime();
+        order.startTrace();
+        order.markStage(LifecycleStage.PREP_DONE);
+        assertTrue(order.isTraced());
+        long received = order.getStageNanos(LifecycleStage.RECEIVED);
+        assertTrue(received - before >= 0);
+        assertTrue(order.getStageNanos(LifecycleStage.PREP_DONE) - received >= 0);
+        assertEquals(Order.STAGE_NOT_REACHED, order.getStageNanos(LifecycleStage.PICKED_UP));
+
+        order.setStageNanos(LifecycleStage.PICKED_UP, 42);
+        assertEquals(42, order.getStageNanos(LifecycleStage.PICKED_UP));
+    }
+
     @Test
     public void testEqualsAndHashCode() {
         Order sameOrder = new Order(orderId, foodItem, prepTime);
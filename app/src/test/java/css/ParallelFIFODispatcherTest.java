@@ -0,0 +1,109 @@
+package css;
+
+import java.time.Instant;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Consumers.ParallelFIFODispatcher;
+import css.Consumers.ShardedBlockingQueue;
+import css.Model.Courier;
+import css.Model.Order;
+import css.Producers.Waiter;
+import css.Timing.SystemClock;
+
+public class ParallelFIFODispatcherTest {
+
+    private BlockingQueue<Order> readyOrdersQueue;
+    private BlockingQueue<Courier> courierReadyQueue;
+    private BlockingQueue<Courier> waitingCourierQueue;
+    private AtomicBoolean notifyKitchenAllOrdersProcessed;
+
+    @BeforeEach
+    public void setUp() {
+        readyOrdersQueue = new ShardedBlockingQueue<>(4);
+        courierReadyQueue = new ShardedBlockingQueue<>(4);
+        waitingCourierQueue = new LinkedBlockingQueue<>();
+        notifyKitchenAllOrdersProcessed = new AtomicBoolean(false);
+    }
+
+    @Test
+    public void testAllOrdersArePairedByWorkers() throws InterruptedException {
+        int numOrders = 5000;
+        for (int i = 0; i < numOrders; i++) {
+            readyOrdersQueue.add(readyOrder(i));
+            courierReadyQueue.add(arrivedCourier(i));
+        }
+
+        ParallelFIFODispatcher dispatcher = new ParallelFIFODispatcher(readyOrdersQueue, courierReadyQueue,
+                waitingCourierQueue, numOrders, notifyKitchenAllOrdersProcessed, 4);
+        dispatcher.setRetainWaitTimes(true);
+        Thread dispatcherThread = new Thread(dispatcher);
+        dispatcherThread.start();
+        dispatcherThread.join(10_000);
+
+        assertFalse(dispatcherThread.isAlive(), "Dispatcher did not finish");
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+        assertEquals(numOrders, waitingCourierQueue.size());
+        assertEquals(numOrders, dispatcher.getStatistics().getFoodWaitTimes().size());
+        assertTrue(readyOrdersQueue.isEmpty());
+    }
+
+    @Test
+    public void testWorkersWaitForCouriersToArrive() throws InterruptedException {
+        readyOrdersQueue.add(readyOrder(1));
+        readyOrdersQueue.add(readyOrder(2));
+
+        ParallelFIFODispatcher dispatcher = new ParallelFIFODispatcher(readyOrdersQueue, courierReadyQueue,
+                waitingCourierQueue, 2, notifyKitchenAllOrdersProcessed, 2);
+        Thread dispatcherThread = new Thread(dispatcher);
+        dispatcherThread.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertFalse(notifyKitchenAllOrdersProcessed.get());
+
+        courierReadyQueue.add(arrivedCourier(1));
+        courierReadyQueue.add(arrivedCourier(2));
+        dispatcherThread.join(1000);
+
+        assertFalse(dispatcherThread.isAlive());
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+        assertEquals(2, waitingCourierQueue.size());
+    }
+
+    @Test
+    public void testFinishesWhenTheTotalTurnsOutToBeZero() throws InterruptedException {
+        AtomicInteger totalOrders = new AtomicInteger(Waiter.UNKNOWN_TOTAL);
+        ParallelFIFODispatcher dispatcher = new ParallelFIFODispatcher(readyOrdersQueue, courierReadyQueue,
+                waitingCourierQueue, totalOrders::get, notifyKitchenAllOrdersProcessed, new SystemClock(), 2);
+        Thread dispatcherThread = new Thread(dispatcher);
+        dispatcherThread.start();
+        TimeUnit.MILLISECONDS.sleep(50);
+        // e.g. the waiter found an empty file
+        totalOrders.set(0);
+        dispatcherThread.join(2000);
+
+        assertFalse(dispatcherThread.isAlive(), "Dispatcher is still waiting");
+        assertTrue(notifyKitchenAllOrdersProcessed.get());
+    }
+
+    private Order readyOrder(int id) {
+        Order order = new Order(String.valueOf(id), "Pizza", 1);
+        order.setFinishedTime(Instant.now());
+        order.setReady(true);
+        return order;
+    }
+
+    private Courier arrivedCourier(int id) {
+        Courier courier = new Courier(String.valueOf(id));
+        courier.setArrivalTime(Instant.now());
+        return courier;
+    }
+}
@@ -0,0 +1,64 @@
+package css;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Arrivals.PiecewiseRateArrivals;
+
+public class PiecewiseRateArrivalsTest {
+
+    @Test
+    public void testArrivalsFollowTheProfile() {
+        // A 60 s cycle: 20 s quiet at 1/s, 20 s closed, 20 s rush at 9/s
+        PiecewiseRateArrivals arrivals = new PiecewiseRateArrivals(
+                new long[] {20_000, 20_000, 20_000}, new double[] {1, 0, 9}, 42L);
+
+        int[] perPeriod = new int[3];
+        long arrival;
+        while ((arrival = arrivals.nextArrivalMillis()) < 100 * 60_000L) {
+            perPeriod[(int) (arrival % 60_000 / 20_000)]++;
+        }
+
+        // 100 cycles: about 2,000 quiet orders, none while closed, 18,000 in the rush
+        assertEquals(2000, perPeriod[0], 200);
+        // Rounding to the millisecond can land on the very end of the previous period
+        assertTrue(perPeriod[1] <= 2);
+        assertEquals(18000, perPeriod[2], 600);
+    }
+
+    @Test
+    public void testSameSeedGivesSameArrivals() {
+        long[] periods = {1000, 2000};
+        double[] rates = {5, 0.5};
+        PiecewiseRateArrivals first = new PiecewiseRateArrivals(periods, rates, 11L);
+        PiecewiseRateArrivals second = new PiecewiseRateArrivals(periods, rates, 11L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextArrivalMillis(), second.nextArrivalMillis());
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidProfiles() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PiecewiseRateArrivals(new long[] {1000}, new double[] {1, 2}, 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PiecewiseRateArrivals(new long[] {1000, 1000}, new double[] {0, 0}, 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PiecewiseRateArrivals(new long[] {0}, new double[] {1}, 1L));
+    }
+
+    @Test
+    public void testResetStartsOver() {
+        PiecewiseRateArrivals arrivals = new PiecewiseRateArrivals(new long[] {1000, 2000}, new double[] {5, 0.5}, 11L);
+        long[] firstRun = new long[50];
+        for (int i = 0; i < firstRun.length; i++) {
+            firstRun[i] = arrivals.nextArrivalMillis();
+        }
+        arrivals.reset();
+        for (long arrival : firstRun) {
+            assertEquals(arrival, arrivals.nextArrivalMillis());
+        }
+    }
+}
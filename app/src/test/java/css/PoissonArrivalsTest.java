@@ -0,0 +1,55 @@
+package css;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Arrivals.PoissonArrivals;
+
+public class PoissonArrivalsTest {
+
+    @Test
+    public void testMeanRateMatches() {
+        PoissonArrivals arrivals = new PoissonArrivals(10, 42L);
+        int count = 100_000;
+        long previous = 0;
+        long last = 0;
+        for (int i = 0; i < count; i++) {
+            last = arrivals.nextArrivalMillis();
+            assertTrue(last >= previous);
+            previous = last;
+        }
+
+        // 100,000 orders at 10/s take about 10,000 s
+        double seconds = last / 1000.0;
+        assertEquals(10.0, count / seconds, 0.2);
+    }
+
+    @Test
+    public void testSameSeedGivesSameArrivals() {
+        PoissonArrivals first = new PoissonArrivals(5, 7L);
+        PoissonArrivals second = new PoissonArrivals(5, 7L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextArrivalMillis(), second.nextArrivalMillis());
+        }
+    }
+
+    @Test
+    public void testRejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new PoissonArrivals(0, 1L));
+    }
+
+    @Test
+    public void testResetStartsOver() {
+        PoissonArrivals arrivals = new PoissonArrivals(5, 7L);
+        long[] firstRun = new long[50];
+        for (int i = 0; i < firstRun.length; i++) {
+            firstRun[i] = arrivals.nextArrivalMillis();
+        }
+        arrivals.reset();
+        for (long arrival : firstRun) {
+            assertEquals(arrival, arrivals.nextArrivalMillis());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package css;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Order;
+import css.Producers.PreparationService;
+import css.Timing.ScaledClock;
+
+public class PreparationServiceTest {
+
+    private BlockingQueue<Order> readyOrdersQueue;
+    private PreparationService preparationService;
+
+    @BeforeEach
+    public void setUp() {
+        readyOrdersQueue = new LinkedBlockingQueue<>();
+        // 1 second of prep time takes 10 ms
+        preparationService = new PreparationService(readyOrdersQueue, new ScaledClock(100));
+    }
+
+    @Test
+    public void testOrderIsCompletedAfterPrepTime() throws InterruptedException {
+        Order order = new Order("1", "Pizza", 3);
+
+        preparationService.prepareOrder(order);
+        Order readyOrder = readyOrdersQueue.poll(2, TimeUnit.SECONDS);
+
+        assertEquals(order, readyOrder);
+        assertTrue(order.isReady());
+        assertNotNull(order.getFinishedTime());
+    }
+
+    @Test
+    public void testThreadCountStaysConstantForManyOrders() throws InterruptedException {
+        int threadsBefore = Thread.activeCount();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Order order = new Order(String.valueOf(i), "Burger", (i % 5) + 1);
+            orders.add(order);
+            preparationService.prepareOrder(order);
+        }
+
+        // Only the one shared scheduler thread may have been added
+        assertTrue(Thread.activeCount() <= threadsBefore + 1, "Preparing orders should not create a thread per order");
+
+        for (int i = 0; i < orders.size(); i++) {
+            assertNotNull(readyOrdersQueue.poll(5, TimeUnit.SECONDS), "Order was never completed");
+        }
+        for (Order order : orders) {
+            assertTrue(order.isReady());
+        }
+        preparationService.shutdown();
+    }
+
+    @Test
+    public void testCancelledOrderIsNotCompleted() throws InterruptedException {
+        Order order = new Order("1", "Salad", 10);
+
+        ScheduledFuture<?> preparation = preparationService.prepareOrder(order);
+        preparation.cancel(false);
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertTrue(readyOrdersQueue.isEmpty());
+        assertFalse(order.isReady());
+        assertNull(order.getFinishedTime());
+    }
+}
@@ -3,6 +3,7 @@ package css;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -10,7 +11,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import css.Model.Order;
+import css.Model.ReadyOrderIndex;
 import css.Producers.PreparingOrderHelper;
+import css.Timing.ExecutionMode;
+import css.Timing.SystemClock;
 
 public class PrepareOrderHelperTest {
 
@@ -52,4 +56,17 @@ public class PrepareOrderHelperTest {
         assertNull(order.getFinishedTime(), "Order finished time should not be set if interrupted");
     }
     
+    @Test
+    public void testCompletedOrderGoesToIndexInsteadOfQueue() {
+        ReadyOrderIndex readyOrderIndex = new ReadyOrderIndex();
+        PreparingOrderHelper helper = new PreparingOrderHelper(readyOrdersQueue, order, new SystemClock(),
+                ExecutionMode.PLATFORM, readyOrderIndex);
+
+        helper.completeOrder();
+
+        assertTrue(order.isReady());
+        assertTrue(readyOrdersQueue.isEmpty());
+        assertEquals(order, readyOrderIndex.get("order-123"));
+    }
+
 }
@@ -0,0 +1,140 @@
+package css;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Courier;
+import css.Model.Order;
+import css.Monitoring.PrometheusEndpoint;
+import css.Monitoring.SimulationMetrics;
+
+public class PrometheusEndpointTest {
+
+    private PrometheusEndpoint endpoint;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        endpoint = new PrometheusEndpoint(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        endpoint.close();
+    }
+
+    // An order picked up by a courier that arrived 300 ms before the food was ready.
+    private static void deliver(SimulationMetrics metrics, String foodItem) {
+        Order order = new Order("1", foodItem, 3);
+        Courier courier = new Courier("1");
+        metrics.orderReceived(order);
+        metrics.orderTakenByKitchen(order);
+        courier.dispatch(Instant.ofEpochMilli(0));
+        metrics.courierDispatched();
+        courier.arrive(Instant.ofEpochMilli(4000));
+        metrics.courierArrived(courier);
+        order.setFinishedTime(Instant.ofEpochMilli(4300));
+        metrics.orderPrepared(order);
+        metrics.orderPickedUp(order, courier, 4300);
+    }
+
+    @Test
+    public void testCountersAreLabelledByStrategyAndFoodItem() {
+        SimulationMetrics fifo = new SimulationMetrics("FIFO");
+        SimulationMetrics matched = new SimulationMetrics("Matched");
+        endpoint.register(fifo);
+        endpoint.register(matched);
+        deliver(fifo, "Pizza");
+        deliver(fifo, "Pizza");
+        deliver(matched, "Salad");
+        matched.orderTakenByKitchen(new Order("2", "Salad", 3));
+
+        String page = endpoint.scrape();
+        assertTrue(page.contains("# TYPE css_pickups_total counter\n"), page);
+        assertTrue(page.contains("css_orders_received_total{strategy=\"FIFO\",item=\"Pizza\"} 2\n"), page);
+        assertTrue(page.contains("css_pickups_total{strategy=\"Matched\",item=\"Salad\"} 1\n"), page);
+        assertTrue(page.contains("css_orders_in_prep{strategy=\"Matched\",item=\"Salad\"} 1\n"), page);
+        assertTrue(page.contains("css_orders_in_prep{strategy=\"FIFO\",item=\"Pizza\"} 0\n"), page);
+        assertTrue(page.contains("css_courier_arrivals_total{strategy=\"FIFO\"} 2\n"), page);
+        assertTrue(page.contains("css_couriers_in_transit{strategy=\"Matched\"} 0\n"), page);
+    }
+
+    @Test
+    public void testHistogramsAreCumulativeInSeconds() {
+        SimulationMetrics metrics = new SimulationMetrics("FIFO");
+        endpoint.register(metrics);
+        deliver(metrics, "Pizza");
+
+        String page = endpoint.scrape();
+        // The courier waited 300 ms, the food not at all
+        assertTrue(page.contains("css_courier_wait_seconds_bucket{strategy=\"FIFO\",item=\"Pizza\",le=\"0.25\"} 0\n"), page);
+        assertTrue(page.contains("css_courier_wait_seconds_bucket{strategy=\"FIFO\",item=\"Pizza\",le=\"0.5\"} 1\n"), page);
+        assertTrue(page.contains("css_courier_wait_seconds_bucket{strategy=\"FIFO\",item=\"Pizza\",le=\"+Inf\"} 1\n"), page);
+        assertTrue(page.contains("css_courier_wait_seconds_sum{strategy=\"FIFO\",item=\"Pizza\"} 0.3\n"), page);
+        assertTrue(page.contains("css_food_wait_seconds_bucket{strategy=\"FIFO\",item=\"Pizza\",le=\"0.005\"} 1\n"), page);
+        assertTrue(page.contains("css_courier_travel_seconds_bucket{strategy=\"FIFO\",le=\"5\"} 1\n"), page);
+        assertTrue(page.contains("css_courier_travel_seconds_count{strategy=\"FIFO\"} 1\n"), page);
+    }
+
+    @Test
+    public void testSimulationsWithTheSameStrategyAreAddedUp() {
+        SimulationMetrics first = new SimulationMetrics("Matched");
+        SimulationMetrics second = new SimulationMetrics("Matched");
+        endpoint.register(first);
+        endpoint.register(second);
+        endpoint.register(second);
+        deliver(first, "Pizza");
+        deliver(second, "Pizza");
+
+        String page = endpoint.scrape();
+        assertTrue(page.contains("css_pickups_total{strategy=\"Matched\",item=\"Pizza\"} 2\n"), page);
+        assertTrue(page.contains("css_couriers_dispatched_total{strategy=\"Matched\"} 2\n"), page);
+        assertEquals(1, page.split("css_couriers_dispatched_total\\{", -1).length - 1);
+    }
+
+    @Test
+    public void testLabelValuesAreEscaped() {
+        SimulationMetrics metrics = new SimulationMetrics("FIFO");
+        endpoint.register(metrics);
+        metrics.orderReceived(new Order("1", "Fish \"n\" Chips\\", 3));
+        metrics.orderReceived(new Order("2", null, 3));
+
+        String page = endpoint.scrape();
+        assertTrue(page.contains("item=\"Fish \\\"n\\\" Chips\\\\\"} 1\n"), page);
+        assertTrue(page.contains("css_orders_received_total{strategy=\"FIFO\",item=\"\"} 1\n"), page);
+    }
+
+    @Test
+    public void testScrapeOverHttp() throws Exception {
+        SimulationMetrics metrics = new SimulationMetrics("FIFO");
+        endpoint.register(metrics);
+        deliver(metrics, "Pizza");
+
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://127.0.0.1:" + endpoint.getPort() + "/metrics");
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(PrometheusEndpoint.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(""));
+        assertEquals(endpoint.scrape(), response.body());
+
+        HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, post.statusCode());
+    }
+
+    @Test
+    public void testNoEndpointWithoutTheProperty() {
+        System.clearProperty(PrometheusEndpoint.PORT_PROPERTY);
+        assertNull(PrometheusEndpoint.fromSystemProperty());
+    }
+}
@@ -0,0 +1,103 @@
+package css;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Order;
+import css.Model.OrderKey;
+import css.Model.ReadyOrderIndex;
+
+public class ReadyOrderIndexTest {
+
+    private ReadyOrderIndex readyOrderIndex;
+
+    @BeforeEach
+    public void setUp() {
+        readyOrderIndex = new ReadyOrderIndex();
+    }
+
+    @Test
+    public void testUuidOrdersAreFoundByKeyOrId() {
+        String uuid = "a8cfcb76-7f24-4420-a5ba-d46dd77bdffd";
+        Order order = new Order(uuid, "Pizza", 3);
+        CompletableFuture<Order> waiter = readyOrderIndex.whenReady(OrderKey.of(uuid));
+        readyOrderIndex.add(order);
+
+        assertEquals(order, waiter.getNow(null));
+        assertEquals(order, readyOrderIndex.get(uuid));
+        assertEquals(order, readyOrderIndex.remove(order.getKey()));
+        assertTrue(readyOrderIndex.isEmpty());
+    }
+
+    @Test
+    public void testGetFindsOrderById() {
+        Order order = new Order("1", "Pizza", 3);
+        readyOrderIndex.add(order);
+
+        assertEquals(order, readyOrderIndex.get("1"));
+        assertEquals(1, readyOrderIndex.size());
+        assertNull(readyOrderIndex.get("2"));
+    }
+
+    @Test
+    public void testRemoveTakesOrderOutOfIndex() {
+        Order order = new Order("1", "Pizza", 3);
+        readyOrderIndex.add(order);
+
+        assertEquals(order, readyOrderIndex.remove("1"));
+        assertNull(readyOrderIndex.remove("1"));
+        assertTrue(readyOrderIndex.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentAddsAndRemoves() throws InterruptedException {
+        int numOrders = 10_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < numOrders; i++) {
+                readyOrderIndex.add(new Order(String.valueOf(i), "Burger", 1));
+            }
+        });
+        producer.start();
+
+        int removed = 0;
+        for (int i = 0; i < numOrders; i++) {
+            while (readyOrderIndex.remove(String.valueOf(i)) == null) {
+                Thread.onSpinWait();
+            }
+            removed++;
+        }
+        producer.join();
+
+        assertEquals(numOrders, removed);
+        assertTrue(readyOrderIndex.isEmpty());
+    }
+
+    @Test
+    public void testWhenReadyCompletesWhenOrderIsAdded() throws Exception {
+        CompletableFuture<Order> readyOrder = readyOrderIndex.whenReady("1");
+        assertFalse(readyOrder.isDone());
+
+        Order order = new Order("1", "Pizza", 3);
+        readyOrderIndex.add(order);
+
+        assertEquals(order, readyOrder.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWhenReadyIsCompleteForIndexedOrder() {
+        Order order = new Order("1", "Pizza", 3);
+        readyOrderIndex.add(order);
+
+        CompletableFuture<Order> readyOrder = readyOrderIndex.whenReady("1");
+
+        assertTrue(readyOrder.isDone());
+        assertEquals(order, readyOrder.join());
+    }
+}
@@ -0,0 +1,49 @@
+package css;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+import css.Timing.ScaledClock;
+
+public class ScaledClockTest {
+
+    @Test
+    public void testSleepIsShortenedBySpeedUpFactor() throws InterruptedException {
+        ScaledClock clock = new ScaledClock(100);
+
+        long realStart = System.nanoTime();
+        Instant simulatedStart = clock.now();
+        clock.sleep(5000); // 5 simulated seconds
+        long realElapsedMillis = (System.nanoTime() - realStart) / 1_000_000;
+        long simulatedElapsedMillis = Duration.between(simulatedStart, clock.now()).toMillis();
+
+        // 5000 ms at 100x is 50 ms of real time
+        assertTrue(realElapsedMillis >= 50 && realElapsedMillis < 1000, "Real sleep was " + realElapsedMillis + " ms");
+        // Timestamps still move by the full simulated duration
+        assertTrue(simulatedElapsedMillis >= 5000, "Simulated time moved " + simulatedElapsedMillis + " ms");
+    }
+
+    @Test
+    public void testToRealMillis() {
+        ScaledClock clock = new ScaledClock(100);
+
+        assertEquals(50, clock.toRealMillis(5000));
+        assertEquals(1, clock.toRealMillis(10)); // never rounds a positive timeout down to 0
+        assertEquals(0, clock.toRealMillis(0));
+    }
+
+    @Test
+    public void testInvalidSpeedUpFactor() {
+        try {
+            new ScaledClock(0);
+            fail("Expected IllegalArgumentException for a speed-up factor of 0");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Speed-up factor"));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package css;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Consumers.ShardedBlockingQueue;
+
+public class ShardedBlockingQueueTest {
+
+    @Test
+    public void testSingleThreadTakesInFifoOrder() throws InterruptedException {
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(4, 0);
+        for (int i = 0; i < 100; i++) {
+            queue.add(i);
+        }
+
+        assertEquals(100, queue.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.take());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testPollTimesOutWhenEmpty() throws InterruptedException {
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(4);
+
+        assertNull(queue.poll());
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testTakeBlocksUntilElementIsAdded() throws InterruptedException {
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(2);
+        List<Integer> taken = new ArrayList<>();
+        Thread taker = new Thread(() -> {
+            try {
+                taken.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        taker.start();
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        queue.add(7);
+        taker.join(1000);
+
+        assertEquals(List.of(7), taken);
+    }
+
+    @Test
+    public void testConcurrentTakersStayWithinFifoTolerance() throws InterruptedException {
+        int shards = 4;
+        int tolerance = 8;
+        int count = 100_000;
+        int takers = 4;
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(shards, tolerance);
+        for (int i = 0; i < count; i++) {
+            queue.add(i);
+        }
+
+        List<List<Integer>> takenPerThread = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < takers; t++) {
+            List<Integer> taken = new ArrayList<>();
+            takenPerThread.add(taken);
+            Thread thread = new Thread(() -> {
+                Integer element;
+                while ((element = queue.poll()) != null) {
+                    taken.add(element);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        boolean[] seen = new boolean[count];
+        int total = 0;
+        for (List<Integer> taken : takenPerThread) {
+            int highest = -1;
+            for (int element : taken) {
+                assertTrue(!seen[element], "Element taken twice: " + element);
+                seen[element] = true;
+                // Out of order by at most the tolerance, plus a shard's worth for each
+                // other taker that can win the race for the head this one peeked
+                assertTrue(highest - element <= tolerance + (takers - 1) * shards, "Element " + element + " after " + highest);
+                highest = Math.max(highest, element);
+                total++;
+            }
+        }
+        assertEquals(count, total);
+    }
+
+    @Test
+    public void testIteratorReturnsElementsInOrder() {
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(3);
+        for (int i = 0; i < 10; i++) {
+            queue.add(i);
+        }
+
+        List<Integer> elements = new ArrayList<>();
+        queue.forEach(elements::add);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), elements);
+        assertEquals(0, queue.peek());
+    }
+
+    @Test
+    public void testRemoveTakesOutTheOldestMatch() {
+        // Strict FIFO, so the order they come out in shows which one was removed
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(3, 0);
+        for (int i = 0; i < 6; i++) {
+            queue.add(i % 3);
+        }
+
+        assertTrue(queue.remove(Integer.valueOf(1)));
+        assertFalse(queue.remove(Integer.valueOf(7)));
+        assertFalse(queue.remove(null));
+
+        assertEquals(5, queue.size());
+        List<Integer> elements = new ArrayList<>();
+        queue.drainTo(elements);
+        assertEquals(List.of(0, 2, 0, 1, 2), elements);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testBulkRemovalsAndIteratorRemove() {
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(4, 0);
+        for (int i = 0; i < 20; i++) {
+            queue.add(i);
+        }
+
+        assertTrue(queue.removeIf(i -> i % 2 == 0));
+        assertTrue(queue.removeAll(List.of(1, 3)));
+        assertTrue(queue.retainAll(List.of(5, 7, 9, 11)));
+        Iterator<Integer> iterator = queue.iterator();
+        assertEquals(5, iterator.next());
+        iterator.remove();
+        assertThrows(IllegalStateException.class, iterator::remove);
+
+        assertEquals(3, queue.size());
+        assertEquals(List.of(7, 9, 11), List.of(queue.poll(), queue.poll(), queue.poll()));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testRemovalsRacingTakersLoseNothing() throws InterruptedException {
+        ShardedBlockingQueue<Integer> queue = new ShardedBlockingQueue<>(4);
+        int count = 20_000;
+        for (int i = 0; i < count; i++) {
+            queue.add(i);
+        }
+        int[] taken = new int[2];
+        Thread[] takers = new Thread[2];
+        for (int t = 0; t < takers.length; t++) {
+            int slot = t;
+            takers[t] = new Thread(() -> {
+                while (queue.poll() != null) {
+                    taken[slot]++;
+                }
+            });
+            takers[t].start();
+        }
+        int removed = 0;
+        for (int i = count - 1; i >= 0; i -= 2) {
+            if (queue.remove(Integer.valueOf(i))) {
+                removed++;
+            }
+        }
+        for (Thread taker : takers) {
+            taker.join(10_000);
+            assertFalse(taker.isAlive());
+        }
+
+        // Every element went to exactly one of them, and no permit was left behind
+        assertEquals(count, taken[0] + taken[1] + removed);
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testInvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedBlockingQueue<Integer>(0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedBlockingQueue<Integer>(2, -1));
+        assertThrows(NullPointerException.class, () -> new ShardedBlockingQueue<Integer>(2).add(null));
+    }
+}
@@ -0,0 +1,142 @@
+package css;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Model.Courier;
+import css.Model.Order;
+import css.Model.ReadyOrderIndex;
+import css.Model.Statistics;
+import css.Monitoring.SimulationMetrics;
+import css.Monitoring.SimulationMonitor;
+
+public class SimulationMonitorTest {
+
+    private BlockingQueue<Order> ordersReceivedQueue;
+    private BlockingQueue<Courier> waitingCourierQueue;
+    private BlockingQueue<Courier> courierReadyQueue;
+    private BlockingQueue<Order> readyOrdersQueue;
+    private ReadyOrderIndex readyOrderIndex;
+    private SimulationMetrics metrics;
+    private Statistics stats;
+    private SimulationMonitor monitor;
+
+    @BeforeEach
+    public void setUp() {
+        ordersReceivedQueue = new LinkedBlockingQueue<>();
+        waitingCourierQueue = new LinkedBlockingQueue<>();
+        courierReadyQueue = new LinkedBlockingQueue<>();
+        readyOrdersQueue = new LinkedBlockingQueue<>();
+        readyOrderIndex = new ReadyOrderIndex();
+        metrics = new SimulationMetrics();
+        stats = new Statistics(false);
+        monitor = new SimulationMonitor(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue, readyOrdersQueue,
+                readyOrderIndex, metrics, () -> List.of(stats));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        monitor.unregister();
+    }
+
+    @Test
+    public void testQueueDepths() {
+        ordersReceivedQueue.add(new Order("1", "Pizza", 3));
+        waitingCourierQueue.add(new Courier("1"));
+        waitingCourierQueue.add(new Courier("2"));
+        readyOrdersQueue.add(new Order("2", "Pizza", 3));
+        readyOrderIndex.add(new Order("3", "Pizza", 3));
+
+        assertEquals(1, monitor.getOrdersReceivedQueueDepth());
+        assertEquals(2, monitor.getWaitingCourierQueueDepth());
+        assertEquals(0, monitor.getCourierReadyQueueDepth());
+        assertEquals(2, monitor.getReadyOrdersQueueDepth());
+    }
+
+    @Test
+    public void testInFlightCounts() {
+        Order pizza = new Order("1", "Pizza", 3);
+        Courier courier = new Courier("1");
+        metrics.orderTakenByKitchen(pizza);
+        metrics.orderTakenByKitchen(new Order("2", "Salad", 3));
+        metrics.courierDispatched();
+        pizza.setFinishedTime(Instant.ofEpochMilli(1000));
+        metrics.orderPrepared(pizza);
+        metrics.orderPickedUp(pizza, courier, 1500);
+
+        assertEquals(1, monitor.getOrdersInPrep());
+        assertEquals(1, monitor.getCouriersInTransit());
+        assertEquals(1, monitor.getOrdersPickedUp());
+        courier.arrive(Instant.ofEpochMilli(1400));
+        metrics.courierArrived(courier);
+        assertEquals(0, monitor.getCouriersInTransit());
+    }
+
+    @Test
+    public void testWaitPercentilesAreMergedFromEverySnapshot() {
+        Statistics other = new Statistics(false);
+        SimulationMonitor merged = new SimulationMonitor(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue,
+                readyOrdersQueue, metrics, () -> List.of(stats, other));
+        for (long wait = 1; wait <= 100; wait++) {
+            stats.recordWaitTimes(wait, 1000 + wait);
+            other.recordWaitTimes(100 + wait, 0);
+        }
+        // Nothing published yet
+        assertEquals(0, merged.getFoodWaitP50Millis());
+        stats.publishSnapshot();
+        other.publishSnapshot();
+
+        assertEquals(100, merged.getFoodWaitP50Millis());
+        assertEquals(200, merged.getFoodWaitP999Millis());
+        // Half of the courier waits were 0
+        assertEquals(0, merged.getCourierWaitP50Millis());
+        assertEquals(1080, merged.getCourierWaitP90Millis(), 10);
+        assertEquals(200, merged.getCourierWaitHistogram().getCount());
+    }
+
+    @Test
+    public void testAttributesOverJmx() throws Exception {
+        assertTrue(monitor.register("Test"));
+        ObjectName name = new ObjectName("css:type=Simulation,strategy=Test");
+        assertEquals(name, monitor.getRegisteredName());
+        metrics.courierDispatched();
+        waitingCourierQueue.add(new Courier("1"));
+        stats.recordWaitTimes(40, 50);
+        stats.publishSnapshot();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1L, server.getAttribute(name, "CouriersInTransit"));
+        assertEquals(1, server.getAttribute(name, "WaitingCourierQueueDepth"));
+        assertEquals(40L, server.getAttribute(name, "FoodWaitP99Millis"));
+        assertEquals(0.0, server.getAttribute(name, "PickupsPerSecond"));
+
+        monitor.unregister();
+        assertFalse(server.isRegistered(name));
+        assertNull(monitor.getRegisteredName());
+    }
+
+    @Test
+    public void testOnlyOneMonitorPerStrategy() {
+        SimulationMonitor second = new SimulationMonitor(ordersReceivedQueue, waitingCourierQueue, courierReadyQueue,
+                readyOrdersQueue, metrics, () -> List.of(stats));
+        assertTrue(monitor.register("Test"));
+        assertFalse(second.register("Test"));
+        // Unregistering the one that wasn't registered leaves the first alone
+        second.unregister();
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(monitor.getRegisteredName()));
+    }
+}
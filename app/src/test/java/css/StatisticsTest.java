@@ -1,4 +1,6 @@
 package css;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -6,6 +8,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -144,4 +147,107 @@ public class StatisticsTest {
         // Assert that the actual average matches the expected average
         assertEquals(expectedAverage, actualAverage, "The average preparation time for a null list should be 0.0.");
     }
+
+    @Test
+    public void testRecordWaitTimesFromManyThreads() throws InterruptedException {
+        int threads = 8;
+        int recordsPerThread = 10_000;
+        Thread[] recorders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            recorders[t] = new Thread(() -> {
+                for (int i = 0; i < recordsPerThread; i++) {
+                    stats.recordWaitTimes(10, 20);
+                }
+            });
+            recorders[t].start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        assertEquals(threads * recordsPerThread, stats.getFoodWaitTimes().size());
+        assertEquals(threads * recordsPerThread, stats.getCourierWaitTimes().size());
+    }
+
+    @Test
+    public void testHistogramsRecordEveryWaitTime() {
+        stats.recordWaitTimes(100, 5);
+        stats.recordWaitTimes(300, 15);
+
+        assertEquals(2, stats.getFoodWaitHistogram().getCount());
+        assertEquals(200, stats.getFoodWaitHistogram().getMean());
+        assertEquals(15, stats.getCourierWaitHistogram().getMax());
+        assertEquals(2, stats.getFoodWaitTimes().size());
+    }
+
+    @Test
+    public void testWithoutRetainedWaitTimesOnlyHistogramsGrow() {
+        Statistics histogramsOnly = new Statistics(false);
+        for (int i = 0; i < 1000; i++) {
+            histogramsOnly.recordWaitTimes(i, 2 * i);
+        }
+
+        assertTrue(histogramsOnly.getFoodWaitTimes().isEmpty());
+        assertEquals(1000, histogramsOnly.getFoodWaitHistogram().getCount());
+        assertEquals(999, histogramsOnly.getFoodWaitHistogram().getMean() * 2 + 1);
+        assertEquals(1998, histogramsOnly.getCourierWaitHistogram().getMax());
+    }
+
+    @Test
+    public void testMergeAddsTheOtherWaitTimes() {
+        Statistics worker = new Statistics();
+        stats.recordWaitTimes(10, 20);
+        worker.recordWaitTimes(30, 40);
+
+        stats.merge(worker);
+
+        assertEquals(2, stats.getFoodWaitHistogram().getCount());
+        assertEquals(20, stats.getFoodWaitHistogram().getMean());
+        assertEquals(Arrays.asList(20L, 40L), stats.getCourierWaitTimes());
+    }
+
+    @Test
+    public void testPrintStatisticsShowsPercentiles() {
+        // Percentiles are the top of their bucket, at most 1% above the real value
+        for (long wait = 1; wait <= 1000; wait++) {
+            stats.recordWaitTimes(wait, 0);
+        }
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        try {
+            stats.printStatistics();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String printed = output.toString();
+        assertTrue(printed.contains("The Average Food Wait time is 500 ms"), printed);
+        assertTrue(printed.contains("Food Wait time p50 501 ms, p90 903 ms, p99 991 ms, p99.9 999 ms, max 1000 ms over 1000 orders"), printed);
+        assertTrue(printed.contains("Courier Wait time p50 0 ms"), printed);
+    }
+
+    @Test
+    public void testSnapshotIsACopy() {
+        assertEquals(0, stats.getSnapshot().getFoodWaitHistogram().getCount());
+        stats.recordWaitTimes(10, 20);
+        stats.publishSnapshot();
+        Statistics.Snapshot snapshot = stats.getSnapshot();
+        stats.recordWaitTimes(30, 40);
+
+        // Not refreshed again within the second
+        assertSame(snapshot, stats.getSnapshot());
+        assertEquals(1, snapshot.getFoodWaitHistogram().getCount());
+        assertEquals(20, snapshot.getCourierWaitHistogram().getMax());
+        assertEquals(2, stats.getFoodWaitHistogram().getCount());
+    }
+
+    @Test
+    public void testMergePublishesASnapshot() {
+        Statistics worker = new Statistics(false);
+        worker.recordWaitTimes(10, 20);
+        stats.merge(worker);
+
+        assertEquals(1, stats.getSnapshot().getFoodWaitHistogram().getCount());
+    }
 }
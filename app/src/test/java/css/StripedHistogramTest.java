@@ -0,0 +1,58 @@
+package css;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import css.Monitoring.StripedHistogram;
+
+public class StripedHistogramTest {
+
+    @Test
+    public void testBoundsAreInclusive() {
+        StripedHistogram histogram = new StripedHistogram(new long[] {10, 100});
+        histogram.record(-5);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(100);
+        histogram.record(1000);
+
+        assertArrayEquals(new long[] {2, 4, 5}, histogram.getCumulativeCounts());
+        assertEquals(1116, histogram.getSum());
+    }
+
+    @Test
+    public void testEmpty() {
+        StripedHistogram histogram = new StripedHistogram();
+        long[] counts = histogram.getCumulativeCounts();
+        assertEquals(StripedHistogram.DEFAULT_BOUNDS_MILLIS.length + 1, counts.length);
+        assertEquals(0, counts[counts.length - 1]);
+        assertEquals(0, histogram.getSum());
+    }
+
+    @Test
+    public void testConcurrentRecordsAreAllCounted() throws InterruptedException {
+        StripedHistogram histogram = new StripedHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i % 100);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] counts = histogram.getCumulativeCounts();
+        assertEquals(40_000, counts[counts.length - 1]);
+        assertEquals(4 * 100 * 4950, histogram.getSum());
+    }
+
+    @Test
+    public void testBoundsMustIncrease() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedHistogram(new long[] {10, 10}));
+    }
+}
@@ -0,0 +1,88 @@
+package css;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Distributions.FixedDistribution;
+import css.Model.Order;
+import css.Producers.SyntheticOrderSource;
+
+public class SyntheticOrderSourceTest {
+
+    @Test
+    public void testProducesTheRequestedNumberOfOrders() {
+        SyntheticOrderSource orders = new SyntheticOrderSource(3, 42L);
+        assertEquals(3, orders.remainingOrders());
+
+        for (int i = 0; i < 3; i++) {
+            Order order = orders.next();
+            assertTrue(order.hasUuidId());
+            assertTrue(SyntheticOrderSource.DEFAULT_MENU.contains(order.getFoodItem()));
+            assertTrue(order.getPrepTime() >= 3 && order.getPrepTime() <= 15, "Prep time " + order.getPrepTime());
+        }
+        assertFalse(orders.hasNext());
+        assertEquals(0, orders.remainingOrders());
+        assertThrows(NoSuchElementException.class, orders::next);
+    }
+
+    @Test
+    public void testSameSeedGivesSameOrders() {
+        SyntheticOrderSource first = new SyntheticOrderSource(100, 7L);
+        SyntheticOrderSource second = new SyntheticOrderSource(100, 7L);
+        SyntheticOrderSource other = new SyntheticOrderSource(100, 8L);
+
+        Order firstOrder = first.next();
+        assertEquals(firstOrder, second.next());
+        assertNotEquals(firstOrder, other.next());
+        while (first.hasNext()) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    public void testIdsAreVersion4Uuids() {
+        SyntheticOrderSource orders = new SyntheticOrderSource(10, 1L);
+        while (orders.hasNext()) {
+            String id = orders.next().getId();
+            assertEquals('4', id.charAt(14));
+            assertTrue("89ab".indexOf(id.charAt(19)) >= 0, id);
+        }
+    }
+
+    @Test
+    public void testMenuMixFollowsTheWeights() {
+        SyntheticOrderSource orders = new SyntheticOrderSource(40_000, 42L);
+        orders.addMenuItem("Acai Bowl", 3);
+        orders.addMenuItem("Beef Stew", 1, new FixedDistribution(20));
+        orders.setPrepTimeDistribution(new FixedDistribution(4));
+
+        Map<String, Integer> counts = new HashMap<>();
+        while (orders.hasNext()) {
+            Order order = orders.next();
+            counts.merge(order.getFoodItem(), 1, Integer::sum);
+            assertEquals(order.getFoodItem().equals("Beef Stew") ? 20 : 4, order.getPrepTime());
+        }
+
+        assertEquals(2, counts.size());
+        assertEquals(30_000, counts.get("Acai Bowl"), 600);
+        assertEquals(10_000, counts.get("Beef Stew"), 600);
+    }
+
+    @Test
+    public void testMenuIsFixedOnceGenerating() {
+        SyntheticOrderSource orders = new SyntheticOrderSource(2, 1L);
+        orders.next();
+
+        assertThrows(IllegalStateException.class, () -> orders.addMenuItem("Kebab", 1));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticOrderSource(-1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticOrderSource(1, 1L).addMenuItem("Kebab", 0));
+    }
+}
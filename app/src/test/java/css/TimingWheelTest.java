@@ -0,0 +1,114 @@
+package css;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import css.Timing.TimingWheel;
+
+public class TimingWheelTest {
+
+    private TimingWheel timingWheel;
+
+    @BeforeEach
+    public void setUp() {
+        timingWheel = new TimingWheel();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timingWheel.stop();
+    }
+
+    @Test
+    public void testTaskFiresAfterDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        TimingWheel.Timeout timeout = timingWheel.schedule(fired::countDown, 50);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS), "Task never fired");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 50, "Task fired early after " + elapsedMillis + " ms");
+        assertTrue(timeout.isExpired());
+    }
+
+    @Test
+    public void testTasksFireInDeadlineOrder() throws InterruptedException {
+        List<Integer> firedOrder = new CopyOnWriteArrayList<>();
+        CountDownLatch fired = new CountDownLatch(3);
+
+        timingWheel.schedule(() -> { firedOrder.add(3); fired.countDown(); }, 90);
+        timingWheel.schedule(() -> { firedOrder.add(1); fired.countDown(); }, 10);
+        timingWheel.schedule(() -> { firedOrder.add(2); fired.countDown(); }, 50);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2, 3), firedOrder);
+    }
+
+    @Test
+    public void testDelayLongerThanOneRotation() throws InterruptedException {
+        // 8 slots of 1 ms, so a 30 ms delay has to wait out several rotations
+        TimingWheel smallWheel = new TimingWheel(1, 8);
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        smallWheel.schedule(fired::countDown, 30);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 30);
+        smallWheel.stop();
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotFire() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+
+        TimingWheel.Timeout timeout = timingWheel.schedule(runs::incrementAndGet, 50);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        TimeUnit.MILLISECONDS.sleep(150);
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testManyTimeoutsShareOneThread() throws InterruptedException {
+        int threadsBefore = Thread.activeCount();
+        int count = 50_000;
+        CountDownLatch fired = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            timingWheel.schedule(fired::countDown, i % 200);
+        }
+
+        assertTrue(Thread.activeCount() <= threadsBefore, "Scheduling should not create threads");
+        assertTrue(fired.await(5, TimeUnit.SECONDS), fired.getCount() + " tasks never fired");
+    }
+
+    @Test
+    public void testScheduleAfterStopThrows() {
+        timingWheel.stop();
+
+        assertFalse(timingWheel.isRunning());
+        assertThrows(IllegalStateException.class, () -> timingWheel.schedule(() -> { }, 10));
+    }
+
+    @Test
+    public void testInvalidWheelSizeThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(1, 100));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(0, 64));
+    }
+}
@@ -0,0 +1,66 @@
+package css;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import css.Arrivals.TraceReplayArrivals;
+import css.Model.Order;
+
+public class TraceReplayArrivalsTest {
+
+    private static final long FIRST = 1_715_970_600_000L;
+
+    @Test
+    public void testReplaysOffsetsFromTheFirstOrder() {
+        TraceReplayArrivals arrivals = new TraceReplayArrivals();
+
+        assertEquals(0, arrivals.nextArrivalMillis(FIRST));
+        assertEquals(250, arrivals.nextArrivalMillis(FIRST + 250));
+        assertEquals(250, arrivals.nextArrivalMillis(FIRST + 250));
+        assertEquals(4000, arrivals.nextArrivalMillis(FIRST + 4000));
+    }
+
+    @Test
+    public void testSpeedMultiplierCompressesTheTrace() {
+        TraceReplayArrivals twiceAsFast = new TraceReplayArrivals(2);
+        TraceReplayArrivals halfSpeed = new TraceReplayArrivals(0.5);
+
+        twiceAsFast.nextArrivalMillis(FIRST);
+        halfSpeed.nextArrivalMillis(FIRST);
+        assertEquals(1500, twiceAsFast.nextArrivalMillis(FIRST + 3000));
+        assertEquals(6000, halfSpeed.nextArrivalMillis(FIRST + 3000));
+    }
+
+    @Test
+    public void testArrivalsNeverGoBackwards() {
+        TraceReplayArrivals arrivals = new TraceReplayArrivals();
+
+        assertEquals(0, arrivals.nextArrivalMillis(FIRST));
+        assertEquals(1000, arrivals.nextArrivalMillis(FIRST + 1000));
+        // Out of order in the file, or no time at all: arrives with the one before
+        assertEquals(1000, arrivals.nextArrivalMillis(FIRST + 500));
+        assertEquals(1000, arrivals.nextArrivalMillis(Order.NO_TIMESTAMP));
+        assertEquals(1000, arrivals.nextArrivalMillis());
+        assertEquals(2000, arrivals.nextArrivalMillis(FIRST + 2000));
+    }
+
+    @Test
+    public void testRejectsInvalidSpeed() {
+        assertThrows(IllegalArgumentException.class, () -> new TraceReplayArrivals(0));
+        assertThrows(IllegalArgumentException.class, () -> new TraceReplayArrivals(-1));
+        assertThrows(IllegalArgumentException.class, () -> new TraceReplayArrivals(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testResetStartsOver() {
+        TraceReplayArrivals arrivals = new TraceReplayArrivals();
+        arrivals.nextArrivalMillis(FIRST);
+        assertEquals(4000, arrivals.nextArrivalMillis(FIRST + 4000));
+
+        // The next run's trace starts later
+        arrivals.reset();
+        assertEquals(0, arrivals.nextArrivalMillis(FIRST + 60_000));
+        assertEquals(250, arrivals.nextArrivalMillis(FIRST + 60_250));
+    }
+}
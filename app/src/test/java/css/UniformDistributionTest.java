@@ -0,0 +1,48 @@
+package css;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Distributions.UniformDistribution;
+
+public class UniformDistributionTest {
+
+    @Test
+    public void testSamplesStayInRange() {
+        UniformDistribution distribution = new UniformDistribution(3000, 15000);
+        SplittableRandom random = new SplittableRandom(42L);
+
+        double sum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            double value = distribution.sample(random);
+            assertTrue(value >= 3000 && value < 15000, "Sampled " + value);
+            sum += value;
+        }
+        assertEquals(9000, sum / 10_000, 150);
+    }
+
+    @Test
+    public void testIntegersAreEquallyLikely() {
+        UniformDistribution distribution = UniformDistribution.ofIntegers(3, 5);
+        SplittableRandom random = new SplittableRandom(42L);
+
+        int[] counts = new int[6];
+        for (int i = 0; i < 30_000; i++) {
+            counts[(int) Math.round(distribution.sample(random))]++;
+        }
+        assertEquals(0, counts[2]);
+        for (int value = 3; value <= 5; value++) {
+            assertEquals(10_000, counts[value], 400);
+        }
+    }
+
+    @Test
+    public void testSingleValueAndInvalidRange() {
+        assertEquals(7, new UniformDistribution(7, 7).sample(new SplittableRandom(1L)));
+        assertThrows(IllegalArgumentException.class, () -> new UniformDistribution(2, 1));
+    }
+}
@@ -0,0 +1,205 @@
+package css;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import css.Arrivals.PoissonArrivals;
+import css.Arrivals.TraceReplayArrivals;
+import css.Distributions.FixedDistribution;
+import css.Model.DispatchStrategy;
+import css.Model.Order;
+import css.Model.OrderStore;
+import css.Model.Statistics;
+import css.SimulationRunner.VirtualTimeSimulationRunner;
+
+public class VirtualTimeSimulationRunnerTest {
+
+    @Test
+    public void testMatchedSimulationProcessesEveryOrder() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(50), 5, DispatchStrategy.MATCHED, 42L);
+        runner.setRetainWaitTimes(true);
+
+        runner.run();
+
+        assertEquals(50, runner.getProcessedOrders());
+        assertEquals(50, runner.getStatistics().getFoodWaitTimes().size());
+        assertEquals(50, runner.getStatistics().getCourierWaitTimes().size());
+        assertTrue(runner.getSimulatedTime() > 0);
+    }
+
+    @Test
+    public void testArrivalProcessSetsTheOrderCadence() {
+        VirtualTimeSimulationRunner slow = new VirtualTimeSimulationRunner(createTestOrders(200), 50, DispatchStrategy.FIFO, 42L);
+        slow.setArrivalProcess(new PoissonArrivals(1, 1L));
+        slow.run();
+        VirtualTimeSimulationRunner rush = new VirtualTimeSimulationRunner(createTestOrders(200), 50, DispatchStrategy.FIFO, 42L);
+        rush.setArrivalProcess(new PoissonArrivals(50, 1L));
+        rush.run();
+
+        assertEquals(200, slow.getProcessedOrders());
+        assertEquals(200, rush.getProcessedOrders());
+        // 200 orders at 1/s take about 200 s to arrive, at 50/s about 4 s
+        assertTrue(slow.getSimulatedTime() > 150_000);
+        assertTrue(rush.getSimulatedTime() < slow.getSimulatedTime() / 2);
+    }
+
+    @Test
+    public void testTraceReplayFollowsCreationTimes() {
+        List<Order> orders = createTestOrders(3);
+        orders.get(0).setCreatedAtMillis(1_715_970_600_000L);
+        orders.get(1).setCreatedAtMillis(1_715_970_610_000L);
+        orders.get(2).setCreatedAtMillis(1_715_970_660_000L);
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(orders, 5, DispatchStrategy.MATCHED, 42L);
+        runner.setArrivalProcess(new TraceReplayArrivals(2));
+
+        runner.run();
+
+        // Received at 0, 10 and 60 s into the trace, replayed twice as fast
+        OrderStore store = runner.getOrderStore();
+        assertEquals(0, store.getReceivedNanos(0));
+        assertEquals(5_000_000_000L, store.getReceivedNanos(1));
+        assertEquals(30_000_000_000L, store.getReceivedNanos(2));
+        assertEquals(3, runner.getProcessedOrders());
+    }
+
+    @Test
+    public void testFIFOSimulationProcessesEveryOrder() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(50), 5, DispatchStrategy.FIFO, 42L);
+        runner.setRetainWaitTimes(true);
+
+        runner.run();
+
+        assertEquals(50, runner.getProcessedOrders());
+        assertEquals(50, runner.getStatistics().getFoodWaitTimes().size());
+    }
+
+    @Test
+    public void testMatchedWaitTimesAreConsistent() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(20), 3, DispatchStrategy.MATCHED, 7L);
+        runner.setRetainWaitTimes(true);
+
+        runner.run();
+
+        // In the Matched strategy either the food or the courier is picked up the
+        // moment the second of the two arrives, so one of the waits is always 0.
+        List<Long> foodWaitTimes = runner.getStatistics().getFoodWaitTimes();
+        List<Long> courierWaitTimes = runner.getStatistics().getCourierWaitTimes();
+        for (int i = 0; i < foodWaitTimes.size(); i++) {
+            assertTrue(foodWaitTimes.get(i) >= 0 && courierWaitTimes.get(i) >= 0);
+            assertTrue(foodWaitTimes.get(i) == 0 || courierWaitTimes.get(i) == 0);
+        }
+    }
+
+    @Test
+    public void testSameSeedGivesSameResults() {
+        VirtualTimeSimulationRunner first = new VirtualTimeSimulationRunner(createTestOrders(30), 4, DispatchStrategy.FIFO, 99L);
+        first.setRetainWaitTimes(true);
+        VirtualTimeSimulationRunner second = new VirtualTimeSimulationRunner(createTestOrders(30), 4, DispatchStrategy.FIFO, 99L);
+        second.setRetainWaitTimes(true);
+
+        first.run();
+        second.run();
+
+        assertEquals(first.getStatistics().getFoodWaitTimes(), second.getStatistics().getFoodWaitTimes());
+        assertEquals(first.getStatistics().getCourierWaitTimes(), second.getStatistics().getCourierWaitTimes());
+        assertEquals(first.getSimulatedTime(), second.getSimulatedTime());
+    }
+
+    @Test
+    public void testRunningAgainGivesSameResults() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(30), 4, DispatchStrategy.MATCHED, 99L);
+        runner.setRetainWaitTimes(true);
+
+        runner.run();
+        List<Long> courierWaitTimes = new ArrayList<>(runner.getStatistics().getCourierWaitTimes());
+        long simulatedTime = runner.getSimulatedTime();
+        runner.getStatistics().getCourierWaitTimes().clear();
+        runner.run();
+
+        assertEquals(courierWaitTimes, runner.getStatistics().getCourierWaitTimes());
+        assertEquals(simulatedTime, runner.getSimulatedTime());
+    }
+
+    @Test
+    public void testRunningAgainWithPoissonArrivals() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(30), 4, DispatchStrategy.MATCHED, 99L);
+        runner.setRetainWaitTimes(true);
+        runner.setArrivalProcess(new PoissonArrivals(2, 5L));
+
+        runner.run();
+        List<Long> foodWaitTimes = runner.getStatistics().getFoodWaitTimes();
+        List<Long> courierWaitTimes = runner.getStatistics().getCourierWaitTimes();
+        long simulatedTime = runner.getSimulatedTime();
+        runner.run();
+
+        // The arrivals start over and the second run's wait times aren't added to the first's
+        assertEquals(30, runner.getStatistics().getFoodWaitTimes().size());
+        assertEquals(foodWaitTimes, runner.getStatistics().getFoodWaitTimes());
+        assertEquals(courierWaitTimes, runner.getStatistics().getCourierWaitTimes());
+        assertEquals(simulatedTime, runner.getSimulatedTime());
+    }
+
+    @Test
+    public void testTravelTimeDistribution() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(10), 10, DispatchStrategy.MATCHED, 1L);
+        runner.setRetainWaitTimes(true);
+        // Every courier arrives after 20 s, when its order has been ready for a while
+        runner.setTravelTimeDistribution(new FixedDistribution(20_000));
+
+        runner.run();
+
+        assertEquals(10, runner.getProcessedOrders());
+        for (long courierWait : runner.getStatistics().getCourierWaitTimes()) {
+            assertEquals(0, courierWait);
+        }
+    }
+
+    @Test
+    public void testRetentionAppliesToEveryRun() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(20), 3, DispatchStrategy.FIFO, 7L);
+        runner.setRetainWaitTimes(true);
+
+        runner.run();
+        Statistics firstRun = runner.getStatistics();
+        runner.run();
+
+        // The first run's statistics are left as they were
+        assertEquals(20, firstRun.getFoodWaitTimes().size());
+        assertTrue(runner.getStatistics().isRetainingWaitTimes());
+        assertEquals(20, runner.getStatistics().getFoodWaitTimes().size());
+    }
+
+    @Test
+    public void testOnlyHistogramsAreKeptByDefault() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(createTestOrders(50), 5, DispatchStrategy.MATCHED, 42L);
+        runner.run();
+
+        assertFalse(runner.getStatistics().isRetainingWaitTimes());
+        assertTrue(runner.getStatistics().getFoodWaitTimes().isEmpty());
+        assertEquals(50, runner.getStatistics().getFoodWaitHistogram().getCount());
+        assertEquals(50, runner.getStatistics().getCourierWaitHistogram().getCount());
+    }
+
+    @Test
+    public void testNoOrders() {
+        VirtualTimeSimulationRunner runner = new VirtualTimeSimulationRunner(new ArrayList<>(), 2, DispatchStrategy.FIFO, 1L);
+
+        runner.run();
+
+        assertEquals(0, runner.getProcessedOrders());
+        assertEquals(0, runner.getSimulatedTime());
+    }
+
+    private List<Order> createTestOrders(int num) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+            orders.add(new Order(String.valueOf(i), "Pizza", (i % 10) + 1));
+        }
+        return orders;
+    }
+}
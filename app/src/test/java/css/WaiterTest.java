@@ -2,20 +2,28 @@ package css;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import css.Arrivals.FixedRateArrivals;
+import css.Arrivals.TraceReplayArrivals;
 import css.Model.Order;
 import css.Producers.LoadOrders;
+import css.Producers.OrderStreamReader;
+import css.Producers.SyntheticOrderSource;
 import css.Producers.Waiter;
+import css.Timing.ScaledClock;
 
 public class WaiterTest {
 
@@ -143,6 +151,146 @@ public class WaiterTest {
         }
     }
 
+    @Test
+    public void testWaiterStreamsOrders() throws InterruptedException {
+        String json = "[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3},"
+                + "{\"id\": \"2\", \"name\": \"Burger\", \"prepTime\": 4},"
+                + "{\"id\": \"3\", \"name\": \"Salad\", \"prepTime\": 1}]";
+        Waiter waiter = new Waiter(new OrderStreamReader(new StringReader(json)), allOrdersQueue, allOrdersReceived);
+        // The total isn't known until the whole stream has been read
+        assertEquals(Waiter.UNKNOWN_TOTAL, waiter.getTotalOrders());
+
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+
+        // The first batch is handed out while the waiter is still pacing the rest
+        Order firstOrder = allOrdersQueue.take();
+        assertEquals("1", firstOrder.getId());
+
+        waiterThread.join();
+        assertEquals(3, waiter.getTotalOrders());
+        assertEquals(2, allOrdersQueue.size());
+        assertTrue(allOrdersReceived.get());
+    }
+
+    @Test
+    public void testWaiterStreamingEmptyFile() throws InterruptedException {
+        Waiter waiter = new Waiter(new OrderStreamReader(new StringReader("[]")), allOrdersQueue, allOrdersReceived);
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+        waiterThread.join();
+
+        assertEquals(0, waiter.getTotalOrders());
+        assertTrue(allOrdersQueue.isEmpty());
+        assertTrue(allOrdersReceived.get());
+    }
+
+    @Test
+    public void testWaiterStreamingTruncatedFile() throws InterruptedException {
+        // The second order is cut off halfway through
+        String json = "[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3},"
+                + "{\"id\": \"2\", \"name\": ";
+        Waiter waiter = new Waiter(new OrderStreamReader(new StringReader(json)), allOrdersQueue, allOrdersReceived);
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+        waiterThread.join(5000);
+
+        assertFalse(waiterThread.isAlive());
+        // The order read before the bad one still counts
+        assertEquals(1, waiter.getTotalOrders());
+        assertEquals(1, allOrdersQueue.size());
+        assertTrue(allOrdersReceived.get());
+    }
+
+    @Test
+    public void testInterruptedWaiterPublishesTheTotal() throws InterruptedException {
+        List<Order> dummyOrders = Arrays.asList(
+                new Order("1", "Pizza", 3),
+                new Order("2", "Burger", 4),
+                new Order("3", "Salad", 1)
+        );
+        // Room for one order, so the waiter blocks handing out the second
+        BlockingQueue<Order> fullQueue = new ArrayBlockingQueue<>(1);
+        Waiter waiter = new Waiter(dummyOrders.iterator(), fullQueue, allOrdersReceived);
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+        while (fullQueue.isEmpty() || waiterThread.getState() != Thread.State.WAITING) {
+            Thread.sleep(5);
+        }
+
+        waiterThread.interrupt();
+        waiterThread.join(5000);
+
+        assertFalse(waiterThread.isAlive());
+        assertEquals(1, waiter.getTotalOrders());
+        assertTrue(allOrdersReceived.get());
+    }
+
+    @Test
+    public void testWaiterFollowsArrivalProcess() throws InterruptedException {
+        List<Order> dummyOrders = Arrays.asList(
+                new Order("1", "Pizza", 3),
+                new Order("2", "Burger", 4),
+                new Order("3", "Salad", 1)
+        );
+        // 1 order every 2 simulated seconds, run 20 times faster than real time
+        Waiter waiter = new Waiter(dummyOrders, allOrdersQueue, allOrdersReceived, new ScaledClock(20));
+        waiter.setArrivalProcess(new FixedRateArrivals(0.5));
+        Thread waiterThread = new Thread(waiter);
+
+        long startTime = System.currentTimeMillis();
+        waiterThread.start();
+        waiterThread.join();
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        // The last order arrives at 4 simulated seconds, 200 real ms, with no pause after it
+        assertTrue(elapsed >= 190, "Took " + elapsed + " ms");
+        assertTrue(elapsed < 1000, "Took " + elapsed + " ms");
+        assertEquals(3, allOrdersQueue.size());
+        assertEquals(3, waiter.getTotalOrders());
+        assertTrue(allOrdersReceived.get());
+    }
+
+    @Test
+    public void testWaiterReplaysCreationTimes() throws InterruptedException {
+        String json = "[{\"id\": \"1\", \"name\": \"Pizza\", \"prepTime\": 3, \"createdAt\": \"2024-05-17T18:30:00Z\"},"
+                + "{\"id\": \"2\", \"name\": \"Burger\", \"prepTime\": 4, \"createdAt\": \"2024-05-17T18:30:00.100Z\"},"
+                + "{\"id\": \"3\", \"name\": \"Salad\", \"prepTime\": 1, \"createdAt\": \"2024-05-17T18:30:04Z\"}]";
+        // The trace spans 4 s, replayed 10 times faster
+        Waiter waiter = new Waiter(new OrderStreamReader(new StringReader(json)), allOrdersQueue, allOrdersReceived);
+        waiter.setArrivalProcess(new TraceReplayArrivals(10));
+        Thread waiterThread = new Thread(waiter);
+
+        long startTime = System.currentTimeMillis();
+        waiterThread.start();
+        assertEquals("1", allOrdersQueue.take().getId());
+        assertEquals("2", allOrdersQueue.take().getId());
+        long secondOrder = System.currentTimeMillis() - startTime;
+        assertEquals("3", allOrdersQueue.take().getId());
+        long thirdOrder = System.currentTimeMillis() - startTime;
+        waiterThread.join();
+
+        assertTrue(secondOrder < 300, "Second order after " + secondOrder + " ms");
+        assertTrue(thirdOrder >= 390, "Third order after " + thirdOrder + " ms");
+        assertTrue(thirdOrder < 1000, "Third order after " + thirdOrder + " ms");
+        assertEquals(3, waiter.getTotalOrders());
+    }
+
+    @Test
+    public void testWaiterKnowsTheTotalOfAGeneratedSource() throws InterruptedException {
+        // 4 orders handed out 1000 times faster than the usual 2 per second
+        Waiter waiter = new Waiter(new SyntheticOrderSource(4, 42L), allOrdersQueue, allOrdersReceived, new ScaledClock(1000));
+        assertEquals(4, waiter.getTotalOrders());
+
+        Thread waiterThread = new Thread(waiter);
+        waiterThread.start();
+        waiterThread.join();
+
+        assertEquals(4, allOrdersQueue.size());
+        assertEquals(4, waiter.getTotalOrders());
+        assertTrue(allOrdersReceived.get());
+    }
+
     @Test 
     public void testWaiterFileInput(){
         String filePath = "/Users/nardineshak/css/app/src/test/resources/small_orders.json";